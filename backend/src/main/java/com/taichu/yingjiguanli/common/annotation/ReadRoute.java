@@ -0,0 +1,28 @@
+package com.taichu.yingjiguanli.common.annotation;
+
+import com.taichu.yingjiguanli.common.datasource.ReadTarget;
+
+import java.lang.annotation.*;
+
+/**
+ * 读路由注解
+ * 用于方法级别，显式指定方法内读操作使用的数据源：
+ * 未开启事务的读路径标注 {@link ReadTarget#REPLICA} 后同只读事务一样路由到副本；
+ * 需要读到最新数据的只读路径 (如登录校验密码) 标注 {@link ReadTarget#PRIMARY} 固定读主库。
+ * 读写事务始终使用主库，不受本注解影响。
+ * 未开启事务时路由数据源无法将会话切换为只读缓存模式，从副本读取的实体仍会写入二级缓存，
+ * 因此 {@link ReadTarget#REPLICA} 只标注在不读取二级缓存实体的路径上，读取缓存实体的路径需要读副本时使用只读事务
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadRoute {
+
+    /**
+     * 读路由目标
+     */
+    ReadTarget value() default ReadTarget.REPLICA;
+}
@@ -0,0 +1,70 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import jakarta.persistence.Query;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 数据权限条件
+ * 由 {@link DataScopeAspect} 生成，SQL 片段只包含列名和命名参数，参数值单独保存，
+ * 不同用户生成的 SQL 文本保持一致，可命中预编译语句缓存和 Hibernate 查询计划缓存
+ *
+ * <p>原生查询使用方式：</p>
+ * <pre>
+ * DataScopeCondition condition = DataScopeContext.getCondition();
+ * Query query = entityManager.createNativeQuery(sql + condition.sql());
+ * condition.applyTo(query);
+ * </pre>
+ *
+ * @param sql        SQL 条件片段 (以 " AND (" 开头，无条件时为空字符串)
+ * @param parameters 命名参数 (参数名 -> 参数值)
+ * @param filter     生成条件所用的过滤方案 (供 Specification 复用)
+ * @author CX
+ * @since 2026-01-17
+ */
+public record DataScopeCondition(String sql, Map<String, Object> parameters, DataScopeFilter filter) {
+
+    /**
+     * 部门子树根节点参数名
+     */
+    public static final String PARAM_SUBTREE_DEPT_ID = "dataScopeSubtreeDeptId";
+
+    /**
+     * 自定义数据权限角色参数名
+     */
+    public static final String PARAM_CUSTOM_ROLE_IDS = "dataScopeCustomRoleIds";
+
+    /**
+     * 内联部门参数名
+     */
+    public static final String PARAM_DEPT_IDS = "dataScopeDeptIds";
+
+    /**
+     * 仅本人数据用户参数名
+     */
+    public static final String PARAM_USER_ID = "dataScopeUserId";
+
+    /**
+     * 无数据权限条件
+     */
+    public static final DataScopeCondition EMPTY = new DataScopeCondition("", Collections.emptyMap(), DataScopeFilter.NONE);
+
+    /**
+     * 是否无条件
+     */
+    public boolean isEmpty() {
+        return sql.isEmpty();
+    }
+
+    /**
+     * 将参数绑定到查询
+     *
+     * @param query JPA 查询 (原生或 JPQL)
+     * @return 查询对象
+     */
+    public Query applyTo(Query query) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -2,7 +2,7 @@ package com.taichu.yingjiguanli.common.datascope;
 
 /**
  * 数据权限上下文
- * 使用 ThreadLocal 存储当前请求的数据权限 SQL 片段
+ * 使用 ThreadLocal 存储当前请求的数据权限条件 (参数化 SQL 片段及参数)
  *
  * @author CX
  * @since 2026-01-13
@@ -10,33 +10,43 @@ package com.taichu.yingjiguanli.common.datascope;
 public class DataScopeContext {
 
     /**
-     * 存储数据权限 SQL 条件
+     * 存储数据权限条件
      */
-    private static final ThreadLocal<String> DATA_SCOPE_SQL = new ThreadLocal<>();
+    private static final ThreadLocal<DataScopeCondition> DATA_SCOPE_CONDITION = new ThreadLocal<>();
 
     /**
-     * 设置数据权限 SQL
+     * 设置数据权限条件
      *
-     * @param sql SQL 条件片段
+     * @param condition 数据权限条件
      */
-    public static void setDataScopeSql(String sql) {
-        DATA_SCOPE_SQL.set(sql);
+    public static void setCondition(DataScopeCondition condition) {
+        DATA_SCOPE_CONDITION.set(condition);
     }
 
     /**
-     * 获取数据权限 SQL
+     * 获取数据权限条件
+     *
+     * @return 数据权限条件，无条件时返回 {@link DataScopeCondition#EMPTY}
+     */
+    public static DataScopeCondition getCondition() {
+        DataScopeCondition condition = DATA_SCOPE_CONDITION.get();
+        return condition != null ? condition : DataScopeCondition.EMPTY;
+    }
+
+    /**
+     * 获取数据权限 SQL (参数需通过 {@link DataScopeCondition#applyTo} 绑定)
      *
      * @return SQL 条件片段
      */
     public static String getDataScopeSql() {
-        return DATA_SCOPE_SQL.get();
+        return getCondition().sql();
     }
 
     /**
-     * 清除数据权限 SQL
+     * 清除数据权限条件
      */
     public static void clear() {
-        DATA_SCOPE_SQL.remove();
+        DATA_SCOPE_CONDITION.remove();
     }
 
     /**
@@ -45,7 +55,6 @@ public class DataScopeContext {
      * @return true 有条件，false 无条件
      */
     public static boolean hasDataScope() {
-        String sql = DATA_SCOPE_SQL.get();
-        return sql != null && !sql.isEmpty();
+        return !getCondition().isEmpty();
     }
 }
@@ -0,0 +1,99 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 数据权限过滤方案
+ * 根据 {@link ResolvedDataScope} 决定部门条件的生成方式：部门数量不超过阈值时直接内联部门ID，
+ * 超过阈值时本部门及下级改用部门闭包表子查询、自定义部门改用角色部门关联表子查询，
+ * 避免生成包含成千上万个字面量的 IN 列表
+ *
+ * @param subtreeDeptId 部门子树根节点ID (不为 null 时按闭包表子查询过滤)
+ * @param customRoleIds 自定义数据权限角色ID (不为空时按角色部门关联表子查询过滤)
+ * @param inlineDeptIds 直接内联的部门ID
+ * @param selfUserId    仅本人数据的用户ID (不为 null 时按创建人过滤)
+ * @author CX
+ * @since 2026-01-17
+ */
+public record DataScopeFilter(
+        Long subtreeDeptId,
+        Set<Long> customRoleIds,
+        Set<Long> inlineDeptIds,
+        Long selfUserId) {
+
+    /**
+     * 不过滤
+     */
+    public static final DataScopeFilter NONE = new DataScopeFilter(
+            null, Collections.emptySet(), Collections.emptySet(), null);
+
+    /**
+     * 根据数据权限生成过滤方案
+     *
+     * @param scope           数据权限
+     * @param inlineThreshold 内联部门ID的最大数量，超过后改用子查询
+     * @return 过滤方案
+     */
+    public static DataScopeFilter of(ResolvedDataScope scope, int inlineThreshold) {
+        // 未登录、用户不存在或无角色时不过滤；全部数据权限无限制
+        if (!scope.restricted() || scope.isAll()) {
+            return NONE;
+        }
+        Long selfUserId = scope.hasSelf() ? scope.userId() : null;
+
+        // 部门数量较少，直接内联
+        if (scope.deptIds().size() <= inlineThreshold) {
+            return new DataScopeFilter(null, Collections.emptySet(), scope.deptIds(), selfUserId);
+        }
+
+        Long subtreeDeptId = null;
+        Set<Long> inlineDeptIds = new HashSet<>();
+        if (scope.hasDeptAndChild()) {
+            // 本部门及下级 (已包含本部门)
+            subtreeDeptId = scope.deptId();
+        } else if (scope.deptId() != null && scope.scopeTypes().contains(DataScopeType.DATA_SCOPE_DEPT)) {
+            // 本部门
+            inlineDeptIds.add(scope.deptId());
+        }
+
+        // 自定义部门
+        Set<Long> customRoleIds = Collections.emptySet();
+        if (scope.customDeptIds().size() > inlineThreshold && !scope.customRoleIds().isEmpty()) {
+            customRoleIds = scope.customRoleIds();
+        } else {
+            inlineDeptIds.addAll(scope.customDeptIds());
+        }
+
+        return new DataScopeFilter(subtreeDeptId, customRoleIds, Set.copyOf(inlineDeptIds), selfUserId);
+    }
+
+    /**
+     * 是否使用部门子树子查询
+     */
+    public boolean hasDeptSubtree() {
+        return subtreeDeptId != null;
+    }
+
+    /**
+     * 是否使用自定义部门子查询
+     */
+    public boolean hasCustomRoles() {
+        return !customRoleIds.isEmpty();
+    }
+
+    /**
+     * 是否包含仅本人数据条件
+     */
+    public boolean hasSelf() {
+        return selfUserId != null;
+    }
+
+    /**
+     * 是否无任何过滤条件
+     */
+    public boolean isEmpty() {
+        return !hasDeptSubtree() && !hasCustomRoles() && inlineDeptIds.isEmpty() && !hasSelf();
+    }
+}
@@ -1,42 +1,59 @@
 package com.taichu.yingjiguanli.common.datascope;
 
-import cn.dev33.satoken.stp.StpUtil;
+import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
+import com.taichu.yingjiguanli.modules.sys.entity.SysDeptClosure;
 import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
-import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
-import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
-import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
-import com.taichu.yingjiguanli.modules.sys.repository.SysUserRepository;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.criteria.Subquery;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * 数据权限辅助类
  * 用于在 JPA Specification 中构建数据权限条件
  *
+ * <p>数据权限由 {@link DataScopeResolver} 在每个请求内解析一次，本类各方法共享解析结果。
+ * 可访问部门数量超过阈值时，本部门及下级通过部门闭包表子查询过滤，自定义部门通过角色部门关联表子查询过滤，
+ * 不再将整个部门集合展开为 IN 列表。条件值均以绑定参数传递，查询计划可在用户之间复用。</p>
+ *
  * @author CX
  * @since 2026-01-13
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class DataScopeHelper {
 
-    private final SysUserRepository userRepository;
-    private final SysRoleRepository roleRepository;
-    private final SysDeptRepository deptRepository;
+    private final DataScopeResolver dataScopeResolver;
+    private final int inlineThreshold;
+
+    public DataScopeHelper(DataScopeResolver dataScopeResolver,
+                           @Value("${yingji.data-scope.inline-threshold:200}") int inlineThreshold) {
+        this.dataScopeResolver = dataScopeResolver;
+        this.inlineThreshold = inlineThreshold;
+    }
 
     /**
-     * 构建数据权限 Predicate
+     * 获取当前用户已解析的数据权限
+     *
+     * @return 数据权限
+     */
+    public ResolvedDataScope getCurrentScope() {
+        return dataScopeResolver.resolve();
+    }
+
+    /**
+     * 构建数据权限 Predicate (部门子树展开为 IN 列表)
      *
      * @param root            实体根
      * @param criteriaBuilder 条件构建器
@@ -50,87 +67,65 @@ public class DataScopeHelper {
             CriteriaBuilder criteriaBuilder,
             String deptIdField,
             String createByField) {
+        return buildDataScopePredicate(root, null, criteriaBuilder, deptIdField, createByField);
+    }
 
-        // 检查是否已登录
-        if (!StpUtil.isLogin()) {
-            log.debug("用户未登录，跳过数据权限过滤");
-            return null;
-        }
-
-        // 获取当前用户ID
-        Long userId = StpUtil.getLoginIdAsLong();
+    /**
+     * 构建数据权限 Predicate
+     *
+     * @param root            实体根
+     * @param query           查询对象 (用于构建部门子查询，为 null 时展开为 IN 列表)
+     * @param criteriaBuilder 条件构建器
+     * @param deptIdField     部门ID字段名
+     * @param createByField   创建人字段名（用于仅本人数据权限）
+     * @param <T>             实体类型
+     * @return Predicate 条件，如果无权限限制则返回 null
+     */
+    public <T> Predicate buildDataScopePredicate(
+            Root<T> root,
+            CriteriaQuery<?> query,
+            CriteriaBuilder criteriaBuilder,
+            String deptIdField,
+            String createByField) {
 
-        // 获取用户信息
-        SysUser user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            log.warn("用户不存在: userId={}", userId);
-            return null;
+        DataScopeFilter filter;
+        if (query == null) {
+            // 无查询对象时无法构建子查询，部门ID全部内联
+            filter = DataScopeFilter.of(dataScopeResolver.resolve(), Integer.MAX_VALUE);
+        } else if (DataScopeContext.hasDataScope()) {
+            // 复用 @DataScope 切面已生成的过滤方案
+            filter = DataScopeContext.getCondition().filter();
+        } else {
+            filter = DataScopeFilter.of(dataScopeResolver.resolve(), inlineThreshold);
         }
-
-        // 获取用户所有角色
-        List<SysRole> roles = roleRepository.findRolesByUserId(userId);
-        if (roles.isEmpty()) {
-            log.debug("用户无角色，跳过数据权限过滤: userId={}", userId);
+        if (filter.isEmpty()) {
             return null;
         }
 
         // 构建数据权限条件
         List<Predicate> predicates = new ArrayList<>();
 
-        for (SysRole role : roles) {
-            Integer scopeType = role.getDataScope();
-            if (scopeType == null) {
-                scopeType = DataScopeType.DATA_SCOPE_ALL.getCode();
+        if (deptIdField != null) {
+            Path<Object> deptPath = root.get(deptIdField);
+            // 本部门及下级：部门闭包表子查询
+            if (filter.hasDeptSubtree()) {
+                predicates.add(deptPath.in(deptSubtreeSubquery(query, criteriaBuilder, filter.subtreeDeptId())));
             }
-
-            DataScopeType dataScopeType = DataScopeType.fromCode(scopeType);
-
-            switch (dataScopeType) {
-                case DATA_SCOPE_ALL:
-                    // 全部数据权限，返回 null 表示无限制
-                    return null;
-
-                case DATA_SCOPE_DEPT:
-                    // 本部门数据
-                    if (deptIdField != null && user.getDeptId() != null) {
-                        predicates.add(criteriaBuilder.equal(root.get(deptIdField), user.getDeptId()));
-                    }
-                    break;
-
-                case DATA_SCOPE_DEPT_AND_CHILD:
-                    // 本部门及下级部门
-                    if (deptIdField != null && user.getDeptId() != null) {
-                        List<Long> deptIds = deptRepository.findDeptAndChildrenIds(user.getDeptId());
-                        if (!deptIds.isEmpty()) {
-                            predicates.add(root.get(deptIdField).in(deptIds));
-                        }
-                    }
-                    break;
-
-                case DATA_SCOPE_SELF:
-                    // 仅本人数据
-                    if (createByField != null) {
-                        predicates.add(criteriaBuilder.equal(root.get(createByField), userId));
-                    }
-                    break;
-
-                case DATA_SCOPE_CUSTOM:
-                    // 自定义部门数据权限
-                    if (deptIdField != null) {
-                        Set<Long> customDeptIds = role.getDepts().stream()
-                                .map(dept -> dept.getId())
-                                .collect(Collectors.toSet());
-                        if (!customDeptIds.isEmpty()) {
-                            predicates.add(root.get(deptIdField).in(customDeptIds));
-                        }
-                    }
-                    break;
-
-                default:
-                    break;
+            // 自定义部门：角色部门关联子查询
+            if (filter.hasCustomRoles()) {
+                predicates.add(deptPath.in(customDeptSubquery(query, filter.customRoleIds())));
+            }
+            // 本部门、本部门及下级、自定义部门 (数量未超过阈值时内联)
+            if (!filter.inlineDeptIds().isEmpty()) {
+                predicates.add(deptPath.in(filter.inlineDeptIds()));
             }
         }
 
+        // 仅本人数据
+        if (createByField != null && filter.hasSelf()) {
+            predicates.add(criteriaBuilder.equal(root.get(createByField), filter.selfUserId()));
+        }
+
         // 合并所有条件 (使用 OR)
         if (!predicates.isEmpty()) {
             return criteriaBuilder.or(predicates.toArray(new Predicate[0]));
@@ -139,69 +134,43 @@ public class DataScopeHelper {
         return null;
     }
 
+    /**
+     * 构建部门子树子查询: SELECT descendantId FROM SysDeptClosure WHERE ancestorId = :deptId
+     */
+    private Subquery<Long> deptSubtreeSubquery(CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, Long deptId) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<SysDeptClosure> closure = subquery.from(SysDeptClosure.class);
+        subquery.select(closure.get("descendantId"))
+                .where(criteriaBuilder.equal(closure.get("ancestorId"), deptId));
+        return subquery;
+    }
+
+    /**
+     * 构建自定义部门子查询: SELECT d.id FROM SysRole r JOIN r.depts d WHERE r.id IN (:roleIds)
+     */
+    private Subquery<Long> customDeptSubquery(CriteriaQuery<?> query, Set<Long> roleIds) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<SysRole> role = subquery.from(SysRole.class);
+        Join<SysRole, SysDept> dept = role.join("depts");
+        subquery.select(dept.get("id"))
+                .where(role.get("id").in(roleIds));
+        return subquery;
+    }
+
     /**
      * 获取当前用户可访问的部门ID列表
      *
      * @return 部门ID列表，如果是全部权限则返回 null
      */
     public Set<Long> getAccessibleDeptIds() {
-        // 检查是否已登录
-        if (!StpUtil.isLogin()) {
-            return new HashSet<>();
-        }
-
-        Long userId = StpUtil.getLoginIdAsLong();
-        SysUser user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
+        ResolvedDataScope scope = dataScopeResolver.resolve();
+        if (!scope.restricted()) {
             return new HashSet<>();
         }
-
-        List<SysRole> roles = roleRepository.findRolesByUserId(userId);
-        if (roles.isEmpty()) {
-            return new HashSet<>();
-        }
-
-        Set<Long> accessibleDeptIds = new HashSet<>();
-
-        for (SysRole role : roles) {
-            Integer scopeType = role.getDataScope();
-            if (scopeType == null) {
-                scopeType = DataScopeType.DATA_SCOPE_ALL.getCode();
-            }
-
-            DataScopeType dataScopeType = DataScopeType.fromCode(scopeType);
-
-            switch (dataScopeType) {
-                case DATA_SCOPE_ALL:
-                    // 全部数据权限，返回 null 表示无限制
-                    return null;
-
-                case DATA_SCOPE_DEPT:
-                    if (user.getDeptId() != null) {
-                        accessibleDeptIds.add(user.getDeptId());
-                    }
-                    break;
-
-                case DATA_SCOPE_DEPT_AND_CHILD:
-                    if (user.getDeptId() != null) {
-                        List<Long> deptIds = deptRepository.findDeptAndChildrenIds(user.getDeptId());
-                        accessibleDeptIds.addAll(deptIds);
-                    }
-                    break;
-
-                case DATA_SCOPE_CUSTOM:
-                    Set<Long> customDeptIds = role.getDepts().stream()
-                            .map(dept -> dept.getId())
-                            .collect(Collectors.toSet());
-                    accessibleDeptIds.addAll(customDeptIds);
-                    break;
-
-                default:
-                    break;
-            }
+        if (scope.isAll()) {
+            return null;
         }
-
-        return accessibleDeptIds;
+        return scope.deptIds();
     }
 
     /**
@@ -210,21 +179,7 @@ public class DataScopeHelper {
      * @return true 有全部权限，false 无
      */
     public boolean hasAllDataScope() {
-        if (!StpUtil.isLogin()) {
-            return false;
-        }
-
-        Long userId = StpUtil.getLoginIdAsLong();
-        List<SysRole> roles = roleRepository.findRolesByUserId(userId);
-
-        for (SysRole role : roles) {
-            Integer scopeType = role.getDataScope();
-            if (scopeType != null && scopeType == DataScopeType.DATA_SCOPE_ALL.getCode()) {
-                return true;
-            }
-        }
-
-        return false;
+        return dataScopeResolver.resolve().isAll();
     }
 
     /**
@@ -233,28 +188,6 @@ public class DataScopeHelper {
      * @return true 仅本人权限，false 有其他权限
      */
     public boolean isSelfDataScopeOnly() {
-        if (!StpUtil.isLogin()) {
-            return true;
-        }
-
-        Long userId = StpUtil.getLoginIdAsLong();
-        List<SysRole> roles = roleRepository.findRolesByUserId(userId);
-
-        if (roles.isEmpty()) {
-            return true;
-        }
-
-        // 检查是否所有角色都是仅本人权限
-        for (SysRole role : roles) {
-            Integer scopeType = role.getDataScope();
-            if (scopeType == null) {
-                scopeType = DataScopeType.DATA_SCOPE_ALL.getCode();
-            }
-            if (scopeType != DataScopeType.DATA_SCOPE_SELF.getCode()) {
-                return false;
-            }
-        }
-
-        return true;
+        return dataScopeResolver.resolve().isSelfOnly();
     }
 }
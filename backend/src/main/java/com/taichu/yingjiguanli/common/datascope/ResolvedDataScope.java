@@ -0,0 +1,117 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 已解析的数据权限范围
+ * 由 {@link DataScopeResolver} 每个请求计算一次，合并当前用户所有角色的数据权限
+ *
+ * @param userId        当前用户ID (未登录时为 null)
+ * @param deptId        当前用户部门ID
+ * @param restricted    是否需要数据权限过滤 (未登录、用户不存在、无角色时为 false，与原有行为保持一致)
+ * @param scopeTypes    合并后的数据权限类型
+ * @param deptIds       可访问的部门ID (本部门、本部门及下级、自定义部门的并集)
+ * @param customDeptIds 自定义数据权限角色指定的部门ID
+ * @param customRoleIds 自定义数据权限的角色ID (用于按角色部门关联表构建子查询)
+ * @author CX
+ * @since 2026-01-17
+ */
+public record ResolvedDataScope(
+        Long userId,
+        Long deptId,
+        boolean restricted,
+        Set<DataScopeType> scopeTypes,
+        Set<Long> deptIds,
+        Set<Long> customDeptIds,
+        Set<Long> customRoleIds) {
+
+    /**
+     * 未登录时的数据权限
+     */
+    public static final ResolvedDataScope ANONYMOUS = new ResolvedDataScope(
+            null, null, false, Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+            Collections.emptySet());
+
+    /**
+     * 已登录但无法确定角色 (用户不存在或无角色) 时的数据权限
+     *
+     * @param userId 用户ID
+     * @param deptId 部门ID
+     * @return 数据权限
+     */
+    public static ResolvedDataScope unresolved(Long userId, Long deptId) {
+        return new ResolvedDataScope(userId, deptId, false,
+                Collections.emptySet(), Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+    }
+
+    /**
+     * 是否已登录
+     */
+    public boolean isLogin() {
+        return userId != null;
+    }
+
+    /**
+     * 是否拥有全部数据权限
+     */
+    public boolean isAll() {
+        return scopeTypes.contains(DataScopeType.DATA_SCOPE_ALL);
+    }
+
+    /**
+     * 是否包含仅本人数据权限
+     */
+    public boolean hasSelf() {
+        return scopeTypes.contains(DataScopeType.DATA_SCOPE_SELF);
+    }
+
+    /**
+     * 是否包含本部门及下级数据权限 (且用户有部门)
+     */
+    public boolean hasDeptAndChild() {
+        return deptId != null && scopeTypes.contains(DataScopeType.DATA_SCOPE_DEPT_AND_CHILD);
+    }
+
+    /**
+     * 是否仅有本人数据权限 (无角色时视为仅本人)
+     */
+    public boolean isSelfOnly() {
+        return scopeTypes.isEmpty() || (scopeTypes.size() == 1 && hasSelf());
+    }
+
+    /**
+     * 权限最大的数据权限类型 (编码最小)
+     *
+     * @return 数据权限类型，无角色时返回仅本人
+     */
+    public DataScopeType widestType() {
+        return scopeTypes.stream()
+                .min((a, b) -> Integer.compare(a.getCode(), b.getCode()))
+                .orElse(DataScopeType.DATA_SCOPE_SELF);
+    }
+
+    /**
+     * 过滤范围标识
+     * 过滤结果相同的数据权限返回相等的值 (可访问部门相同且本人条件相同)，用于缓存按数据权限过滤的查询结果
+     *
+     * @return 过滤范围标识
+     */
+    public Object filterKey() {
+        if (!restricted || isAll()) {
+            return FilterKey.ALL;
+        }
+        return new FilterKey(deptIds, hasSelf() ? userId : null);
+    }
+
+    /**
+     * 过滤范围标识
+     *
+     * @param deptIds    可访问的部门ID
+     * @param selfUserId 仅本人数据的用户ID
+     */
+    private record FilterKey(Set<Long> deptIds, Long selfUserId) {
+
+        private static final FilterKey ALL = new FilterKey(null, null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.taichu.yingjiguanli.common.datasource;
+
+import com.taichu.yingjiguanli.common.annotation.ReadRoute;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 读路由 AOP 切面
+ * 在 {@link ReadRoute} 标注的方法执行期间设置读路由目标，方法返回后恢复外层设置
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Aspect
+@Component
+public class ReadRouteAspect {
+
+    /**
+     * 环绕通知：设置并恢复读路由目标
+     *
+     * @param joinPoint 切点
+     * @param readRoute 读路由注解
+     * @return 方法返回值
+     * @throws Throwable 方法抛出的异常
+     */
+    @Around("@annotation(readRoute)")
+    public Object around(ProceedingJoinPoint joinPoint, ReadRoute readRoute) throws Throwable {
+        ReadTarget previous = ReadRouteContext.set(readRoute.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadRouteContext.restore(previous);
+        }
+    }
+}
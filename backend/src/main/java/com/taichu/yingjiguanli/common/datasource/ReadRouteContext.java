@@ -0,0 +1,50 @@
+package com.taichu.yingjiguanli.common.datasource;
+
+/**
+ * 读路由上下文
+ * 使用 ThreadLocal 存储当前线程显式指定的读路由目标
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public class ReadRouteContext {
+
+    /**
+     * 存储读路由目标
+     */
+    private static final ThreadLocal<ReadTarget> READ_TARGET = new ThreadLocal<>();
+
+    /**
+     * 获取显式指定的读路由目标
+     *
+     * @return 读路由目标，未指定时为 null
+     */
+    public static ReadTarget get() {
+        return READ_TARGET.get();
+    }
+
+    /**
+     * 设置读路由目标
+     *
+     * @param target 读路由目标
+     * @return 之前的读路由目标 (用于 {@link #restore} 恢复嵌套调用前的状态)
+     */
+    public static ReadTarget set(ReadTarget target) {
+        ReadTarget previous = READ_TARGET.get();
+        READ_TARGET.set(target);
+        return previous;
+    }
+
+    /**
+     * 恢复读路由目标
+     *
+     * @param previous 之前的读路由目标，为 null 时清除
+     */
+    public static void restore(ReadTarget previous) {
+        if (previous != null) {
+            READ_TARGET.set(previous);
+        } else {
+            READ_TARGET.remove();
+        }
+    }
+}
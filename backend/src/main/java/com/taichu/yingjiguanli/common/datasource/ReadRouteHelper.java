@@ -0,0 +1,59 @@
+package com.taichu.yingjiguanli.common.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * 读路由辅助类
+ * 本地缓存 (授权档案、菜单索引、部门索引等) 的加载固定读主库：
+ * 缓存在变更事件后才重新加载，从有延迟的副本加载会把旧数据保留到下一次失效，而不只是复制延迟这段时间
+ *
+ * <p>调用方处于只读事务中时，外层事务可能已绑定副本连接，加载在独立的只读事务中执行。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Component
+public class ReadRouteHelper {
+
+    private final boolean replicaEnabled;
+    private final TransactionTemplate requiresNewTemplate;
+
+    public ReadRouteHelper(PlatformTransactionManager transactionManager,
+                           @Value("${yingji.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        this.replicaEnabled = replicaEnabled;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.requiresNewTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 从主库读取
+     *
+     * @param loader 读取函数
+     * @param <T>    返回类型
+     * @return 读取结果
+     */
+    public <T> T onPrimary(Supplier<T> loader) {
+        // 未启用副本，或处于读写事务中 (已使用主库)
+        if (!replicaEnabled || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return loader.get();
+        }
+
+        ReadTarget previous = ReadRouteContext.set(ReadTarget.PRIMARY);
+        try {
+            return TransactionSynchronizationManager.isActualTransactionActive()
+                    ? requiresNewTemplate.execute(status -> loader.get())
+                    : loader.get();
+        } finally {
+            ReadRouteContext.restore(previous);
+        }
+    }
+}
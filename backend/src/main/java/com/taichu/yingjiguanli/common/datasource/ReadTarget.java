@@ -0,0 +1,20 @@
+package com.taichu.yingjiguanli.common.datasource;
+
+/**
+ * 读请求路由目标
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public enum ReadTarget {
+
+    /**
+     * 主库
+     */
+    PRIMARY,
+
+    /**
+     * 只读副本 (延迟超限、不可用或会话刚写入时回退主库)
+     */
+    REPLICA
+}
@@ -0,0 +1,171 @@
+package com.taichu.yingjiguanli.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 副本复制延迟监控
+ * 后台线程按固定间隔查询副本的复制延迟，延迟不超过上限时副本可用；
+ * 复制未运行、查询失败或连续多个检查周期没有结果时视为不可用，读请求回退主库
+ *
+ * <p>默认读取 {@code SHOW REPLICA STATUS} 的 {@code Seconds_Behind_Source} 列 (需要 REPLICATION CLIENT 权限)；
+ * 配置了延迟查询时读取其第一列 (延迟秒数)，本地用两个独立实例测试时可配置为 {@code SELECT 0}。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * MySQL 副本状态查询
+     */
+    private static final String REPLICA_STATUS_QUERY = "SHOW REPLICA STATUS";
+
+    /**
+     * MySQL 副本状态中的延迟列
+     */
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    /**
+     * 检查结果有效的检查周期数 (检查线程阻塞时不会一直沿用旧结果)
+     */
+    private static final int STALE_CHECKS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final long staleNanos;
+    private final ScheduledExecutorService scheduler;
+    private volatile Status status = Status.of(false, null, "尚未检查");
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this.jdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, checkInterval.toSeconds()));
+        this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : REPLICA_STATUS_QUERY;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.staleNanos = checkInterval.toNanos() * STALE_CHECKS;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-lag-monitor").daemon().factory());
+        this.scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("副本延迟监控启动: lagQuery={}, maxLag={}, interval={}", this.lagQuery, maxLag, checkInterval);
+    }
+
+    /**
+     * 副本当前是否可用 (最近一次检查成功且延迟未超过上限)
+     *
+     * @return true 可用
+     */
+    public boolean isAvailable() {
+        Status current = status;
+        return current.available() && System.nanoTime() - current.checkedAt() < staleNanos;
+    }
+
+    /**
+     * 标记副本不可用 (获取副本连接失败时调用，下一次检查成功后恢复)
+     *
+     * @param e 异常
+     */
+    public void markUnavailable(Exception e) {
+        status = Status.of(false, null, e.getMessage());
+    }
+
+    /**
+     * 停止检查线程
+     */
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 获取监控状态
+     *
+     * @return 状态信息
+     */
+    public Map<String, Object> stats() {
+        Status current = status;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("available", isAvailable());
+        result.put("lagSeconds", current.lagSeconds());
+        result.put("maxLagSeconds", maxLagSeconds);
+        result.put("reason", current.reason());
+        result.put("checkedAt", current.checkedTime());
+        return result;
+    }
+
+    /**
+     * 查询复制延迟并更新状态
+     */
+    private void check() {
+        Status previous = status;
+        Status next;
+        try {
+            Long lag = jdbcTemplate.query(lagQuery, rs -> rs.next() ? readLag(rs) : null);
+            if (lag == null) {
+                next = Status.of(false, null, "复制未运行");
+            } else if (lag > maxLagSeconds) {
+                next = Status.of(false, lag, "延迟超过上限");
+            } else {
+                next = Status.of(true, lag, null);
+            }
+        } catch (Exception e) {
+            next = Status.of(false, null, e.getMessage());
+        }
+        status = next;
+
+        // 可用状态变化时记录日志
+        if (next.available() != previous.available()) {
+            if (next.available()) {
+                log.info("副本恢复可用: lag={}s", next.lagSeconds());
+            } else {
+                log.warn("副本不可用，读请求回退主库: lag={}, reason={}", next.lagSeconds(), next.reason());
+            }
+        }
+    }
+
+    /**
+     * 读取延迟秒数 (优先按 MySQL 副本状态列名读取，否则取第一列)
+     */
+    private static Long readLag(ResultSet rs) throws SQLException {
+        int column = 1;
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                column = i;
+                break;
+            }
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+
+    /**
+     * 检查结果
+     *
+     * @param available   是否可用
+     * @param lagSeconds  延迟秒数 (未知时为 null)
+     * @param reason      不可用原因
+     * @param checkedAt   检查时间 (System.nanoTime)
+     * @param checkedTime 检查时间
+     */
+    private record Status(boolean available, Long lagSeconds, String reason, long checkedAt,
+                          LocalDateTime checkedTime) {
+
+        static Status of(boolean available, Long lagSeconds, String reason) {
+            return new Status(available, lagSeconds, reason, System.nanoTime(), LocalDateTime.now());
+        }
+    }
+}
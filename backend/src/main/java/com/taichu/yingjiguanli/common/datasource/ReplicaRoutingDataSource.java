@@ -0,0 +1,172 @@
+package com.taichu.yingjiguanli.common.datasource;
+
+import cn.dev33.satoken.SaManager;
+import cn.dev33.satoken.stp.StpUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 主库/只读副本路由数据源
+ * 只读事务和 {@link com.taichu.yingjiguanli.common.annotation.ReadRoute} 标注为副本的读路径使用副本，
+ * 其余 (读写事务、未标注的非事务操作) 使用主库。以下情况读请求回退主库：
+ * <ul>
+ *     <li>读路由显式指定主库</li>
+ *     <li>当前会话 (Sa-Token 令牌) 在粘滞时间内提交过读写事务 (读己之写)</li>
+ *     <li>副本延迟超过上限、延迟检查失败或获取副本连接失败</li>
+ * </ul>
+ *
+ * <p>需由 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 包装：
+ * 事务开始时不立即获取连接，执行第一条语句时事务的只读标记已经设置，路由才能据此选择数据源。</p>
+ *
+ * <p>路由到副本的 Hibernate 会话只读取二级缓存和查询缓存、不写入，
+ * 避免副本上的旧数据在变更失效缓存后又被写回缓存。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource primaryDataSource;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Cache<String, Boolean> stickySessions;
+    private final LongAdder primaryCount = new LongAdder();
+    private final LongAdder replicaCount = new LongAdder();
+    private final LongAdder stickyFallbackCount = new LongAdder();
+    private final LongAdder lagFallbackCount = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                                    ReplicaLagMonitor lagMonitor, Duration stickyWindow, long maxStickySessions) {
+        this.primaryDataSource = primaryDataSource;
+        this.lagMonitor = lagMonitor;
+        this.stickySessions = Caffeine.newBuilder()
+                .maximumSize(maxStickySessions)
+                .expireAfterWrite(stickyWindow)
+                .build();
+        setTargetDataSources(Map.of(ReadTarget.PRIMARY, primaryDataSource, ReadTarget.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primaryDataSource) {
+            return target.getConnection();
+        }
+
+        // 获取副本连接失败时回退主库，并在下一次延迟检查成功前不再路由到副本
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            log.warn("获取副本连接失败，回退主库: {}", e.getMessage());
+            lagMonitor.markUnavailable(e);
+            return primaryDataSource.getConnection();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // 读写事务使用主库，提交后当前会话在粘滞时间内的读请求也使用主库
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !readOnly) {
+            markStickyAfterCommit();
+            primaryCount.increment();
+            return ReadTarget.PRIMARY;
+        }
+
+        // 既非只读事务也未标注读副本，或显式指定主库
+        ReadTarget requested = ReadRouteContext.get();
+        if (requested == ReadTarget.PRIMARY || (!readOnly && requested != ReadTarget.REPLICA)) {
+            primaryCount.increment();
+            return ReadTarget.PRIMARY;
+        }
+
+        // 当前会话刚提交过写入
+        String session = currentSession();
+        if (session != null && stickySessions.getIfPresent(session) != null) {
+            stickyFallbackCount.increment();
+            return ReadTarget.PRIMARY;
+        }
+
+        // 副本延迟超过上限或不可用
+        if (!lagMonitor.isAvailable()) {
+            lagFallbackCount.increment();
+            return ReadTarget.PRIMARY;
+        }
+
+        replicaCount.increment();
+        disableCachePut();
+        return ReadTarget.REPLICA;
+    }
+
+    /**
+     * 获取路由统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("primaryCount", primaryCount.sum());
+        result.put("replicaCount", replicaCount.sum());
+        result.put("stickyFallbackCount", stickyFallbackCount.sum());
+        result.put("lagFallbackCount", lagFallbackCount.sum());
+        result.put("stickySessions", stickySessions.estimatedSize());
+        result.put("replica", lagMonitor.stats());
+        return result;
+    }
+
+    /**
+     * 读写事务提交后将当前会话标记为粘滞主库
+     */
+    private void markStickyAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String session = currentSession();
+        if (session == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stickySessions.put(session, Boolean.TRUE);
+            }
+        });
+    }
+
+    /**
+     * 当前事务的 Hibernate 会话不再写入二级缓存和查询缓存
+     */
+    private static void disableCachePut() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+
+    /**
+     * 当前请求的会话标识 (Sa-Token 令牌)，非 Web 线程或未携带令牌时为 null
+     */
+    private static String currentSession() {
+        if (!SaManager.getSaTokenContext().isValid()) {
+            return null;
+        }
+        return StpUtil.getTokenValue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.taichu.yingjiguanli.common.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV 导出写入器
+ * 输出 UTF-8 BOM 以便 Excel 正确识别中文，包含逗号、引号或换行的值以双引号包裹
+ *
+ * <p>以 =、+、-、@、制表符或回车开头的文本值前加单引号，防止 Excel 打开时将其作为公式执行 (CSV 注入)；
+ * 数字、日期时间按原值输出。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+class CsvExportWriter implements ExportWriter {
+
+    private final Writer writer;
+
+    CsvExportWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String text = ExportWriter.text(values[i]);
+            writeValue(values[i] instanceof CharSequence ? neutralizeFormula(text) : text);
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * 公式起始字符开头的文本前加单引号
+     */
+    private static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@'
+                || first == '\t' || first == '\r';
+        return formula ? "'" + value : value;
+    }
+
+    /**
+     * 写入单个值 (必要时加引号并转义)
+     */
+    private void writeValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
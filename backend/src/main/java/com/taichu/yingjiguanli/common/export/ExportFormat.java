@@ -0,0 +1,56 @@
+package com.taichu.yingjiguanli.common.export;
+
+import com.taichu.yingjiguanli.common.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * 导出文件格式枚举
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public enum ExportFormat {
+
+    /**
+     * CSV (UTF-8 带 BOM，Excel 可直接打开)
+     */
+    CSV("csv", "text/csv;charset=UTF-8"),
+
+    /**
+     * Excel 工作簿
+     */
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 根据格式名称获取枚举 (不区分大小写)
+     *
+     * @param name 格式名称
+     * @return 导出格式
+     */
+    public static ExportFormat of(String name) {
+        String value = name != null ? name.trim().toLowerCase(Locale.ROOT) : "";
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(value)) {
+                return format;
+            }
+        }
+        throw new BusinessException("不支持的导出格式: " + name);
+    }
+}
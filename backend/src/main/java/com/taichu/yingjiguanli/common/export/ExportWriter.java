@@ -0,0 +1,97 @@
+package com.taichu.yingjiguanli.common.export;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 导出文件逐行写入器
+ * 按行经固定大小的缓冲区写入底层流，不在内存中缓存整个文件，内存占用与导出行数无关
+ *
+ * <p>单元格值支持字符串、数字和日期时间，null 输出为空单元格。
+ * {@link #close()} 写出文件结尾并关闭底层流。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * 日期时间输出格式
+     */
+    DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 导出文件名时间戳格式
+     */
+    DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /**
+     * 写入一行
+     *
+     * @param values 单元格值
+     * @throws IOException 写入失败
+     */
+    void writeRow(Object... values) throws IOException;
+
+    /**
+     * 将单元格值转换为文本
+     *
+     * @param value 单元格值
+     * @return 文本，null 返回空字符串
+     */
+    static String text(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_TIME_FORMATTER.format(dateTime);
+        }
+        if (value instanceof Timestamp timestamp) {
+            return DATE_TIME_FORMATTER.format(timestamp.toLocalDateTime());
+        }
+        return value.toString();
+    }
+
+    /**
+     * 创建写入器
+     *
+     * @param format    导出格式
+     * @param output    输出流
+     * @param sheetName 工作表名称 (仅 XLSX 使用)
+     * @return 写入器
+     * @throws IOException 写入文件头失败
+     */
+    static ExportWriter open(ExportFormat format, OutputStream output, String sheetName) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvExportWriter(output);
+            case XLSX -> new XlsxExportWriter(output, sheetName);
+        };
+    }
+
+    /**
+     * 设置下载响应头并创建写入响应输出流的写入器
+     * 文件名为 "名称_时间戳.扩展名"，名称同时用作 XLSX 工作表名称
+     *
+     * @param response HTTP 响应
+     * @param format   导出格式
+     * @param name     导出名称
+     * @return 写入器
+     * @throws IOException 获取输出流失败
+     */
+    static ExportWriter open(HttpServletResponse response, ExportFormat format, String name) throws IOException {
+        String fileName = name + "_" + FILE_NAME_FORMATTER.format(LocalDateTime.now()) + "." + format.getExtension();
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString());
+        return open(format, response.getOutputStream(), name);
+    }
+}
@@ -0,0 +1,69 @@
+package com.taichu.yingjiguanli.common.page;
+
+import lombok.Data;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ *
+ * @param <T> 数据类型
+ * @author CX
+ * @since 2026-01-17
+ */
+@Data
+public class CursorPage<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> content;
+
+    /**
+     * 每页大小
+     */
+    private int size;
+
+    /**
+     * 是否有下一页
+     */
+    private boolean hasNext;
+
+    /**
+     * 下一页游标 (无下一页时为 null)
+     */
+    @Nullable
+    private String nextCursor;
+
+    /**
+     * 总条数 (未要求统计时为 null)
+     */
+    @Nullable
+    private Long total;
+
+    /**
+     * 根据查询窗口构建游标分页结果
+     *
+     * @param window 查询窗口
+     * @param size   每页大小
+     * @param mapper 数据转换
+     * @param total  总条数 (可为 null)
+     * @param <E>    实体类型
+     * @param <T>    数据类型
+     * @return 游标分页结果
+     */
+    public static <E, T> CursorPage<T> of(Window<E> window, int size, Function<? super E, T> mapper, @Nullable Long total) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setContent(window.getContent().stream().<T>map(mapper).toList());
+        page.setSize(size);
+        page.setHasNext(window.hasNext());
+        if (window.hasNext() && !window.isEmpty()) {
+            page.setNextCursor(KeysetCursor.encode(window.positionAt(window.size() - 1)));
+        }
+        page.setTotal(total);
+        return page;
+    }
+}
@@ -0,0 +1,73 @@
+package com.taichu.yingjiguanli.common.page;
+
+import com.taichu.yingjiguanli.common.BusinessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 游标分页 (键集分页) 工具类
+ * 列表按 (createTime, id) 倒序排列，游标记录上一页最后一行的 createTime 和 id，
+ * 下一页查询条件为 "(createTime, id) 小于游标"，可直接利用 (create_time, id) 复合索引定位，
+ * 不再像偏移分页那样扫描并丢弃前面所有页的数据
+ *
+ * <p>游标对客户端不透明 (Base64URL 编码)，只能原样回传。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public final class KeysetCursor {
+
+    /**
+     * 游标分页排序 (创建时间倒序，ID 倒序保证顺序唯一)
+     */
+    public static final Sort SORT = Sort.by(Sort.Direction.DESC, "createTime", "id");
+
+    private static final String CREATE_TIME = "createTime";
+    private static final String ID = "id";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor 游标，为空表示第一页
+     * @return 滚动位置
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(CREATE_TIME, LocalDateTime.parse(value.substring(0, separator)));
+            keys.put(ID, Long.parseLong(value.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException("分页游标无效");
+        }
+    }
+
+    /**
+     * 生成游标
+     *
+     * @param position 最后一行的滚动位置
+     * @return 游标
+     */
+    public static String encode(ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        String value = keys.get(CREATE_TIME) + "|" + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,145 @@
+package com.taichu.yingjiguanli.common.page;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 分页总条数缓存
+ * 分页查询本页数据时多取一条判断是否有下一页，不再每次执行 COUNT；需要总条数时按
+ * "表名 + 表版本号 + 规范化查询条件 + 数据权限过滤范围" 缓存 COUNT 结果，翻页时不会重复统计同一结果集
+ *
+ * <p>表数据变更 ({@link TableChangedEvent}) 提交后版本号递增并移除该表的缓存；版本号包含在缓存键中，
+ * 变更前开始的统计不会以新版本的键写入。另设较短的过期时间，兜底其他节点或直接改库造成的变更。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Component
+public class PageCountCache {
+
+    private final Cache<Key, Long> cache;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public PageCountCache(@Value("${yingji.cache.page-count.maximum-size:10000}") long maximumSize,
+                          @Value("${yingji.cache.page-count.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        log.info("分页总条数缓存初始化: maximumSize={}, ttl={}", maximumSize, ttl);
+    }
+
+    /**
+     * 将本页数据 (多取一条查询的结果) 转换为分页结果
+     * 最后一页可直接推算总条数；统计总条数时读取缓存，否则总条数为已知下界 (有下一页时为本页末尾 + 1)
+     *
+     * @param slice     本页数据
+     * @param withTotal 是否统计总条数
+     * @param table     表名
+     * @param filter    规范化查询条件 (见 {@link #filter(Object...)})
+     * @param scope     数据权限过滤范围 (不按数据权限过滤时传 null)
+     * @param counter   COUNT 查询
+     * @param <T>       数据类型
+     * @return 分页结果
+     */
+    public <T> Page<T> toPage(Slice<T> slice, boolean withTotal, String table, List<Object> filter, Object scope,
+                              LongSupplier counter) {
+        if (!withTotal) {
+            long known = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), known);
+        }
+        return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(),
+                () -> count(table, filter, scope, counter));
+    }
+
+    /**
+     * 获取总条数，未命中时执行 COUNT 查询
+     *
+     * @param table   表名
+     * @param filter  规范化查询条件
+     * @param scope   数据权限过滤范围
+     * @param counter COUNT 查询
+     * @return 总条数
+     */
+    public long count(String table, List<Object> filter, Object scope, LongSupplier counter) {
+        Key key = new Key(table, version(table).get(), filter, scope);
+        return cache.get(key, k -> counter.getAsLong());
+    }
+
+    /**
+     * 规范化查询条件：空白字符串与未设置等价
+     *
+     * @param values 查询条件值 (顺序固定)
+     * @return 条件列表
+     */
+    public static List<Object> filter(Object... values) {
+        List<Object> result = new ArrayList<>(Arrays.asList(values));
+        result.replaceAll(value -> value instanceof String text && text.isBlank() ? null : value);
+        return result;
+    }
+
+    /**
+     * 表数据变更后失效该表的缓存 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 表数据变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        long version = version(event.table()).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.table().equals(event.table()));
+        log.debug("分页总条数缓存失效: table={}, version={}", event.table(), version);
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("tableVersions", Map.copyOf(versions));
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private AtomicLong version(String table) {
+        return versions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    /**
+     * 缓存键
+     *
+     * @param table   表名
+     * @param version 表版本号
+     * @param filter  规范化查询条件
+     * @param scope   数据权限过滤范围
+     */
+    private record Key(String table, long version, List<Object> filter, Object scope) {
+    }
+}
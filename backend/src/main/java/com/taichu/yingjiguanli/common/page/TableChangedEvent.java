@@ -0,0 +1,12 @@
+package com.taichu.yingjiguanli.common.page;
+
+/**
+ * 表数据变更事件
+ * 新增、删除数据或修改可作为列表查询条件的字段后发布，用于失效分页总条数缓存
+ *
+ * @param table 表名
+ * @author CX
+ * @since 2026-01-17
+ */
+public record TableChangedEvent(String table) {
+}
@@ -0,0 +1,162 @@
+package com.taichu.yingjiguanli.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 通用树形结构构建工具
+ * 一次遍历按父ID分组，同级节点按整型排序键排序，再从根节点迭代挂载子节点，
+ * 整体为 O(n log n)，替代逐层扫描全部节点的 O(n²) 递归构建，且不受树深度限制
+ *
+ * <p>父节点不存在的孤儿节点、以及父子关系成环的节点无法从根节点到达，不会出现在结果中，
+ * 构建时记录告警日志便于排查脏数据。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+public final class TreeBuilder {
+
+    /**
+     * 告警日志中最多列出的节点ID数量
+     */
+    private static final int MAX_LOGGED_IDS = 20;
+
+    private TreeBuilder() {
+    }
+
+    /**
+     * 构建树形结构
+     *
+     * @param nodes          节点列表 (排序键相同的同级节点保持原有顺序)
+     * @param rootParentId   根节点的父ID
+     * @param idGetter       节点ID
+     * @param parentIdGetter 父节点ID
+     * @param sortKey        排序键 (升序)
+     * @param childrenSetter 设置子节点，每个挂载到树上的节点都会调用一次，叶子节点传入空列表；
+     *                       调用时子节点已完成挂载和排序
+     * @param <T>            节点类型
+     * @return 根节点列表 (已排序)
+     */
+    public static <T> List<T> build(List<T> nodes,
+                                    Long rootParentId,
+                                    Function<T, Long> idGetter,
+                                    Function<T, Long> parentIdGetter,
+                                    ToIntFunction<T> sortKey,
+                                    BiConsumer<T, List<T>> childrenSetter) {
+        if (nodes == null || nodes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 按父ID分组 (一次遍历)，重复ID只保留第一次出现的节点
+        Map<Long, List<T>> childrenMap = new HashMap<>(nodes.size() * 2);
+        Set<Long> ids = new HashSet<>(nodes.size() * 2);
+        int duplicates = 0;
+        for (T node : nodes) {
+            if (!ids.add(idGetter.apply(node))) {
+                duplicates++;
+                continue;
+            }
+            childrenMap.computeIfAbsent(parentIdGetter.apply(node), k -> new ArrayList<>()).add(node);
+        }
+        if (duplicates > 0) {
+            log.warn("构建树形结构时发现重复节点ID，已忽略后出现的节点: count={}", duplicates);
+        }
+
+        // 同级节点排序
+        Comparator<T> comparator = Comparator.comparingInt(sortKey);
+        for (List<T> siblings : childrenMap.values()) {
+            if (siblings.size() > 1) {
+                siblings.sort(comparator);
+            }
+        }
+
+        List<T> roots = childrenMap.getOrDefault(rootParentId, new ArrayList<>());
+
+        // 从根节点深度优先遍历，后序挂载子节点 (子节点处理完后再回调父节点，保证回调时子树已完整)
+        Set<Long> visited = new HashSet<>(nodes.size() * 2);
+        Deque<T> pending = new ArrayDeque<>(roots);
+        Deque<T> postOrder = new ArrayDeque<>(nodes.size());
+        while (!pending.isEmpty()) {
+            T node = pending.pop();
+            Long id = idGetter.apply(node);
+            if (!visited.add(id)) {
+                // 节点ID与根父ID相同时会再次出现在根节点列表中，只挂载一次
+                continue;
+            }
+            postOrder.push(node);
+            List<T> children = childrenMap.get(id);
+            if (children != null) {
+                for (T child : children) {
+                    pending.push(child);
+                }
+            }
+        }
+        while (!postOrder.isEmpty()) {
+            T node = postOrder.pop();
+            List<T> children = childrenMap.get(idGetter.apply(node));
+            childrenSetter.accept(node, children != null ? children : new ArrayList<>(0));
+        }
+
+        if (visited.size() < ids.size()) {
+            logUnreachable(nodes, rootParentId, idGetter, parentIdGetter, visited);
+        }
+        return roots;
+    }
+
+    /**
+     * 记录无法挂载到树上的节点 (孤儿节点、成环节点)
+     */
+    private static <T> void logUnreachable(List<T> nodes,
+                                           Long rootParentId,
+                                           Function<T, Long> idGetter,
+                                           Function<T, Long> parentIdGetter,
+                                           Set<Long> visited) {
+        Map<Long, Long> parentIds = new HashMap<>(nodes.size() * 2);
+        for (T node : nodes) {
+            parentIds.putIfAbsent(idGetter.apply(node), parentIdGetter.apply(node));
+        }
+
+        // 沿父链向上查找：链条在树外中断为孤儿 (含孤儿的子孙)，回到已走过的节点为成环
+        List<Long> orphanIds = new ArrayList<>();
+        List<Long> cycleIds = new ArrayList<>();
+        for (T node : nodes) {
+            Long id = idGetter.apply(node);
+            if (visited.contains(id)) {
+                continue;
+            }
+            Set<Long> path = new HashSet<>();
+            Long current = id;
+            while (parentIds.containsKey(current) && path.add(current)) {
+                current = parentIds.get(current);
+            }
+            if (parentIds.containsKey(current)) {
+                cycleIds.add(id);
+            } else if (!Objects.equals(current, rootParentId)) {
+                orphanIds.add(id);
+            }
+        }
+
+        if (!orphanIds.isEmpty()) {
+            log.warn("构建树形结构时发现孤儿节点 (父节点不存在): count={}, ids={}",
+                    orphanIds.size(), orphanIds.subList(0, Math.min(orphanIds.size(), MAX_LOGGED_IDS)));
+        }
+        if (!cycleIds.isEmpty()) {
+            log.warn("构建树形结构时发现成环节点 (父子关系循环): count={}, ids={}",
+                    cycleIds.size(), cycleIds.subList(0, Math.min(cycleIds.size(), MAX_LOGGED_IDS)));
+        }
+    }
+}
@@ -31,6 +31,9 @@ public class CorsConfig {
         // 允许的请求方法
         config.addAllowedMethod("*");
 
+        // 暴露条件请求响应头 (ETag)
+        config.addExposedHeader("ETag");
+
         // 允许携带凭证
         config.setAllowCredentials(true);
 
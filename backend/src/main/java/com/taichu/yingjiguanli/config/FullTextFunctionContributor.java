@@ -0,0 +1,36 @@
+package com.taichu.yingjiguanli.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * MySQL 全文检索函数注册
+ * 注册 HQL/Criteria 函数 {@code match_against(列1, 列2, 列3, 检索串)}，
+ * 渲染为 {@code MATCH(列1, 列2, 列3) AGAINST(检索串 IN BOOLEAN MODE)}，返回相关度 (大于0表示匹配)
+ *
+ * <p>列必须与某个 FULLTEXT 索引的列完全一致。仅在 MySQL 方言下注册，通过
+ * META-INF/services/org.hibernate.boot.model.FunctionContributor 加载。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    /**
+     * 函数名
+     */
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        if (!(functionContributions.getDialect() instanceof MySQLDialect)) {
+            return;
+        }
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH_AGAINST,
+                "match(?1, ?2, ?3) against(?4 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,153 @@
+package com.taichu.yingjiguanli.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate 二级缓存配置
+ * 菜单、角色、部门等读多写少的基础数据及其多对多关联集合缓存在本地 (JCache 接口，Caffeine 实现)，
+ * 各缓存区域按配置显式指定容量，未声明的区域启动时直接报错 ({@code missing_cache_strategy: fail})
+ *
+ * <p>实体和集合均使用 READ_WRITE 策略，经 Hibernate 的写入在事务提交后更新缓存；
+ * 绕过 Hibernate 的 JDBC 写入 (角色菜单、用户角色差量写入) 需自行清除对应集合缓存，
+ * 因此查询缓存只用于不涉及这些关联表的查询。另设过期时间，兜底其他节点的变更。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * 菜单实体缓存区域
+     */
+    public static final String MENU_REGION = "sys_menu";
+
+    /**
+     * 角色实体缓存区域
+     */
+    public static final String ROLE_REGION = "sys_role";
+
+    /**
+     * 部门实体缓存区域
+     */
+    public static final String DEPT_REGION = "sys_dept";
+
+    /**
+     * 角色菜单集合缓存区域
+     */
+    public static final String ROLE_MENUS_REGION = "sys_role.menus";
+
+    /**
+     * 角色部门集合缓存区域
+     */
+    public static final String ROLE_DEPTS_REGION = "sys_role.depts";
+
+    /**
+     * 用户角色集合缓存区域
+     */
+    public static final String USER_ROLES_REGION = "sys_user.roles";
+
+    @Value("${yingji.cache.hibernate.menu-size:5000}")
+    private long menuSize;
+
+    @Value("${yingji.cache.hibernate.role-size:1000}")
+    private long roleSize;
+
+    @Value("${yingji.cache.hibernate.dept-size:5000}")
+    private long deptSize;
+
+    @Value("${yingji.cache.hibernate.user-roles-size:10000}")
+    private long userRolesSize;
+
+    @Value("${yingji.cache.hibernate.query-size:1000}")
+    private long querySize;
+
+    @Value("${yingji.cache.hibernate.ttl:10m}")
+    private Duration ttl;
+
+    /**
+     * 二级缓存管理器 (创建全部缓存区域)
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        // 实体与集合
+        createRegion(cacheManager, MENU_REGION, menuSize, ttl);
+        createRegion(cacheManager, ROLE_REGION, roleSize, ttl);
+        createRegion(cacheManager, DEPT_REGION, deptSize, ttl);
+        createRegion(cacheManager, ROLE_MENUS_REGION, roleSize, ttl);
+        createRegion(cacheManager, ROLE_DEPTS_REGION, roleSize, ttl);
+        createRegion(cacheManager, USER_ROLES_REGION, userRolesSize, ttl);
+
+        // 查询缓存 (表更新时间戳区域不能淘汰或过期，否则可能读到过期的查询结果)
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, querySize, ttl);
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null, null);
+
+        log.info("Hibernate 二级缓存初始化: menu={}, role={}, dept={}, userRoles={}, query={}, ttl={}",
+                menuSize, roleSize, deptSize, userRolesSize, querySize, ttl);
+        return cacheManager;
+    }
+
+    /**
+     * 将缓存管理器交给 Hibernate JCache 区域工厂
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * 查询各缓存区域统计信息
+     *
+     * @param cacheManager 二级缓存管理器
+     * @return 区域名称 -> 统计信息
+     */
+    public static Map<String, Object> stats(CacheManager cacheManager) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            com.github.benmanes.caffeine.cache.Cache<?, ?> cache = cacheManager.getCache(name)
+                    .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats stats = cache.stats();
+            Map<String, Object> region = new LinkedHashMap<>();
+            region.put("size", cache.estimatedSize());
+            region.put("hitCount", stats.hitCount());
+            region.put("missCount", stats.missCount());
+            region.put("hitRate", stats.hitRate());
+            result.put(name, region);
+        }
+        return result;
+    }
+
+    /**
+     * 创建缓存区域
+     *
+     * @param maximumSize 最大条数 (null 表示不限)
+     * @param ttl         写入后过期时间 (null 表示不过期)
+     */
+    private static void createRegion(CacheManager cacheManager, String name, Long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize != null ? OptionalLong.of(maximumSize) : OptionalLong.empty());
+        configuration.setExpireAfterWrite(ttl != null ? OptionalLong.of(ttl.toNanos()) : OptionalLong.empty());
+        configuration.setNativeStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
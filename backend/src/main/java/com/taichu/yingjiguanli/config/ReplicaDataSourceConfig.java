@@ -0,0 +1,103 @@
+package com.taichu.yingjiguanli.config;
+
+import com.taichu.yingjiguanli.common.datasource.ReplicaLagMonitor;
+import com.taichu.yingjiguanli.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 只读副本数据源配置 (yingji.datasource.replica.enabled=true 时生效)
+ * 主库连接池沿用 spring.datasource 配置，副本连接池使用 yingji.datasource.replica.hikari 配置，
+ * 应用使用的数据源为两者之上的路由数据源，路由规则见 {@link ReplicaRoutingDataSource}
+ *
+ * <p>本地测试可将副本指向第二个 MySQL/H2 实例 (需与主库结构一致)，
+ * 并将 lag-query 配置为 {@code SELECT 0}；路由统计见 /api/monitor/datasource。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "yingji.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${yingji.datasource.replica.max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${yingji.datasource.replica.lag-check-interval:2s}")
+    private Duration lagCheckInterval;
+
+    @Value("${yingji.datasource.replica.lag-query:}")
+    private String lagQuery;
+
+    @Value("${yingji.datasource.replica.sticky-window:10s}")
+    private Duration stickyWindow;
+
+    @Value("${yingji.datasource.replica.sticky-sessions:10000}")
+    private long stickySessions;
+
+    /**
+     * 主库连接池
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 副本连接池
+     */
+    @Bean
+    @ConfigurationProperties("yingji.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 副本复制延迟监控
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLag, lagCheckInterval);
+    }
+
+    /**
+     * 主库/副本路由数据源
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                             @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                             ReplicaLagMonitor replicaLagMonitor) {
+        // 粘滞时间短于延迟上限加检查间隔时，会话写入后仍可能从副本读到旧数据
+        if (stickyWindow.compareTo(maxLag.plus(lagCheckInterval)) < 0) {
+            log.warn("副本粘滞时间 {} 小于最大延迟 {} 与检查间隔 {} 之和，写入后可能读到旧数据",
+                    stickyWindow, maxLag, lagCheckInterval);
+        }
+        log.info("只读副本路由启用: stickyWindow={}, stickySessions={}", stickyWindow, stickySessions);
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor,
+                stickyWindow, stickySessions);
+    }
+
+    /**
+     * 应用数据源 (JPA、JdbcTemplate、Flyway 均使用)，延迟到执行第一条语句时才路由并获取连接
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,84 @@
+package com.taichu.yingjiguanli.controller;
+
+import cn.dev33.satoken.annotation.SaCheckRole;
+import com.taichu.yingjiguanli.common.ApiResponse;
+import com.taichu.yingjiguanli.common.datasource.ReplicaRoutingDataSource;
+import com.taichu.yingjiguanli.common.page.PageCountCache;
+import com.taichu.yingjiguanli.config.HibernateCacheConfig;
+import com.taichu.yingjiguanli.modules.auth.cache.RoleMenuTreeCache;
+import com.taichu.yingjiguanli.modules.sys.cache.DeptHierarchyIndex;
+import com.taichu.yingjiguanli.modules.sys.cache.DeptTreeCache;
+import com.taichu.yingjiguanli.modules.sys.cache.MenuIndex;
+import com.taichu.yingjiguanli.security.AuthorizationCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 系统监控控制器
+ * 提供本地缓存命中率、数据源路由等运行指标
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@RestController
+@RequestMapping("/api/monitor")
+@RequiredArgsConstructor
+@SaCheckRole("admin")
+@Tag(name = "系统监控", description = "缓存统计等运行指标接口")
+public class MonitorController {
+
+    private final AuthorizationCache authorizationCache;
+    private final DeptHierarchyIndex deptHierarchyIndex;
+    private final DeptTreeCache deptTreeCache;
+    private final CacheManager hibernateCacheManager;
+    private final MenuIndex menuIndex;
+    private final PageCountCache pageCountCache;
+    private final RoleMenuTreeCache roleMenuTreeCache;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    /**
+     * 查询本地缓存统计信息
+     *
+     * @return 各缓存的命中、未命中统计
+     */
+    @GetMapping("/cache")
+    @Operation(summary = "缓存统计", description = "查询本地缓存的命中数、未命中数、命中率等指标")
+    public ApiResponse<Map<String, Object>> cacheStats() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("authorization", authorizationCache.stats());
+        data.put("deptHierarchy", deptHierarchyIndex.stats());
+        data.put("deptTree", deptTreeCache.stats());
+        data.put("hibernate", HibernateCacheConfig.stats(hibernateCacheManager));
+        data.put("menu", menuIndex.stats());
+        data.put("pageCount", pageCountCache.stats());
+        data.put("roleMenuTree", roleMenuTreeCache.stats());
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 查询数据源路由统计信息
+     *
+     * @return 主库/副本路由次数、回退次数及副本延迟状态，未启用副本时仅返回 enabled=false
+     */
+    @GetMapping("/datasource")
+    @Operation(summary = "数据源路由统计", description = "查询主库/只读副本的路由次数、回退主库次数及副本复制延迟")
+    public ApiResponse<Map<String, Object>> dataSourceStats() {
+        ReplicaRoutingDataSource routing = replicaRoutingDataSource.getIfAvailable();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("enabled", routing != null);
+        if (routing != null) {
+            data.putAll(routing.stats());
+        }
+        return ApiResponse.success(data);
+    }
+}
@@ -0,0 +1,144 @@
+package com.taichu.yingjiguanli.modules.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taichu.yingjiguanli.common.datasource.ReadRouteHelper;
+import com.taichu.yingjiguanli.modules.auth.vo.MenuVO;
+import com.taichu.yingjiguanli.modules.auth.vo.RouteVO;
+import com.taichu.yingjiguanli.modules.sys.cache.MenuIndex;
+import com.taichu.yingjiguanli.modules.sys.event.MenuChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.event.RoleMenuChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 角色组合菜单树缓存
+ * 角色相同的用户得到的菜单树、路由树和首页路径完全一致，按 "有序角色ID集合 + 版本号" 缓存构建结果，
+ * 避免每次页面加载都重复查询菜单、补全父级、转换和排序
+ *
+ * <p>菜单或角色菜单变更时版本号递增并清空缓存；版本号包含在缓存键中，
+ * 变更前开始构建的结果不会以新版本的键写入。缓存的 VO 为共享对象，调用方不得修改。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Component
+public class RoleMenuTreeCache {
+
+    private final MenuIndex menuIndex;
+    private final ReadRouteHelper readRouteHelper;
+    private final Cache<Key, MenuTrees> cache;
+    private final AtomicLong roleMenuVersion = new AtomicLong();
+
+    public RoleMenuTreeCache(MenuIndex menuIndex,
+                             ReadRouteHelper readRouteHelper,
+                             @Value("${yingji.cache.menu-tree.maximum-size:1000}") long maximumSize,
+                             @Value("${yingji.cache.menu-tree.ttl:10m}") Duration ttl) {
+        this.menuIndex = menuIndex;
+        this.readRouteHelper = readRouteHelper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        log.info("角色菜单树缓存初始化: maximumSize={}, ttl={}", maximumSize, ttl);
+    }
+
+    /**
+     * 获取角色组合的菜单树，未命中时构建
+     *
+     * @param roleIds 有序的角色ID列表
+     * @param loader  构建函数
+     * @return 菜单树
+     */
+    public MenuTrees get(List<Long> roleIds, Function<List<Long>, MenuTrees> loader) {
+        Key key = new Key(List.copyOf(roleIds), menuIndex.version(), roleMenuVersion.get());
+        return cache.get(key, k -> readRouteHelper.onPrimary(() -> loader.apply(k.roleIds())));
+    }
+
+    /**
+     * 当前角色菜单版本号 (角色菜单或菜单变更时递增)
+     *
+     * @return 版本号
+     */
+    public long version() {
+        return roleMenuVersion.get();
+    }
+
+    /**
+     * 菜单变更后清空缓存 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 菜单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * 角色菜单变更后清空缓存 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 角色菜单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleMenuChanged(RoleMenuChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("roleMenuVersion", roleMenuVersion.get());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    /**
+     * 递增版本号并清空缓存
+     */
+    private void invalidate() {
+        long version = roleMenuVersion.incrementAndGet();
+        cache.invalidateAll();
+        log.debug("角色菜单树缓存失效: version={}", version);
+    }
+
+    /**
+     * 缓存键
+     *
+     * @param roleIds         有序的角色ID列表
+     * @param menuVersion     菜单索引版本号
+     * @param roleMenuVersion 角色菜单版本号
+     */
+    private record Key(List<Long> roleIds, long menuVersion, long roleMenuVersion) {
+    }
+
+    /**
+     * 角色组合的菜单构建结果
+     *
+     * @param menus    菜单树
+     * @param routes   路由树 (Vben Admin 格式)
+     * @param homePath 首页路径 (第一个可访问的菜单页面，无菜单时为 null)
+     */
+    public record MenuTrees(List<MenuVO> menus, List<RouteVO> routes, String homePath) {
+    }
+}
@@ -3,6 +3,7 @@ package com.taichu.yingjiguanli.modules.auth.controller;
 import cn.dev33.satoken.annotation.SaIgnore;
 import com.taichu.yingjiguanli.common.ApiResponse;
 import com.taichu.yingjiguanli.modules.auth.dto.LoginDTO;
+import com.taichu.yingjiguanli.modules.auth.vo.BootstrapVO;
 import com.taichu.yingjiguanli.modules.auth.service.AuthService;
 import com.taichu.yingjiguanli.modules.auth.vo.LoginVO;
 import com.taichu.yingjiguanli.modules.auth.vo.MenuVO;
@@ -10,15 +11,20 @@ import com.taichu.yingjiguanli.modules.auth.vo.RouteVO;
 import com.taichu.yingjiguanli.modules.auth.vo.UserInfoVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
 /**
  * 认证控制器
  * 处理登录、登出、获取用户信息等认证相关接口
+ * 用户信息、登录引导、菜单、路由、权限接口支持 ETag 条件请求，数据未变更时返回 304
  *
  * @author CX
  * @since 2026-01-13
@@ -63,10 +69,28 @@ public class AuthController {
      */
     @GetMapping("/info")
     @Operation(summary = "获取当前用户信息", description = "获取当前登录用户的详细信息，包括角色和权限")
-    public ApiResponse<UserInfoVO> getUserInfo() {
+    public ApiResponse<UserInfoVO> getUserInfo(ServletWebRequest request) {
+        if (checkNotModified(request)) {
+            return null;
+        }
         return ApiResponse.success(authService.getCurrentUserInfo());
     }
 
+    /**
+     * 获取当前用户登录引导数据
+     * 一次返回用户信息、权限、路由树和菜单树，替代登录后的多次请求
+     *
+     * @return 登录引导数据
+     */
+    @GetMapping("/bootstrap")
+    @Operation(summary = "获取登录引导数据", description = "一次获取当前用户信息、角色、权限、路由树、菜单树和首页路径")
+    public ApiResponse<BootstrapVO> getBootstrap(ServletWebRequest request) {
+        if (checkNotModified(request)) {
+            return null;
+        }
+        return ApiResponse.success(authService.getCurrentUserBootstrap());
+    }
+
     /**
      * 获取当前用户菜单
      *
@@ -74,7 +98,10 @@ public class AuthController {
      */
     @GetMapping("/menus")
     @Operation(summary = "获取当前用户菜单", description = "获取当前登录用户的菜单树，用于前端动态路由")
-    public ApiResponse<List<MenuVO>> getUserMenus() {
+    public ApiResponse<List<MenuVO>> getUserMenus(ServletWebRequest request) {
+        if (checkNotModified(request)) {
+            return null;
+        }
         return ApiResponse.success(authService.getCurrentUserMenus());
     }
 
@@ -86,7 +113,10 @@ public class AuthController {
      */
     @GetMapping("/routes")
     @Operation(summary = "获取当前用户路由", description = "获取当前登录用户的路由配置，符合 Vben Admin 格式")
-    public ApiResponse<List<RouteVO>> getUserRoutes() {
+    public ApiResponse<List<RouteVO>> getUserRoutes(ServletWebRequest request) {
+        if (checkNotModified(request)) {
+            return null;
+        }
         return ApiResponse.success(authService.getCurrentUserRoutes());
     }
 
@@ -97,7 +127,26 @@ public class AuthController {
      */
     @GetMapping("/permissions")
     @Operation(summary = "获取当前用户权限", description = "获取当前登录用户的所有权限标识")
-    public ApiResponse<List<String>> getUserPermissions() {
+    public ApiResponse<List<String>> getUserPermissions(ServletWebRequest request) {
+        if (checkNotModified(request)) {
+            return null;
+        }
         return ApiResponse.success(authService.getCurrentUserPermissions());
     }
+
+    /**
+     * 条件请求校验
+     * 根据当前用户授权数据版本生成 ETag，与 If-None-Match 一致时响应 304，无需构建和序列化响应数据
+     *
+     * @param request 当前请求
+     * @return true 未变更 (已设置 304)，false 需要返回完整数据
+     */
+    private boolean checkNotModified(ServletWebRequest request) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // 允许浏览器缓存，但每次使用前必须重新校验
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(authService.getCurrentUserETag());
+    }
 }
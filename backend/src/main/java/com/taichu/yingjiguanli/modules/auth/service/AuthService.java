@@ -1,6 +1,7 @@
 package com.taichu.yingjiguanli.modules.auth.service;
 
 import com.taichu.yingjiguanli.modules.auth.dto.LoginDTO;
+import com.taichu.yingjiguanli.modules.auth.vo.BootstrapVO;
 import com.taichu.yingjiguanli.modules.auth.vo.LoginVO;
 import com.taichu.yingjiguanli.modules.auth.vo.MenuVO;
 import com.taichu.yingjiguanli.modules.auth.vo.RouteVO;
@@ -50,10 +51,25 @@ public interface AuthService {
      */
     List<RouteVO> getCurrentUserRoutes();
 
+    /**
+     * 获取当前用户登录引导数据 (用户信息、权限、路由树、菜单树)
+     *
+     * @return 登录引导数据
+     */
+    BootstrapVO getCurrentUserBootstrap();
+
     /**
      * 获取当前用户权限列表
      *
      * @return 权限标识列表
      */
     List<String> getCurrentUserPermissions();
+
+    /**
+     * 获取当前用户授权数据版本标识 (用于 ETag)
+     * 用户资料、角色、权限、菜单或部门变更后标识随之变化，计算时不构建菜单树
+     *
+     * @return 版本标识
+     */
+    String getCurrentUserETag();
 }
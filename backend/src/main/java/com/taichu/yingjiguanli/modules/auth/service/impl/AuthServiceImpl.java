@@ -2,19 +2,25 @@ package com.taichu.yingjiguanli.modules.auth.service.impl;
 
 import cn.dev33.satoken.stp.StpUtil;
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.annotation.ReadRoute;
+import com.taichu.yingjiguanli.common.datasource.ReadTarget;
+import com.taichu.yingjiguanli.common.util.TreeBuilder;
+import com.taichu.yingjiguanli.modules.auth.cache.RoleMenuTreeCache;
 import com.taichu.yingjiguanli.modules.auth.dto.LoginDTO;
 import com.taichu.yingjiguanli.modules.auth.service.AuthService;
+import com.taichu.yingjiguanli.modules.auth.vo.BootstrapVO;
 import com.taichu.yingjiguanli.modules.auth.vo.LoginVO;
 import com.taichu.yingjiguanli.modules.auth.vo.MenuVO;
 import com.taichu.yingjiguanli.modules.auth.vo.RouteVO;
 import com.taichu.yingjiguanli.modules.auth.vo.UserInfoVO;
-import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
+import com.taichu.yingjiguanli.modules.sys.cache.DeptHierarchyIndex;
+import com.taichu.yingjiguanli.modules.sys.cache.MenuIndex;
 import com.taichu.yingjiguanli.modules.sys.entity.SysMenu;
 import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
-import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
 import com.taichu.yingjiguanli.modules.sys.repository.SysMenuRepository;
-import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
 import com.taichu.yingjiguanli.modules.sys.repository.SysUserRepository;
+import com.taichu.yingjiguanli.security.AuthProfile;
+import com.taichu.yingjiguanli.security.AuthorizationCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,7 +28,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -36,16 +41,24 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    /**
+     * 启动时间 (区分不同进程生成的版本号)
+     */
+    private static final String BOOT_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     private final SysUserRepository userRepository;
-    private final SysRoleRepository roleRepository;
     private final SysMenuRepository menuRepository;
-    private final SysDeptRepository deptRepository;
+    private final MenuIndex menuIndex;
+    private final RoleMenuTreeCache roleMenuTreeCache;
+    private final DeptHierarchyIndex deptHierarchyIndex;
     private final PasswordEncoder passwordEncoder;
+    private final AuthorizationCache authorizationCache;
 
     /**
      * 用户登录
      */
     @Override
+    @ReadRoute(ReadTarget.PRIMARY)
     public LoginVO login(LoginDTO dto) {
         log.info("用户登录: {}", dto.getUsername());
 
@@ -98,38 +111,65 @@ public class AuthServiceImpl implements AuthService {
         Long userId = StpUtil.getLoginIdAsLong();
         log.debug("获取用户信息, userId={}", userId);
 
-        // 查询用户
-        SysUser user = userRepository.findById(userId)
-                .orElseThrow(() -> new BusinessException(404, "用户不存在"));
+        // 查询用户授权档案 (用户、部门名称、角色和权限，授权缓存)
+        AuthProfile profile = requireProfile(userId);
 
-        // 查询部门
-        String deptName = null;
-        if (user.getDeptId() != null) {
-            deptName = deptRepository.findById(user.getDeptId())
-                    .map(SysDept::getDeptName)
-                    .orElse(null);
-        }
+        // 组装用户信息 (首页路径取自按角色组合缓存的菜单构建结果)
+        return buildUserInfo(profile, getMenuTrees(profile));
+    }
+
+    /**
+     * 获取当前用户登录引导数据
+     * 用户信息、菜单树和路由树均基于同一份授权档案和同一次菜单构建结果
+     */
+    @Override
+    public BootstrapVO getCurrentUserBootstrap() {
+        Long userId = StpUtil.getLoginIdAsLong();
+        log.debug("获取登录引导数据, userId={}", userId);
 
-        // 查询角色和权限
-        List<String> roles = roleRepository.findRoleCodesByUserId(userId);
-        List<String> permissions = menuRepository.findPermissionsByUserId(userId);
+        // 查询用户授权档案，随后构建 (或命中缓存) 菜单树和路由树
+        AuthProfile profile = requireProfile(userId);
+        RoleMenuTreeCache.MenuTrees menuTrees = getMenuTrees(profile);
 
-        // 计算用户首页路径 (第一个可访问的菜单页面)
-        String homePath = calculateUserHomePath(userId);
+        return BootstrapVO.builder()
+                .userInfo(buildUserInfo(profile, menuTrees))
+                .routes(menuTrees.routes())
+                .menus(menuTrees.menus())
+                .build();
+    }
 
+    /**
+     * 组装用户信息
+     *
+     * @param profile   用户授权档案
+     * @param menuTrees 菜单构建结果 (提供首页路径)
+     * @return 用户信息
+     */
+    private UserInfoVO buildUserInfo(AuthProfile profile, RoleMenuTreeCache.MenuTrees menuTrees) {
         return UserInfoVO.builder()
-                .userId(user.getId())
-                .username(user.getUsername())
-                .realName(user.getRealName())
-                .avatar(user.getAvatar())
-                .deptId(user.getDeptId())
-                .deptName(deptName)
-                .roles(roles)
-                .permissions(permissions)
-                .homePath(homePath)
+                .userId(profile.userId())
+                .username(profile.username())
+                .realName(profile.realName())
+                .avatar(profile.avatar())
+                .deptId(profile.deptId())
+                .deptName(profile.deptName())
+                .roles(profile.roleCodes())
+                .permissions(profile.permissions())
+                .homePath(menuTrees.homePath())
                 .build();
     }
 
+    /**
+     * 获取用户授权档案，用户不存在时抛出异常
+     */
+    private AuthProfile requireProfile(Long userId) {
+        AuthProfile profile = authorizationCache.getProfile(userId);
+        if (profile == null) {
+            throw new BusinessException(404, "用户不存在");
+        }
+        return profile;
+    }
+
     /**
      * 获取当前用户菜单
      */
@@ -138,18 +178,8 @@ public class AuthServiceImpl implements AuthService {
         Long userId = StpUtil.getLoginIdAsLong();
         log.debug("获取用户菜单, userId={}", userId);
 
-        // 查询用户菜单 (不含按钮)
-        List<SysMenu> menus = menuRepository.findMenusByUserId(userId);
-
-        // 补充缺失的父级菜单 (确保树形结构完整)
-        menus = completeParentMenus(menus);
-
-        // 转换为 VO 并构建树形结构
-        List<MenuVO> menuVOList = menus.stream()
-                .map(this::convertToMenuVO)
-                .collect(Collectors.toList());
-
-        return buildMenuTree(menuVOList, 0L);
+        // 菜单树 (按角色组合缓存)
+        return getMenuTrees(requireProfile(userId)).menus();
     }
 
     /**
@@ -160,18 +190,24 @@ public class AuthServiceImpl implements AuthService {
         Long userId = StpUtil.getLoginIdAsLong();
         log.debug("获取用户路由, userId={}", userId);
 
-        // 查询用户菜单 (不含按钮)
-        List<SysMenu> menus = menuRepository.findMenusByUserId(userId);
-
-        // 补充缺失的父级菜单 (确保树形结构完整)
-        menus = completeParentMenus(menus);
-
-        // 转换为路由数据并构建树形结构
-        List<RouteData> routeDataList = menus.stream()
-                .map(this::convertToRouteData)
-                .collect(Collectors.toList());
+        // 路由树 (按角色组合缓存)
+        return getMenuTrees(requireProfile(userId)).routes();
+    }
 
-        return buildRouteTree(routeDataList, 0L);
+    /**
+     * 获取当前用户授权数据版本标识
+     * 由启动时间、用户ID、授权档案版本、菜单版本、角色菜单版本和部门版本组成，均为内存读取
+     */
+    @Override
+    public String getCurrentUserETag() {
+        Long userId = StpUtil.getLoginIdAsLong();
+        AuthProfile profile = authorizationCache.getProfile(userId);
+        return BOOT_EPOCH
+                + "-" + Long.toString(userId, 36)
+                + "-" + Long.toString(profile != null ? profile.version() : 0L, 36)
+                + "-" + Long.toString(menuIndex.version(), 36)
+                + "-" + Long.toString(roleMenuTreeCache.version(), 36)
+                + "-" + Long.toString(deptHierarchyIndex.version(), 36);
     }
 
     /**
@@ -181,47 +217,47 @@ public class AuthServiceImpl implements AuthService {
     public List<String> getCurrentUserPermissions() {
         Long userId = StpUtil.getLoginIdAsLong();
         log.debug("获取用户权限列表, userId={}", userId);
-        return menuRepository.findPermissionsByUserId(userId);
+        return authorizationCache.getPermissions(userId);
     }
 
     /**
-     * 补充缺失的父级菜单
-     * 确保菜单树形结构完整，每个菜单的父级菜单都存在
+     * 获取用户角色组合对应的菜单树、路由树和首页路径
      *
-     * @param menus 用户直接拥有权限的菜单列表
-     * @return 包含所有父级菜单的完整菜单列表
+     * @param profile 用户授权档案
+     * @return 菜单构建结果 (共享对象，不得修改)
      */
-    private List<SysMenu> completeParentMenus(List<SysMenu> menus) {
-        if (menus == null || menus.isEmpty()) {
-            return new ArrayList<>();
-        }
+    private RoleMenuTreeCache.MenuTrees getMenuTrees(AuthProfile profile) {
+        return roleMenuTreeCache.get(profile.roleIds(), this::buildMenuTrees);
+    }
 
-        // 使用 Map 存储已有的菜单，避免重复
-        Map<Long, SysMenu> menuMap = menus.stream()
-                .collect(Collectors.toMap(SysMenu::getId, m -> m, (m1, m2) -> m1));
+    /**
+     * 构建角色组合的菜单树、路由树和首页路径
+     * 角色菜单ID通过一次查询获取，菜单数据及父级菜单从菜单索引中读取，确保树形结构完整
+     *
+     * @param roleIds 有序的角色ID列表
+     * @return 菜单构建结果
+     */
+    private RoleMenuTreeCache.MenuTrees buildMenuTrees(List<Long> roleIds) {
+        log.debug("构建角色菜单树, roleIds={}", roleIds);
 
-        // 收集所有需要补充的父级菜单ID
-        java.util.Set<Long> missingParentIds = new java.util.HashSet<>();
-        for (SysMenu menu : menus) {
-            Long parentId = menu.getParentId();
-            // 遍历所有父级，直到根节点 (parentId = 0)
-            while (parentId != null && parentId != 0 && !menuMap.containsKey(parentId)) {
-                missingParentIds.add(parentId);
-                // 查询父级菜单以获取其 parentId
-                SysMenu parentMenu = menuRepository.findById(parentId).orElse(null);
-                if (parentMenu != null) {
-                    menuMap.put(parentMenu.getId(), parentMenu);
-                    parentId = parentMenu.getParentId();
-                } else {
-                    break;
-                }
-            }
-        }
+        // 查询角色菜单 (不含按钮，含父级菜单，已按 sort 排序)
+        List<SysMenu> menus = roleIds.isEmpty()
+                ? new ArrayList<>()
+                : menuIndex.getMenusWithAncestors(menuRepository.findMenuIdsByRoleIds(roleIds));
+
+        // 转换为 VO 并构建菜单树
+        List<MenuVO> menuVOList = menus.stream()
+                .map(this::convertToMenuVO)
+                .collect(Collectors.toList());
+        List<MenuVO> menuTree = buildMenuTree(menuVOList, 0L);
 
-        log.debug("补充父级菜单: 原有{}个, 补充{}个父级菜单",
-                menus.size(), menuMap.size() - menus.size());
+        // 转换为路由数据并构建路由树
+        List<RouteData> routeDataList = menus.stream()
+                .map(this::convertToRouteData)
+                .collect(Collectors.toList());
+        List<RouteVO> routeTree = buildRouteTree(routeDataList, 0L);
 
-        return new ArrayList<>(menuMap.values());
+        return new RoleMenuTreeCache.MenuTrees(menuTree, routeTree, calculateHomePath(menus));
     }
 
     /**
@@ -250,35 +286,8 @@ public class AuthServiceImpl implements AuthService {
      * @return 菜单树
      */
     private List<MenuVO> buildMenuTree(List<MenuVO> menus, Long parentId) {
-        // 按父ID分组
-        Map<Long, List<MenuVO>> menuMap = menus.stream()
-                .collect(Collectors.groupingBy(MenuVO::getParentId));
-
-        // 递归构建树
-        return buildTree(menuMap, parentId);
-    }
-
-    /**
-     * 递归构建树形结构
-     */
-    private List<MenuVO> buildTree(Map<Long, List<MenuVO>> menuMap, Long parentId) {
-        List<MenuVO> result = new ArrayList<>();
-        List<MenuVO> children = menuMap.get(parentId);
-
-        if (children != null) {
-            for (MenuVO menu : children) {
-                menu.setChildren(buildTree(menuMap, menu.getId()));
-                result.add(menu);
-            }
-            // 按排序字段排序
-            result.sort((a, b) -> {
-                Integer sortA = a.getSort() != null ? a.getSort() : 0;
-                Integer sortB = b.getSort() != null ? b.getSort() : 0;
-                return sortA.compareTo(sortB);
-            });
-        }
-
-        return result;
+        return TreeBuilder.build(menus, parentId, MenuVO::getId, MenuVO::getParentId,
+                m -> m.getSort() != null ? m.getSort() : 0, MenuVO::setChildren);
     }
 
     // ==================== 路由相关方法 (Vben Admin 格式) ====================
@@ -377,81 +386,59 @@ public class AuthServiceImpl implements AuthService {
 
     /**
      * 构建路由树
+     * 没有子路由时 children 为 null；目录 (BasicLayout) 重定向到排序后的第一个子路由
      *
      * @param routeDataList 路由数据列表
      * @param parentId      父菜单ID
      * @return 路由树
      */
     private List<RouteVO> buildRouteTree(List<RouteData> routeDataList, Long parentId) {
-        // 按父ID分组
-        Map<Long, List<RouteData>> routeMap = routeDataList.stream()
-                .collect(Collectors.groupingBy(RouteData::getParentId));
+        List<RouteData> roots = TreeBuilder.build(routeDataList, parentId, RouteData::getMenuId, RouteData::getParentId,
+                this::routeOrder, (data, children) -> {
+                    RouteVO route = data.getRoute();
+                    if (children.isEmpty()) {
+                        route.setChildren(null);
+                        return;
+                    }
+                    List<RouteVO> childRoutes = new ArrayList<>(children.size());
+                    for (RouteData child : children) {
+                        childRoutes.add(child.getRoute());
+                    }
+                    route.setChildren(childRoutes);
+
+                    // 如果有子路由且当前是目录（BasicLayout），设置 redirect 到第一个子路由
+                    if ("BasicLayout".equals(route.getComponent())) {
+                        route.setRedirect(childRoutes.get(0).getPath());
+                    }
+                });
 
-        return buildRouteTreeRecursive(routeMap, parentId);
+        List<RouteVO> result = new ArrayList<>(roots.size());
+        for (RouteData data : roots) {
+            result.add(data.getRoute());
+        }
+        return result;
     }
 
     /**
-     * 递归构建路由树
+     * 路由排序字段
      */
-    private List<RouteVO> buildRouteTreeRecursive(Map<Long, List<RouteData>> routeMap, Long parentId) {
-        List<RouteVO> result = new ArrayList<>();
-        List<RouteData> children = routeMap.get(parentId);
-
-        if (children != null) {
-            for (RouteData data : children) {
-                RouteVO route = data.getRoute();
-                // 递归获取子路由
-                List<RouteVO> childRoutes = buildRouteTreeRecursive(routeMap, data.getMenuId());
-                route.setChildren(childRoutes.isEmpty() ? null : childRoutes);
-
-                // 如果有子路由且当前是目录（BasicLayout），设置 redirect 到第一个子路由
-                if (!childRoutes.isEmpty() && "BasicLayout".equals(route.getComponent())) {
-                    route.setRedirect(childRoutes.get(0).getPath());
-                }
-
-                result.add(route);
-            }
-            // 按排序字段排序
-            result.sort((a, b) -> {
-                Integer orderA = a.getMeta() != null && a.getMeta().getOrder() != null ? a.getMeta().getOrder() : 0;
-                Integer orderB = b.getMeta() != null && b.getMeta().getOrder() != null ? b.getMeta().getOrder() : 0;
-                return orderA.compareTo(orderB);
-            });
-        }
-
-        return result;
+    private int routeOrder(RouteData data) {
+        RouteVO.RouteMeta meta = data.getRoute().getMeta();
+        return meta != null && meta.getOrder() != null ? meta.getOrder() : 0;
     }
 
     /**
-     * 计算用户首页路径
-     * 获取用户第一个可访问的菜单页面路径
+     * 计算首页路径
+     * 获取第一个可访问的菜单页面路径
      *
-     * @param userId 用户ID
+     * @param menus 菜单列表 (已按 sort 排序)
      * @return 首页路径，如果没有可访问的菜单则返回 null
      */
-    private String calculateUserHomePath(Long userId) {
-        // 查询用户菜单 (不含按钮)
-        List<SysMenu> menus = menuRepository.findMenusByUserId(userId);
-
-        if (menus == null || menus.isEmpty()) {
-            return null;
-        }
-
-        // 补充父级菜单
-        menus = completeParentMenus(menus);
-
-        // 按 sort 排序
-        menus.sort((a, b) -> {
-            Integer sortA = a.getSort() != null ? a.getSort() : 0;
-            Integer sortB = b.getSort() != null ? b.getSort() : 0;
-            return sortA.compareTo(sortB);
-        });
-
+    private String calculateHomePath(List<SysMenu> menus) {
         // 查找第一个菜单类型的页面 (menuType = 1)
         // 优先找顶层目录下的第一个菜单
         for (SysMenu menu : menus) {
             if (menu.getMenuType() == SysMenu.MenuType.MENU && menu.getPath() != null) {
-                log.debug("用户首页路径: userId={}, homePath={}", userId, menu.getPath());
                 return menu.getPath();
             }
         }
@@ -0,0 +1,33 @@
+package com.taichu.yingjiguanli.modules.auth.vo;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 登录引导数据响应 VO
+ * 合并用户信息、权限、路由树和菜单树，前端登录后一次请求即可完成初始化
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Data
+@Builder
+public class BootstrapVO {
+
+    /**
+     * 用户信息 (含角色、权限、首页路径)
+     */
+    private UserInfoVO userInfo;
+
+    /**
+     * 路由树 (Vben Admin 格式)
+     */
+    private List<RouteVO> routes;
+
+    /**
+     * 菜单树
+     */
+    private List<MenuVO> menus;
+}
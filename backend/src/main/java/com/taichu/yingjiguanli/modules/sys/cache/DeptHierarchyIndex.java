@@ -0,0 +1,305 @@
+package com.taichu.yingjiguanli.modules.sys.cache;
+
+import com.taichu.yingjiguanli.common.datasource.ReadRouteHelper;
+import com.taichu.yingjiguanli.modules.sys.event.DeptChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 部门层级内存索引
+ * 基于欧拉序 (进入/离开区间) 回答 "某部门的所有下级" 和 "A 是否为 B 的上级"，替代递归 CTE 查询
+ *
+ * <p>索引为不可变快照，通过原子替换实现无锁读取。部门变更后根据 {@link DeptChangedEvent}
+ * 复制当前父子关系并重建完整的欧拉序快照，无需访问数据库；同时按刷新间隔由一个读取线程顺带从数据库全量重载
+ * (其余线程继续读取旧快照)，兼容多节点部署。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Component
+public class DeptHierarchyIndex {
+
+    /**
+     * 查询未命中时触发重载的最小间隔
+     */
+    private static final long MISS_RELOAD_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final SysDeptRepository deptRepository;
+    private final ReadRouteHelper readRouteHelper;
+    private final long refreshIntervalNanos;
+    private final Object lock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public DeptHierarchyIndex(SysDeptRepository deptRepository,
+                              ReadRouteHelper readRouteHelper,
+                              @Value("${yingji.cache.dept.refresh-interval:5m}") Duration refreshInterval) {
+        this.deptRepository = deptRepository;
+        this.readRouteHelper = readRouteHelper;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * 查询部门及其所有下级部门ID
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表 (部门不存在或已删除时为空)
+     */
+    public List<Long> getDeptAndChildrenIds(Long deptId) {
+        if (deptId == null) {
+            return Collections.emptyList();
+        }
+        Snapshot current = snapshotForLookup(deptId);
+        return current.descendants(deptId);
+    }
+
+    /**
+     * 判断 ancestorId 是否为 deptId 本身或其上级部门
+     *
+     * @param ancestorId 上级部门ID
+     * @param deptId     部门ID
+     * @return true 是本身或上级
+     */
+    public boolean isAncestorOrSelf(Long ancestorId, Long deptId) {
+        if (ancestorId == null || deptId == null) {
+            return false;
+        }
+        return snapshot().isAncestorOrSelf(ancestorId, deptId);
+    }
+
+    /**
+     * 当前索引版本号 (每次重建递增)
+     *
+     * @return 版本号
+     */
+    public long version() {
+        return snapshot().version;
+    }
+
+    /**
+     * 从数据库全量重载索引
+     */
+    public void refresh() {
+        synchronized (lock) {
+            long version = snapshot != null ? snapshot.version + 1 : 1;
+            Map<Long, Long> parents = new HashMap<>();
+            for (SysDeptRepository.ParentLink link : readRouteHelper.onPrimary(deptRepository::findAllParentLinks)) {
+                parents.put(link.getId(), link.getParentId() != null ? link.getParentId() : 0L);
+            }
+            snapshot = Snapshot.build(parents, version);
+            log.debug("部门层级索引重载完成: size={}, version={}", parents.size(), version);
+        }
+    }
+
+    /**
+     * 部门变更后在内存中重建索引 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 部门变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeptChanged(DeptChangedEvent event) {
+        synchronized (lock) {
+            if (snapshot == null) {
+                // 尚未加载，首次访问时会全量加载
+                return;
+            }
+            Map<Long, Long> parents = new HashMap<>(snapshot.parents);
+            if (event.deleted()) {
+                parents.remove(event.deptId());
+            } else {
+                parents.put(event.deptId(), event.parentId() != null ? event.parentId() : 0L);
+            }
+            snapshot = Snapshot.build(parents, snapshot.version + 1);
+            log.debug("部门层级索引已更新: deptId={}, deleted={}, version={}",
+                    event.deptId(), event.deleted(), snapshot.version);
+        }
+    }
+
+    /**
+     * 获取索引统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("loaded", current != null);
+        result.put("size", current != null ? current.parents.size() : 0);
+        result.put("version", current != null ? current.version : 0);
+        result.put("ageSeconds", current != null
+                ? Duration.ofNanos(System.nanoTime() - current.loadedAt).toSeconds() : 0);
+        return result;
+    }
+
+    /**
+     * 获取当前快照
+     * 仅首次加载时等待；超过刷新间隔时由一个线程重载，其余线程继续读取旧快照
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (lock) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                return snapshot;
+            }
+        }
+        if (System.nanoTime() - current.loadedAt > refreshIntervalNanos && refreshing.compareAndSet(false, true)) {
+            try {
+                refresh();
+                current = snapshot;
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取用于查询指定部门的快照，部门不在索引中时 (可能由其他节点新增) 限频重载一次
+     */
+    private Snapshot snapshotForLookup(Long deptId) {
+        Snapshot current = snapshot();
+        if (!current.enter.containsKey(deptId)
+                && System.nanoTime() - current.loadedAt > MISS_RELOAD_INTERVAL_NANOS) {
+            synchronized (lock) {
+                if (snapshot == current) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 不可变的部门层级快照
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final long loadedAt = System.nanoTime();
+        /** 部门ID -> 父部门ID */
+        private final Map<Long, Long> parents;
+        /** 部门ID -> 欧拉序进入位置 */
+        private final Map<Long, Integer> enter;
+        /** 进入位置 -> 子树最后一个节点的位置 */
+        private final int[] exit;
+        /** 欧拉序 (先序) 部门ID */
+        private final long[] order;
+
+        private Snapshot(long version, Map<Long, Long> parents, Map<Long, Integer> enter, int[] exit, long[] order) {
+            this.version = version;
+            this.parents = parents;
+            this.enter = enter;
+            this.exit = exit;
+            this.order = order;
+        }
+
+        /**
+         * 根据父子关系构建快照
+         */
+        static Snapshot build(Map<Long, Long> parents, long version) {
+            int size = parents.size();
+            Map<Long, List<Long>> children = new HashMap<>();
+            List<Long> roots = new ArrayList<>();
+            for (Map.Entry<Long, Long> entry : parents.entrySet()) {
+                Long id = entry.getKey();
+                Long parentId = entry.getValue();
+                if (parentId == 0L || parentId.equals(id) || !parents.containsKey(parentId)) {
+                    roots.add(id);
+                } else {
+                    children.computeIfAbsent(parentId, k -> new ArrayList<>()).add(id);
+                }
+            }
+
+            Map<Long, Integer> enter = new HashMap<>(size * 2);
+            int[] exit = new int[size];
+            long[] order = new long[size];
+            int[] counter = {0};
+            for (Long root : roots) {
+                traverse(root, children, enter, exit, order, counter);
+            }
+            // 存在环的部门无法从根节点到达，单独遍历避免遗漏
+            if (counter[0] < size) {
+                log.warn("部门层级存在循环引用，涉及部门数: {}", size - counter[0]);
+                for (Long id : parents.keySet()) {
+                    if (!enter.containsKey(id)) {
+                        traverse(id, children, enter, exit, order, counter);
+                    }
+                }
+            }
+            return new Snapshot(version, Collections.unmodifiableMap(parents), enter, exit, order);
+        }
+
+        /**
+         * 非递归深度优先遍历，记录进入和离开位置
+         */
+        private static void traverse(Long start, Map<Long, List<Long>> children,
+                                     Map<Long, Integer> enter, int[] exit, long[] order, int[] counter) {
+            // 正数表示进入节点，负数表示离开节点 (部门ID均为正数)
+            Deque<Long> stack = new ArrayDeque<>();
+            stack.push(start);
+            while (!stack.isEmpty()) {
+                long node = stack.pop();
+                if (node < 0) {
+                    exit[enter.get(-node)] = counter[0] - 1;
+                    continue;
+                }
+                if (enter.containsKey(node)) {
+                    continue;
+                }
+                int position = counter[0]++;
+                enter.put(node, position);
+                order[position] = node;
+                stack.push(-node);
+                List<Long> childIds = children.get(node);
+                if (childIds != null) {
+                    for (Long childId : childIds) {
+                        if (!enter.containsKey(childId)) {
+                            stack.push(childId);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Long> descendants(Long deptId) {
+            Integer position = enter.get(deptId);
+            if (position == null) {
+                return Collections.emptyList();
+            }
+            int end = exit[position];
+            List<Long> result = new ArrayList<>(end - position + 1);
+            for (int i = position; i <= end; i++) {
+                result.add(order[i]);
+            }
+            return result;
+        }
+
+        boolean isAncestorOrSelf(Long ancestorId, Long deptId) {
+            Integer ancestorPosition = enter.get(ancestorId);
+            Integer position = enter.get(deptId);
+            if (ancestorPosition == null || position == null) {
+                return false;
+            }
+            return ancestorPosition <= position && position <= exit[ancestorPosition];
+        }
+    }
+}
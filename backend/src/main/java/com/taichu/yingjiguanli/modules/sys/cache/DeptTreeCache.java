@@ -0,0 +1,249 @@
+package com.taichu.yingjiguanli.modules.sys.cache;
+
+import com.taichu.yingjiguanli.common.datasource.ReadRouteHelper;
+import com.taichu.yingjiguanli.common.util.TreeBuilder;
+import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
+import com.taichu.yingjiguanli.modules.sys.event.DeptChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
+import com.taichu.yingjiguanli.modules.sys.vo.DeptVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 部门树内存快照
+ * 缓存部门树、部门平铺列表及预序列化的部门树 JSON，供部门选择器等高频接口直接读取，不访问数据库
+ *
+ * <p>快照不可变并带版本号，通过 volatile 引用原子替换：部门新增、修改、删除提交后根据
+ * {@link DeptChangedEvent} 立即重建 (写穿)，读取方始终拿到完整的旧快照或新快照，不会阻塞；
+ * 同时按刷新间隔由一个读取线程顺带重载，兼容多节点部署。{@link #getTree()} 和 {@link #getList()}
+ * 返回快照 VO 的副本，调用方修改返回结果不会影响快照和其他请求；部门选择器等高频接口应使用
+ * {@link #getTreeJson()}，只需部门ID时使用 {@link #getDeptIds()}，均无复制开销。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Component
+public class DeptTreeCache {
+
+    private final SysDeptRepository deptRepository;
+    private final ReadRouteHelper readRouteHelper;
+    private final JsonMapper jsonMapper;
+    private final long refreshIntervalNanos;
+    private final Object lock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private long version;
+
+    public DeptTreeCache(SysDeptRepository deptRepository,
+                         ReadRouteHelper readRouteHelper,
+                         JsonMapper jsonMapper,
+                         @Value("${yingji.cache.dept.refresh-interval:5m}") Duration refreshInterval) {
+        this.deptRepository = deptRepository;
+        this.readRouteHelper = readRouteHelper;
+        this.jsonMapper = jsonMapper;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * 获取部门树
+     *
+     * @return 部门树副本 (每次调用新建，可修改)
+     */
+    public List<DeptVO> getTree() {
+        return copyTree(snapshot().tree);
+    }
+
+    /**
+     * 获取预序列化的部门树 JSON
+     *
+     * @return 部门树 JSON 数组
+     */
+    public String getTreeJson() {
+        return snapshot().treeJson;
+    }
+
+    /**
+     * 获取部门平铺列表
+     *
+     * @return 部门列表副本 (每次调用新建，可修改，按排序字段升序)
+     */
+    public List<DeptVO> getList() {
+        List<DeptVO> list = snapshot().list;
+        List<DeptVO> copy = new ArrayList<>(list.size());
+        for (DeptVO dept : list) {
+            copy.add(copyNode(dept));
+        }
+        return copy;
+    }
+
+    /**
+     * 获取全部未删除部门ID
+     *
+     * @return 部门ID集合 (只读)
+     */
+    public Set<Long> getDeptIds() {
+        return snapshot().deptIds;
+    }
+
+    /**
+     * 当前快照版本号 (每次重建递增)
+     *
+     * @return 版本号
+     */
+    public long version() {
+        return snapshot().version;
+    }
+
+    /**
+     * 从数据库全量重建快照
+     */
+    public void refresh() {
+        synchronized (lock) {
+            List<SysDept> depts = readRouteHelper.onPrimary(() -> deptRepository.findByDelFlagOrderBySortAsc(0));
+            snapshot = Snapshot.build(depts, ++version, jsonMapper);
+            log.debug("部门树快照重建完成: size={}, version={}", depts.size(), version);
+        }
+    }
+
+    /**
+     * 部门变更后重建快照 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 部门变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeptChanged(DeptChangedEvent event) {
+        if (snapshot == null) {
+            // 尚未加载，首次访问时会全量加载
+            return;
+        }
+        refresh();
+        log.debug("部门树快照已更新: deptId={}, deleted={}", event.deptId(), event.deleted());
+    }
+
+    /**
+     * 获取快照统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("loaded", current != null);
+        result.put("size", current != null ? current.list.size() : 0);
+        result.put("version", current != null ? current.version : 0);
+        result.put("treeJsonLength", current != null ? current.treeJson.length() : 0);
+        result.put("ageSeconds", current != null
+                ? Duration.ofNanos(System.nanoTime() - current.loadedAt).toSeconds() : 0);
+        return result;
+    }
+
+    /**
+     * 获取当前快照
+     * 仅首次加载时等待；超过刷新间隔时由一个线程重载，其余线程继续读取旧快照
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (lock) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                return snapshot;
+            }
+        }
+        if (System.nanoTime() - current.loadedAt > refreshIntervalNanos && refreshing.compareAndSet(false, true)) {
+            try {
+                refresh();
+                current = snapshot;
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 复制部门树 (逐层复制节点和子节点列表)
+     */
+    private static List<DeptVO> copyTree(List<DeptVO> nodes) {
+        List<DeptVO> copy = new ArrayList<>(nodes.size());
+        for (DeptVO node : nodes) {
+            DeptVO nodeCopy = copyNode(node);
+            nodeCopy.setChildren(copyTree(node.getChildren()));
+            copy.add(nodeCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * 复制单个部门节点 (子节点列表为空)
+     */
+    private static DeptVO copyNode(DeptVO source) {
+        DeptVO copy = new DeptVO();
+        copy.setId(source.getId());
+        copy.setParentId(source.getParentId());
+        copy.setDeptName(source.getDeptName());
+        copy.setLeader(source.getLeader());
+        copy.setPhone(source.getPhone());
+        copy.setSort(source.getSort());
+        copy.setStatus(source.getStatus());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setChildren(new ArrayList<>());
+        return copy;
+    }
+
+    /**
+     * 不可变的部门树快照
+     * 快照内的 VO 只在构建时写入，之后仅用于复制和序列化，不直接返回给调用方
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final long loadedAt = System.nanoTime();
+        /** 部门树 */
+        private final List<DeptVO> tree;
+        /** 部门树 JSON */
+        private final String treeJson;
+        /** 部门平铺列表 */
+        private final List<DeptVO> list;
+        /** 部门ID */
+        private final Set<Long> deptIds;
+
+        private Snapshot(long version, List<DeptVO> tree, String treeJson, List<DeptVO> list) {
+            this.version = version;
+            this.tree = tree;
+            this.treeJson = treeJson;
+            this.list = list;
+            this.deptIds = list.stream().map(DeptVO::getId).collect(Collectors.toUnmodifiableSet());
+        }
+
+        static Snapshot build(List<SysDept> depts, long version, JsonMapper jsonMapper) {
+            // 树和平铺列表使用各自的 VO，平铺列表中的 children 保持为空
+            List<DeptVO> treeNodes = new ArrayList<>(depts.size());
+            List<DeptVO> list = new ArrayList<>(depts.size());
+            for (SysDept dept : depts) {
+                treeNodes.add(DeptVO.from(dept));
+                list.add(DeptVO.from(dept));
+            }
+            List<DeptVO> tree = TreeBuilder.build(treeNodes, 0L, DeptVO::getId, DeptVO::getParentId,
+                    d -> d.getSort() != null ? d.getSort() : 0, DeptVO::setChildren);
+            return new Snapshot(version, Collections.unmodifiableList(tree), jsonMapper.writeValueAsString(tree),
+                    Collections.unmodifiableList(list));
+        }
+    }
+}
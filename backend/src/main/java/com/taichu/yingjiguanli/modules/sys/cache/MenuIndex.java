@@ -0,0 +1,202 @@
+package com.taichu.yingjiguanli.modules.sys.cache;
+
+import com.taichu.yingjiguanli.common.datasource.ReadRouteHelper;
+import com.taichu.yingjiguanli.modules.sys.entity.SysMenu;
+import com.taichu.yingjiguanli.modules.sys.event.MenuChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.repository.SysMenuRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 菜单内存索引
+ * 缓存完整的菜单表 (数据量小、读多写少)，用于补全用户菜单的父级菜单，替代逐级 findById 查询
+ *
+ * <p>索引为不可变快照，菜单变更后根据 {@link MenuChangedEvent} 失效，下次访问时重新加载；
+ * 同时按刷新间隔定期重载，兼容多节点部署。快照中的菜单实体为共享对象，调用方不得修改。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Component
+public class MenuIndex {
+
+    /**
+     * 查询未命中时触发重载的最小间隔
+     */
+    private static final long MISS_RELOAD_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final SysMenuRepository menuRepository;
+    private final ReadRouteHelper readRouteHelper;
+    private final long refreshIntervalNanos;
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot;
+    private long version;
+
+    public MenuIndex(SysMenuRepository menuRepository,
+                     ReadRouteHelper readRouteHelper,
+                     @Value("${yingji.cache.menu.refresh-interval:5m}") Duration refreshInterval) {
+        this.menuRepository = menuRepository;
+        this.readRouteHelper = readRouteHelper;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * 查询菜单及其所有父级菜单
+     *
+     * @param menuIds 菜单ID集合
+     * @return 菜单列表 (按排序字段升序，不存在的菜单忽略)
+     */
+    public List<SysMenu> getMenusWithAncestors(Collection<Long> menuIds) {
+        if (menuIds == null || menuIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Snapshot current = snapshotForLookup(menuIds);
+
+        // 逐级向上补充父级菜单，直到根节点 (parentId = 0) 或已收集的菜单
+        Set<Long> collected = new HashSet<>();
+        for (Long menuId : menuIds) {
+            Long id = menuId;
+            while (id != null && id != 0 && current.menus.containsKey(id) && collected.add(id)) {
+                id = current.menus.get(id).getParentId();
+            }
+        }
+
+        List<SysMenu> result = new ArrayList<>(collected.size());
+        for (SysMenu menu : current.sorted) {
+            if (collected.contains(menu.getId())) {
+                result.add(menu);
+            }
+        }
+        log.debug("补充父级菜单: 原有{}个, 补充{}个父级菜单",
+                menuIds.size(), result.size() - menuIds.size());
+        return result;
+    }
+
+    /**
+     * 当前索引版本号 (每次重载递增)
+     *
+     * @return 版本号
+     */
+    public long version() {
+        return snapshot().version;
+    }
+
+    /**
+     * 从数据库全量重载索引
+     */
+    public void refresh() {
+        synchronized (lock) {
+            List<SysMenu> menus = readRouteHelper.onPrimary(menuRepository::findAllOrderBySort);
+            snapshot = Snapshot.build(menus, ++version);
+            log.debug("菜单索引重载完成: size={}, version={}", menus.size(), version);
+        }
+    }
+
+    /**
+     * 菜单变更后失效索引 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 菜单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        synchronized (lock) {
+            snapshot = null;
+        }
+        log.debug("菜单索引失效: menuId={}", event.menuId());
+    }
+
+    /**
+     * 获取索引统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("loaded", current != null);
+        result.put("size", current != null ? current.sorted.size() : 0);
+        result.put("version", current != null ? current.version : 0);
+        result.put("ageSeconds", current != null
+                ? Duration.ofNanos(System.nanoTime() - current.loadedAt).toSeconds() : 0);
+        return result;
+    }
+
+    /**
+     * 获取当前快照，未加载或超过刷新间隔时重载
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.loadedAt > refreshIntervalNanos) {
+            synchronized (lock) {
+                current = snapshot;
+                if (current == null || System.nanoTime() - current.loadedAt > refreshIntervalNanos) {
+                    refresh();
+                    current = snapshot;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取用于查询指定菜单的快照，菜单不在索引中时 (可能由其他节点新增) 限频重载一次
+     */
+    private Snapshot snapshotForLookup(Collection<Long> menuIds) {
+        Snapshot current = snapshot();
+        if (!current.menus.keySet().containsAll(menuIds)
+                && System.nanoTime() - current.loadedAt > MISS_RELOAD_INTERVAL_NANOS) {
+            synchronized (lock) {
+                if (snapshot == current) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 不可变的菜单快照
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final long loadedAt = System.nanoTime();
+        /** 菜单ID -> 菜单 */
+        private final Map<Long, SysMenu> menus;
+        /** 按排序字段升序的菜单列表 */
+        private final List<SysMenu> sorted;
+
+        private Snapshot(long version, Map<Long, SysMenu> menus, List<SysMenu> sorted) {
+            this.version = version;
+            this.menus = menus;
+            this.sorted = sorted;
+        }
+
+        static Snapshot build(List<SysMenu> menus, long version) {
+            List<SysMenu> sorted = new ArrayList<>(menus);
+            sorted.sort(Comparator.comparing((SysMenu m) -> m.getSort() != null ? m.getSort() : 0)
+                    .thenComparing(SysMenu::getId));
+            Map<Long, SysMenu> byId = new HashMap<>(sorted.size() * 2);
+            for (SysMenu menu : sorted) {
+                byId.put(menu.getId(), menu);
+            }
+            return new Snapshot(version, Collections.unmodifiableMap(byId), Collections.unmodifiableList(sorted));
+        }
+    }
+}
@@ -4,17 +4,24 @@ import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.annotation.SaCheckPermission;
 import com.taichu.yingjiguanli.common.ApiResponse;
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.export.ExportFormat;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
 import com.taichu.yingjiguanli.modules.sys.dto.DeptCreateDTO;
 import com.taichu.yingjiguanli.modules.sys.dto.DeptUpdateDTO;
 import com.taichu.yingjiguanli.modules.sys.service.SysDeptService;
 import com.taichu.yingjiguanli.modules.sys.vo.DeptVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.util.RawValue;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -39,9 +46,11 @@ public class SysDeptController {
      */
     @GetMapping("/tree")
     @SaCheckPermission("sys:dept:list")
-    @Operation(summary = "查询部门树")
-    public ApiResponse<List<DeptVO>> tree() {
-        return ApiResponse.success(deptService.findTree());
+    @Operation(summary = "查询部门树", description = "data 为预序列化的部门树 JSON (DeptVO 数组)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "部门树",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeptTreeResponse.class)))
+    public ApiResponse<RawValue> tree() {
+        return ApiResponse.success(new RawValue(deptService.findTreeJson()));
     }
 
     /**
@@ -56,6 +65,23 @@ public class SysDeptController {
         return ApiResponse.success(deptService.findAll());
     }
 
+    /**
+     * 导出部门 (流式写出)
+     *
+     * @param format   导出格式
+     * @param response HTTP 响应
+     * @throws IOException 写入失败
+     */
+    @GetMapping("/export")
+    @SaCheckPermission("sys:dept:list")
+    @Operation(summary = "导出部门")
+    public void export(@Parameter(description = "导出格式 (csv/xlsx)") @RequestParam(defaultValue = "csv") String format,
+                       HttpServletResponse response) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(response, ExportFormat.of(format), "部门")) {
+            deptService.export(writer);
+        }
+    }
+
     /**
      * 查询部门详情
      *
@@ -114,4 +140,11 @@ public class SysDeptController {
         deptService.delete(id);
         return ApiResponse.success("部门删除成功", null);
     }
+
+    /**
+     * 部门树响应文档结构 (接口实际返回预序列化 JSON，仅用于 OpenAPI 描述 data 为 DeptVO 数组)
+     */
+    @Schema(name = "DeptTreeResponse", description = "部门树响应")
+    static class DeptTreeResponse extends ApiResponse<List<DeptVO>> {
+    }
 }
@@ -4,17 +4,21 @@ import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.annotation.SaCheckPermission;
 import com.taichu.yingjiguanli.common.ApiResponse;
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.export.ExportFormat;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
 import com.taichu.yingjiguanli.modules.sys.dto.*;
 import com.taichu.yingjiguanli.modules.sys.service.SysRoleService;
 import com.taichu.yingjiguanli.modules.sys.vo.RoleVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -57,6 +61,25 @@ public class SysRoleController {
         return ApiResponse.success(roleService.findAll());
     }
 
+    /**
+     * 导出角色 (流式写出，不分页)
+     *
+     * @param query    查询条件
+     * @param format   导出格式
+     * @param response HTTP 响应
+     * @throws IOException 写入失败
+     */
+    @GetMapping("/export")
+    @SaCheckPermission("sys:role:list")
+    @Operation(summary = "导出角色", description = "查询条件同分页查询，分页参数无效")
+    public void export(RoleQueryDTO query,
+                       @Parameter(description = "导出格式 (csv/xlsx)") @RequestParam(defaultValue = "csv") String format,
+                       HttpServletResponse response) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(response, ExportFormat.of(format), "角色")) {
+            roleService.export(query, writer);
+        }
+    }
+
     /**
      * 查询角色详情
      *
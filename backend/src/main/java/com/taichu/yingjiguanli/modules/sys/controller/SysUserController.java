@@ -4,16 +4,26 @@ import cn.dev33.satoken.annotation.SaCheckLogin;
 import cn.dev33.satoken.annotation.SaCheckPermission;
 import com.taichu.yingjiguanli.common.ApiResponse;
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.export.ExportFormat;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
+import com.taichu.yingjiguanli.common.page.CursorPage;
 import com.taichu.yingjiguanli.modules.sys.dto.*;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserImportService;
 import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import com.taichu.yingjiguanli.modules.sys.vo.UserImportJobVO;
 import com.taichu.yingjiguanli.modules.sys.vo.UserVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
 
 /**
  * 用户管理控制器
@@ -29,6 +39,7 @@ import org.springframework.web.bind.annotation.*;
 public class SysUserController {
 
     private final SysUserService userService;
+    private final SysUserImportService userImportService;
 
     /**
      * 分页查询用户列表
@@ -43,6 +54,39 @@ public class SysUserController {
         return ApiResponse.success(userService.findPage(query));
     }
 
+    /**
+     * 游标分页查询用户列表
+     *
+     * @param query 查询条件
+     * @return 游标分页结果
+     */
+    @GetMapping("/cursor")
+    @SaCheckPermission("sys:user:list")
+    @Operation(summary = "游标分页查询用户列表", description = "按创建时间倒序，传入上一页返回的 nextCursor 获取下一页，"
+            + "withTotal=true 时第一页返回总条数")
+    public ApiResponse<CursorPage<UserVO>> cursor(UserQueryDTO query) {
+        return ApiResponse.success(userService.findCursorPage(query));
+    }
+
+    /**
+     * 导出用户 (流式写出，不分页)
+     *
+     * @param query    查询条件
+     * @param format   导出格式
+     * @param response HTTP 响应
+     * @throws IOException 写入失败
+     */
+    @GetMapping("/export")
+    @SaCheckPermission("sys:user:list")
+    @Operation(summary = "导出用户", description = "查询条件同分页查询，按数据权限过滤，分页参数无效")
+    public void export(UserQueryDTO query,
+                       @Parameter(description = "导出格式 (csv/xlsx)") @RequestParam(defaultValue = "csv") String format,
+                       HttpServletResponse response) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(response, ExportFormat.of(format), "用户")) {
+            userService.export(query, writer);
+        }
+    }
+
     /**
      * 查询用户详情
      *
@@ -152,4 +196,34 @@ public class SysUserController {
         userService.assignRoles(id, dto);
         return ApiResponse.success("角色分配成功", null);
     }
+
+    /**
+     * 批量导入用户 (异步执行，通过任务ID查询进度)
+     *
+     * @param file 导入文件 (CSV 或 JSON Lines)
+     * @return 导入任务
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @SaCheckPermission("sys:user:add")
+    @Operation(summary = "批量导入用户", description = "支持 .csv (首行为表头) 和 .jsonl/.ndjson (每行一个用户)，"
+            + "字段同创建用户接口，CSV 中 roleIds 多个值以 | 分隔")
+    public ApiResponse<UserImportJobVO> importUsers(
+            @Parameter(description = "导入文件") @RequestParam("file") MultipartFile file) {
+        return ApiResponse.success("导入任务已提交", userImportService.submit(file));
+    }
+
+    /**
+     * 查询用户导入任务进度
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    @GetMapping("/import/{jobId}")
+    @SaCheckPermission("sys:user:add")
+    @Operation(summary = "查询用户导入进度")
+    public ApiResponse<UserImportJobVO> getImportJob(
+            @Parameter(description = "任务ID") @PathVariable String jobId) {
+        return ApiResponse.success(userImportService.findJob(jobId)
+                .orElseThrow(() -> new BusinessException(404, "导入任务不存在或已过期")));
+    }
 }
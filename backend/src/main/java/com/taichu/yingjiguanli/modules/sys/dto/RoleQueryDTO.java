@@ -35,4 +35,10 @@ public class RoleQueryDTO {
      * 每页大小
      */
     private Integer size = 10;
+
+    /**
+     * 是否统计总条数 (为空时统计)
+     * 不统计时多取一条判断是否有下一页，总条数为已知下界
+     */
+    private Boolean withTotal;
 }
@@ -11,6 +11,11 @@ import lombok.Data;
 @Data
 public class UserQueryDTO {
 
+    /**
+     * 关键词 (同时检索用户名、真实姓名、手机号)
+     */
+    private String keyword;
+
     /**
      * 用户名 (模糊搜索)
      */
@@ -45,4 +50,15 @@ public class UserQueryDTO {
      * 每页大小
      */
     private Integer size = 10;
+
+    /**
+     * 游标 (游标分页，为空表示第一页)
+     */
+    private String cursor;
+
+    /**
+     * 是否统计总条数 (为空时偏移分页统计、游标分页不统计；游标分页仅第一页统计)
+     * 不统计时偏移分页多取一条判断是否有下一页，总条数为已知下界
+     */
+    private Boolean withTotal;
 }
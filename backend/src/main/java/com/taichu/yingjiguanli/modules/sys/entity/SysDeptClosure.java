@@ -0,0 +1,58 @@
+package com.taichu.yingjiguanli.modules.sys.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Comment;
+
+import java.io.Serializable;
+
+/**
+ * 部门闭包实体类
+ * 记录每个部门与其所有祖先部门 (含自身) 的关系，用于无递归的子树查询
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Data
+@Entity
+@IdClass(SysDeptClosure.Pk.class)
+@Table(name = "sys_dept_closure", indexes = {
+        @Index(name = "idx_descendant_id", columnList = "descendant_id")
+})
+@Comment("部门闭包表")
+public class SysDeptClosure {
+
+    /**
+     * 祖先部门ID
+     */
+    @Id
+    @Column(name = "ancestor_id")
+    @Comment("祖先部门ID")
+    private Long ancestorId;
+
+    /**
+     * 后代部门ID
+     */
+    @Id
+    @Column(name = "descendant_id")
+    @Comment("后代部门ID")
+    private Long descendantId;
+
+    /**
+     * 层级距离 (0为自身)
+     */
+    @Column(nullable = false)
+    @Comment("层级距离 (0为自身)")
+    private Integer depth;
+
+    /**
+     * 联合主键
+     */
+    @Data
+    public static class Pk implements Serializable {
+
+        private Long ancestorId;
+
+        private Long descendantId;
+    }
+}
@@ -1,9 +1,12 @@
 package com.taichu.yingjiguanli.modules.sys.entity;
 
 import com.taichu.yingjiguanli.common.entity.BaseEntity;
+import com.taichu.yingjiguanli.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
 
 import java.util.ArrayList;
@@ -18,6 +21,8 @@ import java.util.List;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.MENU_REGION)
 @Table(name = "sys_menu", indexes = {
         @Index(name = "idx_parent_id", columnList = "parent_id"),
         @Index(name = "idx_status", columnList = "status")
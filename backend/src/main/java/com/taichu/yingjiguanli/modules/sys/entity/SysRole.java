@@ -1,9 +1,12 @@
 package com.taichu.yingjiguanli.modules.sys.entity;
 
 import com.taichu.yingjiguanli.common.entity.BaseEntity;
+import com.taichu.yingjiguanli.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
 
 import java.util.HashSet;
@@ -18,6 +21,8 @@ import java.util.Set;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROLE_REGION)
 @Table(name = "sys_role", indexes = {
         @Index(name = "idx_status", columnList = "status")
 }, uniqueConstraints = {
@@ -77,9 +82,10 @@ public class SysRole extends BaseEntity {
     private String remark;
 
     /**
-     * 角色菜单关联 (多对多)
+     * 角色菜单关联 (多对多，由 {@link com.taichu.yingjiguanli.modules.sys.repository.SysRelationJdbcRepository} 写入并清除集合缓存)
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROLE_MENUS_REGION)
     @JoinTable(
             name = "sys_role_menu",
             joinColumns = @JoinColumn(name = "role_id"),
@@ -91,6 +97,7 @@ public class SysRole extends BaseEntity {
      * 角色部门关联 - 数据权限 (多对多)
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROLE_DEPTS_REGION)
     @JoinTable(
             name = "sys_role_dept",
             joinColumns = @JoinColumn(name = "role_id"),
@@ -2,9 +2,12 @@ package com.taichu.yingjiguanli.modules.sys.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.taichu.yingjiguanli.common.entity.BaseEntity;
+import com.taichu.yingjiguanli.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
 
 import java.util.HashSet;
@@ -21,7 +24,8 @@ import java.util.Set;
 @Entity
 @Table(name = "sys_user", indexes = {
         @Index(name = "idx_dept_id", columnList = "dept_id"),
-        @Index(name = "idx_status", columnList = "status")
+        @Index(name = "idx_status", columnList = "status"),
+        @Index(name = "idx_del_flag_create_time_id", columnList = "del_flag, create_time, id")
 }, uniqueConstraints = {
         @UniqueConstraint(name = "uk_username", columnNames = "username")
 })
@@ -93,9 +97,10 @@ public class SysUser extends BaseEntity {
     private Integer delFlag = 0;
 
     /**
-     * 用户角色关联 (多对多)
+     * 用户角色关联 (多对多，由 {@link com.taichu.yingjiguanli.modules.sys.repository.SysRelationJdbcRepository} 写入并清除集合缓存)
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_ROLES_REGION)
     @JoinTable(
             name = "sys_user_role",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,35 @@
+package com.taichu.yingjiguanli.modules.sys.event;
+
+/**
+ * 部门变更事件
+ * 部门新增、修改 (含移动)、删除后发布，用于增量更新内存中的部门索引
+ *
+ * @param deptId   部门ID
+ * @param parentId 变更后的父部门ID
+ * @param deleted  是否已删除
+ * @author CX
+ * @since 2026-01-17
+ */
+public record DeptChangedEvent(Long deptId, Long parentId, boolean deleted) {
+
+    /**
+     * 部门新增或修改
+     *
+     * @param deptId   部门ID
+     * @param parentId 父部门ID
+     * @return 变更事件
+     */
+    public static DeptChangedEvent saved(Long deptId, Long parentId) {
+        return new DeptChangedEvent(deptId, parentId, false);
+    }
+
+    /**
+     * 部门删除
+     *
+     * @param deptId 部门ID
+     * @return 变更事件
+     */
+    public static DeptChangedEvent deleted(Long deptId) {
+        return new DeptChangedEvent(deptId, null, true);
+    }
+}
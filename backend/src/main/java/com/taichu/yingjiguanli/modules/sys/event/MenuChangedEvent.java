@@ -0,0 +1,12 @@
+package com.taichu.yingjiguanli.modules.sys.event;
+
+/**
+ * 菜单变更事件
+ * 菜单新增、修改、删除后发布，用于失效内存中的菜单索引
+ *
+ * @param menuId 菜单ID
+ * @author CX
+ * @since 2026-01-17
+ */
+public record MenuChangedEvent(Long menuId) {
+}
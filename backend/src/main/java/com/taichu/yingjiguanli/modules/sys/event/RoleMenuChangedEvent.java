@@ -0,0 +1,12 @@
+package com.taichu.yingjiguanli.modules.sys.event;
+
+/**
+ * 角色菜单变更事件
+ * 角色分配的菜单变更后发布，用于失效按角色组合缓存的菜单树和路由树
+ *
+ * @param roleId 角色ID
+ * @author CX
+ * @since 2026-01-17
+ */
+public record RoleMenuChangedEvent(Long roleId) {
+}
@@ -0,0 +1,141 @@
+package com.taichu.yingjiguanli.modules.sys.repository;
+
+import com.taichu.yingjiguanli.security.AuthProfile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户授权档案 JDBC 数据访问
+ * 以两条集合查询加载 {@link AuthProfile}：第一条查询用户、部门名称及角色 (每个角色一行)，
+ * 第二条以 UNION ALL 同时查询有效角色的权限标识和自定义数据权限角色的关联部门，不加载任何实体
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Repository
+@RequiredArgsConstructor
+public class SysAuthProfileJdbcRepository {
+
+    /**
+     * 自定义数据权限范围
+     */
+    private static final int DATA_SCOPE_CUSTOM = 5;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 加载用户授权档案
+     *
+     * @param userId  用户ID
+     * @param version 档案版本号
+     * @return 授权档案，用户不存在时为 null
+     */
+    public AuthProfile load(Long userId, long version) {
+        // 查询用户、部门名称及未删除的角色
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                SELECT u.id, u.username, u.real_name, u.avatar, u.dept_id, d.dept_name,
+                       r.id AS role_id, r.role_code, r.data_scope, r.status AS role_status
+                FROM sys_user u
+                LEFT JOIN sys_dept d ON d.id = u.dept_id
+                LEFT JOIN sys_user_role ur ON ur.user_id = u.id
+                LEFT JOIN sys_role r ON r.id = ur.role_id AND r.del_flag = 0
+                WHERE u.id = :userId
+                ORDER BY r.id ASC""", Map.of("userId", userId));
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        // 区分有效角色和自定义数据权限角色
+        List<Long> roleIds = new ArrayList<>();
+        List<String> roleCodes = new ArrayList<>();
+        List<AuthProfile.RoleScope> roleScopes = new ArrayList<>();
+        List<Long> customRoleIds = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            Long roleId = toLong(row.get("role_id"));
+            if (roleId == null) {
+                continue;
+            }
+            Integer dataScope = toInteger(row.get("data_scope"));
+            roleScopes.add(new AuthProfile.RoleScope(roleId, dataScope));
+            if (dataScope != null && dataScope == DATA_SCOPE_CUSTOM) {
+                customRoleIds.add(roleId);
+            }
+            Integer status = toInteger(row.get("role_status"));
+            if (status != null && status == 1) {
+                roleIds.add(roleId);
+                roleCodes.add((String) row.get("role_code"));
+            }
+        }
+
+        // 查询权限标识和自定义数据权限部门
+        Set<String> permissions = new LinkedHashSet<>();
+        Set<Long> customDeptIds = new HashSet<>();
+        List<String> queries = new ArrayList<>(2);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (!roleIds.isEmpty()) {
+            queries.add("""
+                    SELECT m.permission AS permission, NULL AS dept_id
+                    FROM sys_role_menu rm
+                    INNER JOIN sys_menu m ON m.id = rm.menu_id
+                    WHERE rm.role_id IN (:roleIds) AND m.status = 1
+                    AND m.permission IS NOT NULL AND m.permission <> ''""");
+            params.addValue("roleIds", roleIds);
+        }
+        if (!customRoleIds.isEmpty()) {
+            queries.add("""
+                    SELECT NULL AS permission, rd.dept_id AS dept_id
+                    FROM sys_role_dept rd
+                    WHERE rd.role_id IN (:customRoleIds)""");
+            params.addValue("customRoleIds", customRoleIds);
+        }
+        if (!queries.isEmpty()) {
+            jdbcTemplate.query(String.join("\nUNION ALL\n", queries), params, rs -> {
+                String permission = rs.getString("permission");
+                if (permission != null) {
+                    permissions.add(permission);
+                } else {
+                    customDeptIds.add(rs.getLong("dept_id"));
+                }
+            });
+        }
+
+        Map<String, Object> user = rows.getFirst();
+        return new AuthProfile(
+                toLong(user.get("id")),
+                (String) user.get("username"),
+                (String) user.get("real_name"),
+                (String) user.get("avatar"),
+                toLong(user.get("dept_id")),
+                (String) user.get("dept_name"),
+                List.copyOf(roleIds),
+                List.copyOf(roleCodes),
+                List.copyOf(permissions),
+                List.copyOf(roleScopes),
+                customDeptIds.isEmpty() ? Collections.emptySet() : Set.copyOf(customDeptIds),
+                version);
+    }
+
+    /**
+     * 数值列转换为 Long
+     */
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    /**
+     * 数值列转换为 Integer
+     */
+    private static Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+}
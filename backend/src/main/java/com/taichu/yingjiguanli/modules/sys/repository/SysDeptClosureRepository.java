@@ -0,0 +1,137 @@
+package com.taichu.yingjiguanli.modules.sys.repository;
+
+import com.taichu.yingjiguanli.modules.sys.entity.SysDeptClosure;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 部门闭包数据访问接口
+ * 维护部门新增、移动、删除时的闭包关系
+ * 原生修改语句声明只影响 sys_dept_closure 表，Hibernate 不会因此清空全部二级缓存
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Repository
+public interface SysDeptClosureRepository extends JpaRepository<SysDeptClosure, SysDeptClosure.Pk> {
+
+    /**
+     * 新增部门：继承父部门的全部祖先关系，并添加自身关系
+     *
+     * @param deptId   新部门ID
+     * @param parentId 父部门ID (0为顶级)
+     * @return 插入数量
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sys_dept_closure"))
+    @Query(value = """
+            INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth)
+            SELECT c.ancestor_id, d.id, c.depth + 1 FROM sys_dept_closure c
+            INNER JOIN sys_dept d ON d.id = :deptId
+            WHERE c.descendant_id = :parentId
+            UNION ALL
+            SELECT d.id, d.id, 0 FROM sys_dept d WHERE d.id = :deptId
+            """, nativeQuery = true)
+    int insertForNewDept(Long deptId, Long parentId);
+
+    /**
+     * 加锁读取祖先与后代之间的闭包关系 (移动部门时在写事务内检查环)
+     * 两个并发的移动若会共同形成环，各自的新增关系恰好是对方加锁读取的关系，InnoDB 间隙锁使二者互斥，
+     * 其中一个事务因死锁回滚，不会写入成环的闭包关系
+     *
+     * @param ancestorId   祖先部门ID
+     * @param descendantId 后代部门ID
+     * @return 层级距离 (不存在关系时为空)
+     */
+    @Query(value = """
+            SELECT depth FROM sys_dept_closure
+            WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Integer> findDepthForUpdate(Long ancestorId, Long descendantId);
+
+    /**
+     * 查询部门及其所有下级部门ID
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表
+     */
+    @Query(value = "SELECT descendant_id FROM sys_dept_closure WHERE ancestor_id = :deptId", nativeQuery = true)
+    List<Long> findDescendantIds(Long deptId);
+
+    /**
+     * 查询部门的所有上级部门ID (不含自身)
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表
+     */
+    @Query(value = "SELECT ancestor_id FROM sys_dept_closure WHERE descendant_id = :deptId AND depth > 0",
+            nativeQuery = true)
+    List<Long> findAncestorIds(Long deptId);
+
+    /**
+     * 删除指定祖先与指定后代之间的全部关系
+     *
+     * @param ancestorIds   祖先部门ID集合
+     * @param descendantIds 后代部门ID集合
+     * @return 删除数量
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sys_dept_closure"))
+    @Query(value = "DELETE FROM sys_dept_closure WHERE ancestor_id IN :ancestorIds AND descendant_id IN :descendantIds",
+            nativeQuery = true)
+    int deleteLinks(Collection<Long> ancestorIds, Collection<Long> descendantIds);
+
+    /**
+     * 移动部门第一步：删除子树与子树外祖先之间的关系 (保留子树内部关系)
+     * 先查出子树和原祖先部门ID再按ID删除 (MySQL 不允许 DELETE 的子查询读取同一张表)
+     *
+     * @param deptId 被移动的部门ID
+     * @return 删除数量
+     */
+    default int detachSubtree(Long deptId) {
+        List<Long> ancestorIds = findAncestorIds(deptId);
+        if (ancestorIds.isEmpty()) {
+            return 0;
+        }
+        return deleteLinks(ancestorIds, findDescendantIds(deptId));
+    }
+
+    /**
+     * 移动部门第二步：将子树挂到新父部门的全部祖先之下
+     *
+     * @param deptId   被移动的部门ID
+     * @param parentId 新父部门ID (0为顶级)
+     * @return 插入数量
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sys_dept_closure"))
+    @Query(value = """
+            INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth)
+            SELECT up.ancestor_id, sub.descendant_id, up.depth + sub.depth + 1
+            FROM sys_dept_closure up
+            INNER JOIN sys_dept_closure sub ON sub.ancestor_id = :deptId
+            WHERE up.descendant_id = :parentId
+            """, nativeQuery = true)
+    int attachSubtree(Long deptId, Long parentId);
+
+    /**
+     * 删除部门的全部闭包关系
+     *
+     * @param deptId 部门ID
+     * @return 删除数量
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sys_dept_closure"))
+    @Query(value = "DELETE FROM sys_dept_closure WHERE descendant_id = :deptId OR ancestor_id = :deptId",
+            nativeQuery = true)
+    int deleteByDeptId(Long deptId);
+}
@@ -1,12 +1,17 @@
 package com.taichu.yingjiguanli.modules.sys.repository;
 
 import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 部门数据访问接口
@@ -41,6 +46,14 @@ public interface SysDeptRepository extends JpaRepository<SysDept, Long>, JpaSpec
     @Query("SELECT COUNT(u) FROM SysUser u WHERE u.deptId = :deptId AND u.delFlag = 0")
     long countUsersByDeptId(Long deptId);
 
+    /**
+     * 查询所有未删除部门的父子关系
+     *
+     * @return 部门ID与父部门ID列表
+     */
+    @Query("SELECT d.id AS id, d.parentId AS parentId FROM SysDept d WHERE d.delFlag = 0")
+    List<ParentLink> findAllParentLinks();
+
     /**
      * 查询部门及其所有下级部门ID
      *
@@ -48,14 +61,61 @@ public interface SysDeptRepository extends JpaRepository<SysDept, Long>, JpaSpec
      * @return 部门ID列表
      */
     @Query(value = """
-            WITH RECURSIVE dept_tree AS (
-                SELECT id FROM sys_dept WHERE id = :deptId AND del_flag = 0
-                UNION ALL
-                SELECT d.id FROM sys_dept d
-                INNER JOIN dept_tree dt ON d.parent_id = dt.id
-                WHERE d.del_flag = 0
-            )
-            SELECT id FROM dept_tree
+            SELECT c.descendant_id FROM sys_dept_closure c
+            INNER JOIN sys_dept d ON d.id = c.descendant_id
+            WHERE c.ancestor_id = :deptId AND d.del_flag = 0
             """, nativeQuery = true)
     List<Long> findDeptAndChildrenIds(Long deptId);
+
+    /**
+     * 批量查询部门名称 (使用查询缓存)
+     *
+     * @param ids 部门ID集合
+     * @return 部门ID与名称列表
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d.id AS id, d.deptName AS deptName FROM SysDept d WHERE d.id IN :ids")
+    List<DeptName> findDeptNamesByIds(Collection<Long> ids);
+
+    /**
+     * 查询部门名称 (使用查询缓存)
+     *
+     * @param id 部门ID
+     * @return 部门名称
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d.deptName FROM SysDept d WHERE d.id = :id")
+    Optional<String> findDeptNameById(Long id);
+
+    /**
+     * 部门父子关系投影
+     */
+    interface ParentLink {
+
+        /**
+         * 部门ID
+         */
+        Long getId();
+
+        /**
+         * 父部门ID
+         */
+        Long getParentId();
+    }
+
+    /**
+     * 部门名称投影
+     */
+    interface DeptName {
+
+        /**
+         * 部门ID
+         */
+        Long getId();
+
+        /**
+         * 部门名称
+         */
+        String getDeptName();
+    }
 }
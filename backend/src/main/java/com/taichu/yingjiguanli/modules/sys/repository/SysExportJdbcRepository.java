@@ -0,0 +1,132 @@
+package com.taichu.yingjiguanli.modules.sys.repository;
+
+import com.taichu.yingjiguanli.common.datascope.DataScopeCondition;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleQueryDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserQueryDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 导出 JDBC 数据访问
+ * 以游标方式逐行读取用户、角色、部门数据并交给回调处理，不创建实体、不构建结果列表
+ *
+ * <p>查询语句设置了 fetch size，MySQL 需开启 {@code useCursorFetch} 连接参数才会按批从服务端拉取，
+ * 否则驱动会一次性读取整个结果集。调用方需在事务内执行，以保证整个导出期间占用同一连接。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Repository
+public class SysExportJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserKeywordSearch userKeywordSearch;
+
+    public SysExportJdbcRepository(DataSource dataSource,
+                                   UserKeywordSearch userKeywordSearch,
+                                   @Value("${yingji.export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.userKeywordSearch = userKeywordSearch;
+    }
+
+    /**
+     * 逐行读取用户 (查询条件同用户分页查询，附加数据权限条件)
+     *
+     * @param query     查询条件
+     * @param condition 数据权限条件 (部门列 u.dept_id，用户列 u.id)
+     * @param handler   行处理回调
+     */
+    public void streamUsers(UserQueryDTO query, DataScopeCondition condition, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT u.id, u.username, u.real_name, u.phone, u.email, d.dept_name, u.status, u.create_time
+                FROM sys_user u
+                LEFT JOIN sys_dept d ON d.id = u.dept_id
+                WHERE u.del_flag = 0""");
+        Map<String, Object> params = new HashMap<>(condition.parameters());
+
+        // 查询条件
+        if (StringUtils.hasText(query.getKeyword())) {
+            sql.append(" AND ").append(userKeywordSearch.toSql("u", query.getKeyword().trim(), params));
+        }
+        if (StringUtils.hasText(query.getUsername())) {
+            sql.append(" AND ").append(userKeywordSearch.toSql("u", UserKeywordSearch.Field.USERNAME,
+                    query.getUsername().trim(), params));
+        }
+        if (StringUtils.hasText(query.getRealName())) {
+            sql.append(" AND ").append(userKeywordSearch.toSql("u", UserKeywordSearch.Field.REAL_NAME,
+                    query.getRealName().trim(), params));
+        }
+        if (StringUtils.hasText(query.getPhone())) {
+            sql.append(" AND ").append(userKeywordSearch.toSql("u", UserKeywordSearch.Field.PHONE,
+                    query.getPhone().trim(), params));
+        }
+        if (query.getDeptId() != null) {
+            sql.append(" AND u.dept_id = :deptId");
+            params.put("deptId", query.getDeptId());
+        }
+        if (query.getStatus() != null) {
+            sql.append(" AND u.status = :status");
+            params.put("status", query.getStatus());
+        }
+
+        // 数据权限
+        sql.append(condition.sql());
+        sql.append(" ORDER BY u.create_time DESC, u.id DESC");
+        jdbcTemplate.query(sql.toString(), params, handler);
+    }
+
+    /**
+     * 逐行读取角色 (查询条件同角色分页查询)
+     *
+     * @param query   查询条件
+     * @param handler 行处理回调
+     */
+    public void streamRoles(RoleQueryDTO query, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, role_name, role_code, data_scope, sort, status, remark, create_time
+                FROM sys_role
+                WHERE del_flag = 0""");
+        Map<String, Object> params = new HashMap<>();
+
+        // 查询条件
+        if (StringUtils.hasText(query.getRoleName())) {
+            sql.append(" AND role_name LIKE :roleName");
+            params.put("roleName", "%" + query.getRoleName() + "%");
+        }
+        if (StringUtils.hasText(query.getRoleCode())) {
+            sql.append(" AND role_code LIKE :roleCode");
+            params.put("roleCode", "%" + query.getRoleCode() + "%");
+        }
+        if (query.getStatus() != null) {
+            sql.append(" AND status = :status");
+            params.put("status", query.getStatus());
+        }
+
+        sql.append(" ORDER BY sort ASC, id ASC");
+        jdbcTemplate.query(sql.toString(), params, handler);
+    }
+
+    /**
+     * 逐行读取部门
+     *
+     * @param handler 行处理回调
+     */
+    public void streamDepts(RowCallbackHandler handler) {
+        jdbcTemplate.query("""
+                SELECT d.id, d.dept_name, p.dept_name AS parent_name, d.leader, d.phone, d.sort, d.status, d.create_time
+                FROM sys_dept d
+                LEFT JOIN sys_dept p ON p.id = d.parent_id
+                WHERE d.del_flag = 0
+                ORDER BY d.parent_id ASC, d.sort ASC, d.id ASC""", Map.of(), handler);
+    }
+}
@@ -1,11 +1,17 @@
 package com.taichu.yingjiguanli.modules.sys.repository;
 
 import com.taichu.yingjiguanli.modules.sys.entity.SysMenu;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,14 +30,6 @@ public interface SysMenuRepository extends JpaRepository<SysMenu, Long>, JpaSpec
      */
     List<SysMenu> findByStatusOrderBySortAsc(Integer status);
 
-    /**
-     * 根据父ID查询子菜单
-     *
-     * @param parentId 父菜单ID
-     * @return 子菜单列表
-     */
-    List<SysMenu> findByParentIdAndStatusOrderBySortAsc(Long parentId, Integer status);
-
     /**
      * 查询用户拥有的权限标识列表
      *
@@ -70,6 +68,21 @@ public interface SysMenuRepository extends JpaRepository<SysMenu, Long>, JpaSpec
             """)
     List<SysMenu> findMenusByUserId(Long userId);
 
+    /**
+     * 查询多个角色拥有的菜单ID列表 (不含按钮)
+     *
+     * @param roleIds 角色ID集合
+     * @return 菜单ID列表
+     */
+    @Query("""
+            SELECT DISTINCT m.id FROM SysMenu m
+            INNER JOIN SysRole r ON m MEMBER OF r.menus
+            WHERE r.id IN :roleIds
+            AND m.menuType != 2
+            AND m.status = 1
+            """)
+    List<Long> findMenuIdsByRoleIds(Collection<Long> roleIds);
+
     /**
      * 查询角色拥有的菜单ID列表
      *
@@ -83,6 +96,54 @@ public interface SysMenuRepository extends JpaRepository<SysMenu, Long>, JpaSpec
             """)
     List<Long> findMenuIdsByRoleId(Long roleId);
 
+    /**
+     * 查询菜单及其全部下级菜单ID (递归，不区分状态)
+     * 使用 UNION 去重，父子关系成环时递归也会终止
+     *
+     * @param menuId 菜单ID
+     * @return 菜单ID列表 (含自身，菜单不存在时为空)
+     */
+    @Query(value = """
+            WITH RECURSIVE subtree (id) AS (
+                SELECT id FROM sys_menu WHERE id = :menuId
+                UNION
+                SELECT m.id FROM sys_menu m INNER JOIN subtree s ON m.parent_id = s.id
+            )
+            SELECT id FROM subtree
+            """, nativeQuery = true)
+    List<Long> findSubtreeIds(Long menuId);
+
+    /**
+     * 批量删除菜单 (声明影响的表，只清除菜单相关的二级缓存)
+     *
+     * @param menuIds 菜单ID集合
+     * @return 删除数量
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sys_menu"))
+    @Query(value = "DELETE FROM sys_menu WHERE id IN (:menuIds)", nativeQuery = true)
+    int deleteByIdIn(Collection<Long> menuIds);
+
+    /**
+     * 批量删除菜单的角色关联 (声明影响的表，只清除角色菜单集合缓存)
+     *
+     * @param menuIds 菜单ID集合
+     * @return 删除数量
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sys_role_menu"))
+    @Query(value = "DELETE FROM sys_role_menu WHERE menu_id IN (:menuIds)", nativeQuery = true)
+    int deleteRoleMenusByMenuIds(Collection<Long> menuIds);
+
+    /**
+     * 查询存在的菜单ID (不加载实体)
+     *
+     * @param ids 菜单ID集合
+     * @return 存在的菜单ID列表
+     */
+    @Query("SELECT m.id FROM SysMenu m WHERE m.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
     /**
      * 统计子菜单数量
      *
@@ -92,10 +153,58 @@ public interface SysMenuRepository extends JpaRepository<SysMenu, Long>, JpaSpec
     long countByParentId(Long parentId);
 
     /**
-     * 查询所有菜单 (包含目录、菜单、按钮)
+     * 查询所有菜单 (包含目录、菜单、按钮，使用查询缓存)
      *
      * @return 菜单列表
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT m FROM SysMenu m ORDER BY m.sort ASC")
     List<SysMenu> findAllOrderBySort();
+
+    /**
+     * 查询所有菜单的列表行 (只选取视图对象需要的列，不加载实体，使用查询缓存)
+     *
+     * @return 菜单列表行
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            SELECT new com.taichu.yingjiguanli.modules.sys.repository.SysMenuRepository$MenuRow(
+                   m.id, m.parentId, m.menuName, m.menuType, m.path, m.component, m.permission, m.icon,
+                   m.sort, m.visible, m.status, m.createTime, m.updateTime)
+            FROM SysMenu m ORDER BY m.sort ASC
+            """)
+    List<MenuRow> findAllRowsOrderBySort();
+
+    /**
+     * 菜单列表行投影 (构造器投影，列表查询只选取视图对象需要的列，不加载实体、不进入持久化上下文)
+     *
+     * @param id         菜单ID
+     * @param parentId   父菜单ID
+     * @param menuName   菜单名称
+     * @param menuType   菜单类型
+     * @param path       路由路径
+     * @param component  组件路径
+     * @param permission 权限标识
+     * @param icon       图标
+     * @param sort       排序
+     * @param visible    是否可见
+     * @param status     状态
+     * @param createTime 创建时间
+     * @param updateTime 更新时间
+     */
+    record MenuRow(
+            Long id,
+            Long parentId,
+            String menuName,
+            Integer menuType,
+            String path,
+            String component,
+            String permission,
+            String icon,
+            Integer sort,
+            Integer visible,
+            Integer status,
+            LocalDateTime createTime,
+            LocalDateTime updateTime) {
+    }
 }
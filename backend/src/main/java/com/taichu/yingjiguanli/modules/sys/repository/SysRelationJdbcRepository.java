@@ -0,0 +1,196 @@
+package com.taichu.yingjiguanli.modules.sys.repository;
+
+import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
+import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 关联表 JDBC 数据访问
+ * 角色菜单、用户角色分配时与现有关联行比对，只批量插入新增、批量删除移除的关联，
+ * 不加载菜单/角色实体，也不会像整体替换 {@code Set} 那样先删除全部关联再重新插入
+ *
+ * <p>与 JPA 共用同一事务和连接。调用前未初始化的关联集合 (如 {@code SysRole#getMenus()})
+ * 在调用后首次访问时读取到的是最新数据，已初始化的集合不会自动刷新。</p>
+ *
+ * <p>关联有变更时清除对应的 Hibernate 集合二级缓存：写入后立即清除一次，保证本事务内读取到最新数据；
+ * 事务结束后再清除一次，丢弃提交前被其他事务以旧数据回填的缓存。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class SysRelationJdbcRepository {
+
+    /**
+     * 单条 DELETE ... IN 语句的最大ID数量
+     */
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    /**
+     * 批量插入每批数量
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * 角色菜单集合缓存
+     */
+    private static final String ROLE_MENUS = SysRole.class.getName() + ".menus";
+
+    /**
+     * 用户角色集合缓存
+     */
+    private static final String USER_ROLES = SysUser.class.getName() + ".roles";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 设置角色菜单 (差量写入)
+     *
+     * @param roleId  角色ID
+     * @param menuIds 目标菜单ID集合
+     * @return 变更数量
+     */
+    public Delta replaceRoleMenus(Long roleId, Collection<Long> menuIds) {
+        Delta delta = replace("sys_role_menu", "role_id", "menu_id", roleId, menuIds);
+        if (delta.changed()) {
+            evictCollection(ROLE_MENUS, roleId);
+        }
+        return delta;
+    }
+
+    /**
+     * 设置用户角色 (差量写入)
+     *
+     * @param userId  用户ID
+     * @param roleIds 目标角色ID集合
+     * @return 变更数量
+     */
+    public Delta replaceUserRoles(Long userId, Collection<Long> roleIds) {
+        Delta delta = replace("sys_user_role", "user_id", "role_id", userId, roleIds);
+        if (delta.changed()) {
+            evictCollection(USER_ROLES, userId);
+        }
+        return delta;
+    }
+
+    /**
+     * 为新用户批量插入用户角色关联 (用户此前无任何角色，无需比对，也不存在集合缓存)
+     *
+     * @param userRoleIds 用户ID -> 角色ID集合
+     */
+    public void batchInsertUserRoles(Map<Long, ? extends Collection<Long>> userRoleIds) {
+        List<long[]> pairs = new ArrayList<>();
+        userRoleIds.forEach((userId, roleIds) -> {
+            for (Long roleId : roleIds) {
+                pairs.add(new long[]{userId, roleId});
+            }
+        });
+        if (!pairs.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO sys_user_role (user_id, role_id) VALUES (?, ?)",
+                    pairs, INSERT_BATCH_SIZE, (ps, pair) -> {
+                        ps.setLong(1, pair[0]);
+                        ps.setLong(2, pair[1]);
+                    });
+        }
+    }
+
+    /**
+     * 清除集合二级缓存 (立即清除，并在事务结束后再次清除)
+     */
+    private void evictCollection(String role, Long ownerId) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictCollectionData(role, ownerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evictCollectionData(role, ownerId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 比对现有关联行，批量插入新增关联、批量删除移除的关联
+     */
+    private Delta replace(String table, String ownerColumn, String targetColumn,
+                          Long ownerId, Collection<Long> targetIds) {
+        // 查询现有关联
+        Set<Long> current = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT " + targetColumn + " FROM " + table + " WHERE " + ownerColumn + " = ?",
+                Long.class, ownerId));
+        Set<Long> target = targetIds != null ? new LinkedHashSet<>(targetIds) : Collections.emptySet();
+
+        // 计算差量
+        List<Long> toAdd = new ArrayList<>();
+        for (Long id : target) {
+            if (!current.contains(id)) {
+                toAdd.add(id);
+            }
+        }
+        List<Long> toRemove = new ArrayList<>();
+        for (Long id : current) {
+            if (!target.contains(id)) {
+                toRemove.add(id);
+            }
+        }
+
+        // 批量删除移除的关联
+        for (int from = 0; from < toRemove.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = toRemove.subList(from, Math.min(from + DELETE_CHUNK_SIZE, toRemove.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(ownerId);
+            args.addAll(chunk);
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE " + ownerColumn + " = ? AND " + targetColumn
+                    + " IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", args.toArray());
+        }
+
+        // 批量插入新增的关联
+        if (!toAdd.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + ownerColumn + ", " + targetColumn + ") VALUES (?, ?)",
+                    toAdd, INSERT_BATCH_SIZE, (ps, id) -> {
+                        ps.setLong(1, ownerId);
+                        ps.setLong(2, id);
+                    });
+        }
+
+        log.debug("关联表差量写入: table={}, {}={}, added={}, removed={}",
+                table, ownerColumn, ownerId, toAdd.size(), toRemove.size());
+        return new Delta(toAdd.size(), toRemove.size());
+    }
+
+    /**
+     * 关联变更数量
+     *
+     * @param added   新增数量
+     * @param removed 删除数量
+     */
+    public record Delta(int added, int removed) {
+
+        /**
+         * 是否有变更
+         */
+        public boolean changed() {
+            return added > 0 || removed > 0;
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.taichu.yingjiguanli.modules.sys.repository;
 
 import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,10 +25,11 @@ import java.util.Optional;
 public interface SysRoleRepository extends JpaRepository<SysRole, Long>, JpaSpecificationExecutor<SysRole> {
 
     /**
-     * 查询所有未删除的角色
+     * 查询所有未删除的角色 (使用查询缓存)
      *
      * @return 角色列表
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SysRole> findByDelFlagOrderBySortAsc(Integer delFlag);
 
     /**
@@ -42,6 +48,15 @@ public interface SysRoleRepository extends JpaRepository<SysRole, Long>, JpaSpec
      */
     boolean existsByRoleCodeAndDelFlag(String roleCode, Integer delFlag);
 
+    /**
+     * 检查角色是否存在 (不加载实体)
+     *
+     * @param id      角色ID
+     * @param delFlag 删除标志
+     * @return 是否存在
+     */
+    boolean existsByIdAndDelFlag(Long id, Integer delFlag);
+
     /**
      * 检查角色编码是否存在 (排除指定ID)
      *
@@ -87,4 +102,38 @@ public interface SysRoleRepository extends JpaRepository<SysRole, Long>, JpaSpec
     @Modifying
     @Query("UPDATE SysRole r SET r.delFlag = 1 WHERE r.id = :id")
     int softDelete(Long id);
+
+    /**
+     * 查询存在的角色ID (不加载实体)
+     *
+     * @param ids 角色ID集合
+     * @return 存在的角色ID列表
+     */
+    @Query("SELECT r.id FROM SysRole r WHERE r.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * 角色列表行投影 (构造器投影，列表查询只选取视图对象需要的列，不加载实体、不进入持久化上下文)
+     *
+     * @param id         角色ID
+     * @param roleName   角色名称
+     * @param roleCode   角色编码
+     * @param dataScope  数据权限范围
+     * @param sort       排序
+     * @param status     状态
+     * @param remark     备注
+     * @param createTime 创建时间
+     * @param updateTime 更新时间
+     */
+    record RoleRow(
+            Long id,
+            String roleName,
+            String roleCode,
+            Integer dataScope,
+            Integer sort,
+            Integer status,
+            String remark,
+            LocalDateTime createTime,
+            LocalDateTime updateTime) {
+    }
 }
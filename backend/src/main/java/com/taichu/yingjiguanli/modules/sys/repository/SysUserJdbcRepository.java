@@ -0,0 +1,102 @@
+package com.taichu.yingjiguanli.modules.sys.repository;
+
+import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户表 JDBC 数据访问
+ * 用于批量导入：按批次检查用户名是否已存在、以 JDBC 批处理插入用户，不经过实体持久化上下文
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Repository
+@RequiredArgsConstructor
+public class SysUserJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 查询已存在的用户名 (含已删除用户，与唯一索引 uk_username 一致)
+     *
+     * @param usernames 用户名集合
+     * @return 已存在的用户名
+     */
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT username FROM sys_user WHERE username IN (" + placeholders(usernames.size()) + ")",
+                String.class, usernames.toArray()));
+    }
+
+    /**
+     * 查询用户名对应的用户ID
+     *
+     * @param usernames 用户名集合
+     * @return 用户名 -> 用户ID
+     */
+    public Map<String, Long> findIdsByUsernames(Collection<String> usernames) {
+        Map<String, Long> result = new HashMap<>(usernames.size() * 2);
+        if (usernames.isEmpty()) {
+            return result;
+        }
+        jdbcTemplate.query("SELECT id, username FROM sys_user WHERE username IN (" + placeholders(usernames.size()) + ")",
+                rs -> {
+                    result.put(rs.getString("username"), rs.getLong("id"));
+                }, usernames.toArray());
+        return result;
+    }
+
+    /**
+     * 批量插入用户 (密码需已加密)
+     *
+     * @param users     用户列表
+     * @param batchSize 每批数量
+     */
+    public void batchInsert(List<SysUser> users, int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO sys_user (username, password, real_name, phone, email, avatar, dept_id,
+                                              status, del_flag, create_time, update_time)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)
+                        """,
+                users, batchSize, (ps, user) -> {
+                    ps.setString(1, user.getUsername());
+                    ps.setString(2, user.getPassword());
+                    ps.setString(3, user.getRealName());
+                    ps.setString(4, user.getPhone());
+                    ps.setString(5, user.getEmail());
+                    ps.setString(6, user.getAvatar());
+                    if (user.getDeptId() != null) {
+                        ps.setLong(7, user.getDeptId());
+                    } else {
+                        ps.setNull(7, Types.BIGINT);
+                    }
+                    ps.setInt(8, user.getStatus());
+                    ps.setTimestamp(9, now);
+                    ps.setTimestamp(10, now);
+                });
+    }
+
+    /**
+     * 生成 IN 子句占位符
+     */
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
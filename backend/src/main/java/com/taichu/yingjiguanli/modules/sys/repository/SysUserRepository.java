@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -43,6 +45,15 @@ public interface SysUserRepository extends JpaRepository<SysUser, Long>, JpaSpec
      */
     boolean existsByUsernameAndDelFlag(String username, Integer delFlag);
 
+    /**
+     * 检查用户是否存在 (不加载实体)
+     *
+     * @param id      用户ID
+     * @param delFlag 删除标志
+     * @return 是否存在
+     */
+    boolean existsByIdAndDelFlag(Long id, Integer delFlag);
+
     /**
      * 检查用户名是否存在 (排除指定ID)
      *
@@ -53,6 +64,15 @@ public interface SysUserRepository extends JpaRepository<SysUser, Long>, JpaSpec
     @Query("SELECT COUNT(u) > 0 FROM SysUser u WHERE u.username = :username AND u.id != :id AND u.delFlag = 0")
     boolean existsByUsernameAndIdNot(String username, Long id);
 
+    /**
+     * 查询拥有指定角色的用户ID列表
+     *
+     * @param roleId 角色ID
+     * @return 用户ID列表
+     */
+    @Query("SELECT u.id FROM SysUser u JOIN u.roles r WHERE r.id = :roleId")
+    List<Long> findUserIdsByRoleId(Long roleId);
+
     /**
      * 更新用户状态
      *
@@ -84,4 +104,81 @@ public interface SysUserRepository extends JpaRepository<SysUser, Long>, JpaSpec
     @Modifying
     @Query("UPDATE SysUser u SET u.delFlag = 1 WHERE u.id = :id")
     int softDelete(Long id);
+
+    /**
+     * 查询用户基本信息及部门名称 (单条 SQL 关联部门表)
+     *
+     * @param userId 用户ID
+     * @return 用户基本信息
+     */
+    @Query("""
+            SELECT u.id AS id, u.username AS username, u.realName AS realName, u.avatar AS avatar,
+                   u.deptId AS deptId, d.deptName AS deptName
+            FROM SysUser u LEFT JOIN SysDept d ON d.id = u.deptId
+            WHERE u.id = :userId
+            """)
+    Optional<UserProfile> findProfileById(Long userId);
+
+    /**
+     * 用户基本信息投影
+     */
+    interface UserProfile {
+
+        /**
+         * 用户ID
+         */
+        Long getId();
+
+        /**
+         * 用户名
+         */
+        String getUsername();
+
+        /**
+         * 真实姓名
+         */
+        String getRealName();
+
+        /**
+         * 头像
+         */
+        String getAvatar();
+
+        /**
+         * 部门ID
+         */
+        Long getDeptId();
+
+        /**
+         * 部门名称
+         */
+        String getDeptName();
+    }
+
+    /**
+     * 用户列表行投影 (构造器投影，列表查询只选取视图对象需要的列，不加载实体、不进入持久化上下文)
+     *
+     * @param id         用户ID
+     * @param username   用户名
+     * @param realName   真实姓名
+     * @param phone      手机号
+     * @param email      邮箱
+     * @param avatar     头像
+     * @param deptId     部门ID
+     * @param status     状态
+     * @param createTime 创建时间
+     * @param updateTime 更新时间
+     */
+    record UserRow(
+            Long id,
+            String username,
+            String realName,
+            String phone,
+            String email,
+            String avatar,
+            Long deptId,
+            Integer status,
+            LocalDateTime createTime,
+            LocalDateTime updateTime) {
+    }
 }
@@ -0,0 +1,180 @@
+package com.taichu.yingjiguanli.modules.sys.repository;
+
+import com.taichu.yingjiguanli.config.FullTextFunctionContributor;
+import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 用户关键词检索条件
+ * 关键词同时匹配用户名、真实姓名、手机号中的任意子串，优先使用 n-gram 全文索引
+ * ({@code ft_username_real_name_phone})，以短语方式检索，命中结果与子串匹配一致
+ *
+ * <p>按单个字段检索时，先以全文索引定位三个字段中包含关键词的行，再以该字段的 LIKE 条件过滤，
+ * LIKE 只作用于全文索引命中的行，不再扫描全表。</p>
+ *
+ * <p>关键词短于 n-gram 词元长度 (如单个汉字) 时全文索引无法保证命中词尾，
+ * 以及未启用全文检索 (非 MySQL 数据库) 时，回退为 LIKE 子串匹配。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Component
+public class UserKeywordSearch {
+
+    /**
+     * 原生 SQL 关键词参数名
+     */
+    public static final String PARAM_KEYWORD = "keyword";
+
+    private final boolean fulltext;
+    private final int ngramTokenSize;
+
+    public UserKeywordSearch(@Value("${yingji.user-search.fulltext:true}") boolean fulltext,
+                             @Value("${yingji.user-search.ngram-token-size:2}") int ngramTokenSize) {
+        this.fulltext = fulltext;
+        this.ngramTokenSize = ngramTokenSize;
+        log.info("用户关键词检索: fulltext={}, ngramTokenSize={}", fulltext, ngramTokenSize);
+    }
+
+    /**
+     * 构建 Criteria 检索条件 (匹配任一字段)
+     *
+     * @param root    用户实体根
+     * @param cb      条件构建器
+     * @param keyword 关键词 (非空)
+     * @return 检索条件
+     */
+    public Predicate toPredicate(Root<SysUser> root, CriteriaBuilder cb, String keyword) {
+        if (useFulltext(keyword)) {
+            return matchPredicate(root, cb, keyword);
+        }
+        String pattern = "%" + keyword + "%";
+        return cb.or(
+                cb.like(root.get(Field.USERNAME.attribute), pattern),
+                cb.like(root.get(Field.REAL_NAME.attribute), pattern),
+                cb.like(root.get(Field.PHONE.attribute), pattern));
+    }
+
+    /**
+     * 构建 Criteria 检索条件 (匹配指定字段)
+     *
+     * @param root    用户实体根
+     * @param cb      条件构建器
+     * @param field   检索字段
+     * @param keyword 关键词 (非空)
+     * @return 检索条件
+     */
+    public Predicate toPredicate(Root<SysUser> root, CriteriaBuilder cb, Field field, String keyword) {
+        Predicate like = cb.like(root.get(field.attribute), "%" + keyword + "%");
+        return useFulltext(keyword) ? cb.and(matchPredicate(root, cb, keyword), like) : like;
+    }
+
+    /**
+     * 构建原生 SQL 检索条件 (匹配任一字段，参数名 {@link #PARAM_KEYWORD})
+     *
+     * @param alias   用户表别名
+     * @param keyword 关键词 (非空)
+     * @param params  命名参数 (写入关键词参数)
+     * @return SQL 条件片段
+     */
+    public String toSql(String alias, String keyword, Map<String, Object> params) {
+        if (useFulltext(keyword)) {
+            params.put(PARAM_KEYWORD, phrase(keyword));
+            return matchSql(alias, PARAM_KEYWORD);
+        }
+        params.put(PARAM_KEYWORD, "%" + keyword + "%");
+        return "(" + alias + ".username LIKE :" + PARAM_KEYWORD + " OR " + alias + ".real_name LIKE :" + PARAM_KEYWORD
+                + " OR " + alias + ".phone LIKE :" + PARAM_KEYWORD + ")";
+    }
+
+    /**
+     * 构建原生 SQL 检索条件 (匹配指定字段，参数名为字段属性名及其加 Phrase 后缀)
+     *
+     * @param alias   用户表别名
+     * @param field   检索字段
+     * @param keyword 关键词 (非空)
+     * @param params  命名参数 (写入关键词参数)
+     * @return SQL 条件片段
+     */
+    public String toSql(String alias, Field field, String keyword, Map<String, Object> params) {
+        params.put(field.attribute, "%" + keyword + "%");
+        String like = alias + "." + field.column + " LIKE :" + field.attribute;
+        if (!useFulltext(keyword)) {
+            return like;
+        }
+        String phraseParam = field.attribute + "Phrase";
+        params.put(phraseParam, phrase(keyword));
+        return matchSql(alias, phraseParam) + " AND " + like;
+    }
+
+    /**
+     * 全文索引 Criteria 条件
+     * 检索串以绑定参数传入 ({@link HibernateCriteriaBuilder#value(Object)})，不内联到 SQL 文本，
+     * 不同关键词生成相同的语句，可复用预编译语句和查询计划缓存
+     */
+    private static Predicate matchPredicate(Root<SysUser> root, CriteriaBuilder cb, String keyword) {
+        Expression<String> against = ((HibernateCriteriaBuilder) cb).value(phrase(keyword));
+        Expression<Double> score = cb.function(FullTextFunctionContributor.MATCH_AGAINST, Double.class,
+                root.get(Field.USERNAME.attribute), root.get(Field.REAL_NAME.attribute),
+                root.get(Field.PHONE.attribute), against);
+        return cb.greaterThan(score, 0.0);
+    }
+
+    /**
+     * 全文索引 SQL 条件
+     */
+    private static String matchSql(String alias, String param) {
+        return "MATCH(" + alias + ".username, " + alias + ".real_name, " + alias + ".phone) AGAINST(:"
+                + param + " IN BOOLEAN MODE)";
+    }
+
+    /**
+     * 是否使用全文索引
+     */
+    private boolean useFulltext(String keyword) {
+        return fulltext && keyword.codePointCount(0, keyword.length()) >= ngramTokenSize
+                && !keyword.replace('"', ' ').isBlank();
+    }
+
+    /**
+     * 转换为布尔模式短语 (去除双引号，避免被解析为运算符)
+     */
+    private static String phrase(String keyword) {
+        return "\"" + keyword.replace('"', ' ') + "\"";
+    }
+
+    /**
+     * 检索字段 (均包含在全文索引中)
+     */
+    public enum Field {
+
+        USERNAME("username", "username"),
+        REAL_NAME("realName", "real_name"),
+        PHONE("phone", "phone");
+
+        /**
+         * 实体属性名
+         */
+        private final String attribute;
+
+        /**
+         * 数据库列名
+         */
+        private final String column;
+
+        Field(String attribute, String column) {
+            this.attribute = attribute;
+            this.column = column;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.taichu.yingjiguanli.modules.sys.service;
 
+import com.taichu.yingjiguanli.common.export.ExportWriter;
 import com.taichu.yingjiguanli.modules.sys.dto.DeptCreateDTO;
 import com.taichu.yingjiguanli.modules.sys.dto.DeptUpdateDTO;
 import com.taichu.yingjiguanli.modules.sys.vo.DeptVO;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,21 +50,36 @@ public interface SysDeptService {
     Optional<DeptVO> findById(Long id);
 
     /**
-     * 查询部门树
+     * 查询部门树 (读取内存快照)
      *
-     * @return 部门树
+     * @return 部门树 (共享只读对象，不得修改)
      */
     List<DeptVO> findTree();
 
     /**
-     * 查询所有部门列表 (平铺)
+     * 查询部门树 (预序列化的 JSON)
      *
-     * @return 部门列表
+     * @return 部门树 JSON 数组
+     */
+    String findTreeJson();
+
+    /**
+     * 查询所有部门列表 (平铺，读取内存快照)
+     *
+     * @return 部门列表 (共享只读对象，不得修改)
      */
     List<DeptVO> findAll();
 
     /**
-     * 获取部门及其所有下级部门ID列表
+     * 导出部门 (逐行写出)
+     *
+     * @param writer 导出写入器
+     * @throws IOException 写入失败
+     */
+    void export(ExportWriter writer) throws IOException;
+
+    /**
+     * 获取部门及其所有下级部门ID列表 (查询闭包表，数据权限等高频路径使用内存层级索引)
      *
      * @param deptId 部门ID
      * @return 部门ID列表
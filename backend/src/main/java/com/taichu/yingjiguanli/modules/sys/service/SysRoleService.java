@@ -1,10 +1,12 @@
 package com.taichu.yingjiguanli.modules.sys.service;
 
+import com.taichu.yingjiguanli.common.export.ExportWriter;
 import com.taichu.yingjiguanli.modules.sys.dto.*;
 import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
 import com.taichu.yingjiguanli.modules.sys.vo.RoleVO;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,6 +58,15 @@ public interface SysRoleService {
      */
     Page<RoleVO> findPage(RoleQueryDTO query);
 
+    /**
+     * 导出角色 (查询条件同分页查询，逐行写出)
+     *
+     * @param query  查询条件
+     * @param writer 导出写入器
+     * @throws IOException 写入失败
+     */
+    void export(RoleQueryDTO query, ExportWriter writer) throws IOException;
+
     /**
      * 查询所有角色 (下拉选择用)
      *
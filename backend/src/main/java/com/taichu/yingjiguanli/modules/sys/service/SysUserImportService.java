@@ -0,0 +1,31 @@
+package com.taichu.yingjiguanli.modules.sys.service;
+
+import com.taichu.yingjiguanli.modules.sys.vo.UserImportJobVO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+
+/**
+ * 用户批量导入服务接口
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public interface SysUserImportService {
+
+    /**
+     * 提交导入任务 (异步执行)
+     *
+     * @param file 导入文件 (CSV 或 JSON Lines)
+     * @return 导入任务
+     */
+    UserImportJobVO submit(MultipartFile file);
+
+    /**
+     * 查询导入任务进度
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    Optional<UserImportJobVO> findJob(String jobId);
+}
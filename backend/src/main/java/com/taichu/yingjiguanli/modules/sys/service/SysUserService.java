@@ -1,10 +1,13 @@
 package com.taichu.yingjiguanli.modules.sys.service;
 
+import com.taichu.yingjiguanli.common.export.ExportWriter;
+import com.taichu.yingjiguanli.common.page.CursorPage;
 import com.taichu.yingjiguanli.modules.sys.dto.*;
 import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
 import com.taichu.yingjiguanli.modules.sys.vo.UserVO;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
 import java.util.Optional;
 
 /**
@@ -55,6 +58,23 @@ public interface SysUserService {
      */
     Page<UserVO> findPage(UserQueryDTO query);
 
+    /**
+     * 游标分页查询用户 (按创建时间倒序)
+     *
+     * @param query 查询条件 (cursor 为上一页返回的游标)
+     * @return 游标分页结果
+     */
+    CursorPage<UserVO> findCursorPage(UserQueryDTO query);
+
+    /**
+     * 导出用户 (查询条件同分页查询，按数据权限过滤，逐行写出)
+     *
+     * @param query  查询条件
+     * @param writer 导出写入器
+     * @throws IOException 写入失败
+     */
+    void export(UserQueryDTO query, ExportWriter writer) throws IOException;
+
     /**
      * 重置密码
      *
@@ -1,20 +1,27 @@
 package com.taichu.yingjiguanli.modules.sys.service.impl;
 
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
 import com.taichu.yingjiguanli.modules.sys.dto.DeptCreateDTO;
 import com.taichu.yingjiguanli.modules.sys.dto.DeptUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.cache.DeptTreeCache;
 import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
+import com.taichu.yingjiguanli.modules.sys.event.DeptChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.repository.SysDeptClosureRepository;
 import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysExportJdbcRepository;
 import com.taichu.yingjiguanli.modules.sys.service.SysDeptService;
 import com.taichu.yingjiguanli.modules.sys.vo.DeptVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 部门服务实现
@@ -28,6 +35,10 @@ import java.util.stream.Collectors;
 public class SysDeptServiceImpl implements SysDeptService {
 
     private final SysDeptRepository deptRepository;
+    private final SysDeptClosureRepository deptClosureRepository;
+    private final DeptTreeCache deptTreeCache;
+    private final SysExportJdbcRepository exportJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -54,9 +65,13 @@ public class SysDeptServiceImpl implements SysDeptService {
 
         // 保存部门
         SysDept savedDept = deptRepository.save(dept);
+
+        // 维护闭包关系
+        deptClosureRepository.insertForNewDept(savedDept.getId(), savedDept.getParentId());
+        eventPublisher.publishEvent(DeptChangedEvent.saved(savedDept.getId(), savedDept.getParentId()));
         log.info("部门创建成功: id={}", savedDept.getId());
 
-        return convertToVO(savedDept);
+        return DeptVO.from(savedDept);
     }
 
     @Override
@@ -73,14 +88,15 @@ public class SysDeptServiceImpl implements SysDeptService {
         }
 
         // 更新属性
+        Long oldParentId = dept.getParentId();
         if (dto.getParentId() != null) {
             // 验证不能将自己设为父部门
             if (dto.getParentId().equals(id)) {
                 throw new BusinessException("不能将自己设为父部门");
             }
-            // 验证不能将子部门设为父部门
-            List<Long> childrenIds = deptRepository.findDeptAndChildrenIds(id);
-            if (childrenIds.contains(dto.getParentId())) {
+            // 验证不能将子部门设为父部门 (以事务内加锁读取的闭包表为准，内存层级索引可能尚未同步其他节点的变更)
+            if (!dto.getParentId().equals(oldParentId)
+                    && !deptClosureRepository.findDepthForUpdate(id, dto.getParentId()).isEmpty()) {
                 throw new BusinessException("不能将子部门设为父部门");
             }
             // 验证父部门存在
@@ -111,9 +127,17 @@ public class SysDeptServiceImpl implements SysDeptService {
 
         // 保存部门
         SysDept savedDept = deptRepository.save(dept);
+
+        // 父部门变化时移动子树的闭包关系
+        if (!Objects.equals(oldParentId, savedDept.getParentId())) {
+            deptClosureRepository.detachSubtree(id);
+            deptClosureRepository.attachSubtree(id, savedDept.getParentId());
+            log.info("部门移动: id={}, parentId {} -> {}", id, oldParentId, savedDept.getParentId());
+        }
+        eventPublisher.publishEvent(DeptChangedEvent.saved(id, savedDept.getParentId()));
         log.info("部门更新成功: id={}", id);
 
-        return convertToVO(savedDept);
+        return DeptVO.from(savedDept);
     }
 
     @Override
@@ -144,6 +168,8 @@ public class SysDeptServiceImpl implements SysDeptService {
         // 软删除
         dept.setDelFlag(1);
         deptRepository.save(dept);
+        deptClosureRepository.deleteByDeptId(id);
+        eventPublisher.publishEvent(DeptChangedEvent.deleted(id));
         log.info("部门删除成功: id={}", id);
     }
 
@@ -151,79 +177,47 @@ public class SysDeptServiceImpl implements SysDeptService {
     public Optional<DeptVO> findById(Long id) {
         return deptRepository.findById(id)
                 .filter(dept -> dept.getDelFlag() == 0)
-                .map(this::convertToVO);
+                .map(DeptVO::from);
     }
 
     @Override
     public List<DeptVO> findTree() {
-        // 查询所有未删除的部门
-        List<SysDept> allDepts = deptRepository.findByDelFlagOrderBySortAsc(0);
-
-        // 转换为 VO
-        List<DeptVO> allVOs = allDepts.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
-
-        // 构建树形结构
-        return buildTree(allVOs, 0L);
+        return deptTreeCache.getTree();
     }
 
     @Override
-    public List<DeptVO> findAll() {
-        List<SysDept> allDepts = deptRepository.findByDelFlagOrderBySortAsc(0);
-        return allDepts.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
+    public String findTreeJson() {
+        return deptTreeCache.getTreeJson();
     }
 
     @Override
-    public List<Long> findDeptAndChildrenIds(Long deptId) {
-        return deptRepository.findDeptAndChildrenIds(deptId);
+    public List<DeptVO> findAll() {
+        return deptTreeCache.getList();
     }
 
-    /**
-     * 构建部门树
-     *
-     * @param allDepts 所有部门列表
-     * @param parentId 父部门ID
-     * @return 树形部门列表
-     */
-    private List<DeptVO> buildTree(List<DeptVO> allDepts, Long parentId) {
-        List<DeptVO> result = new ArrayList<>();
-
-        for (DeptVO dept : allDepts) {
-            if (Objects.equals(dept.getParentId(), parentId)) {
-                // 递归获取子部门
-                List<DeptVO> children = buildTree(allDepts, dept.getId());
-                dept.setChildren(children);
-                result.add(dept);
-            }
+    @Override
+    @Transactional(readOnly = true)
+    public void export(ExportWriter writer) throws IOException {
+        log.info("导出部门");
+
+        writer.writeRow("部门ID", "部门名称", "上级部门", "负责人", "联系电话", "排序", "状态", "创建时间");
+        try {
+            exportJdbcRepository.streamDepts(rs -> {
+                try {
+                    writer.writeRow(rs.getLong("id"), rs.getString("dept_name"), rs.getString("parent_name"),
+                            rs.getString("leader"), rs.getString("phone"), rs.getInt("sort"),
+                            rs.getInt("status") == 1 ? "启用" : "禁用", rs.getTimestamp("create_time"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-
-        // 按 sort 排序
-        result.sort(Comparator.comparingInt(d -> d.getSort() != null ? d.getSort() : 0));
-
-        return result;
     }
 
-    /**
-     * 将部门实体转换为视图对象
-     *
-     * @param dept 部门实体
-     * @return 部门视图对象
-     */
-    private DeptVO convertToVO(SysDept dept) {
-        DeptVO vo = new DeptVO();
-        vo.setId(dept.getId());
-        vo.setParentId(dept.getParentId());
-        vo.setDeptName(dept.getDeptName());
-        vo.setLeader(dept.getLeader());
-        vo.setPhone(dept.getPhone());
-        vo.setSort(dept.getSort());
-        vo.setStatus(dept.getStatus());
-        vo.setCreatedAt(dept.getCreateTime());
-        vo.setUpdatedAt(dept.getUpdateTime());
-        vo.setChildren(new ArrayList<>());
-        return vo;
+    @Override
+    public List<Long> findDeptAndChildrenIds(Long deptId) {
+        return deptRepository.findDeptAndChildrenIds(deptId);
     }
 }
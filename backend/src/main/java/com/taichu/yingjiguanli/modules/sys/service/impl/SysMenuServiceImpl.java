@@ -1,14 +1,18 @@
 package com.taichu.yingjiguanli.modules.sys.service.impl;
 
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.util.TreeBuilder;
 import com.taichu.yingjiguanli.modules.sys.dto.MenuCreateDTO;
 import com.taichu.yingjiguanli.modules.sys.dto.MenuUpdateDTO;
 import com.taichu.yingjiguanli.modules.sys.entity.SysMenu;
+import com.taichu.yingjiguanli.modules.sys.event.MenuChangedEvent;
 import com.taichu.yingjiguanli.modules.sys.repository.SysMenuRepository;
 import com.taichu.yingjiguanli.modules.sys.service.SysMenuService;
 import com.taichu.yingjiguanli.modules.sys.vo.MenuVO;
+import com.taichu.yingjiguanli.security.AuthorizationChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -28,6 +32,7 @@ import java.util.stream.Collectors;
 public class SysMenuServiceImpl implements SysMenuService {
 
     private final SysMenuRepository menuRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -55,6 +60,7 @@ public class SysMenuServiceImpl implements SysMenuService {
 
         // 保存菜单
         SysMenu savedMenu = menuRepository.save(menu);
+        eventPublisher.publishEvent(new MenuChangedEvent(savedMenu.getId()));
         log.info("菜单创建成功: id={}", savedMenu.getId());
 
         return convertToVO(savedMenu);
@@ -112,6 +118,8 @@ public class SysMenuServiceImpl implements SysMenuService {
 
         // 保存菜单
         SysMenu savedMenu = menuRepository.save(menu);
+        eventPublisher.publishEvent(new MenuChangedEvent(id));
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofAll());
         log.info("菜单更新成功: id={}", id);
 
         return convertToVO(savedMenu);
@@ -123,31 +131,20 @@ public class SysMenuServiceImpl implements SysMenuService {
         log.info("删除菜单: id={}", id);
 
         // 检查菜单是否存在
-        SysMenu menu = menuRepository.findById(id)
-                .orElseThrow(() -> new BusinessException(404, "菜单不存在"));
+        if (!menuRepository.existsById(id)) {
+            throw new BusinessException(404, "菜单不存在");
+        }
 
-        // 级联删除子菜单
-        deleteChildrenRecursive(id);
+        // 一次递归查询收集整棵子树 (含停用的子菜单)
+        List<Long> menuIds = menuRepository.findSubtreeIds(id);
 
-        // 删除当前菜单
-        menuRepository.delete(menu);
-        log.info("菜单删除成功: id={}", id);
-    }
+        // 批量删除角色菜单关联和菜单
+        int roleMenuCount = menuRepository.deleteRoleMenusByMenuIds(menuIds);
+        int menuCount = menuRepository.deleteByIdIn(menuIds);
 
-    /**
-     * 递归删除子菜单
-     *
-     * @param parentId 父菜单ID
-     */
-    private void deleteChildrenRecursive(Long parentId) {
-        List<SysMenu> children = menuRepository.findByParentIdAndStatusOrderBySortAsc(parentId, 1);
-        for (SysMenu child : children) {
-            // 先删除子节点的子节点
-            deleteChildrenRecursive(child.getId());
-            // 再删除子节点
-            menuRepository.delete(child);
-            log.info("删除子菜单: id={}", child.getId());
-        }
+        eventPublisher.publishEvent(new MenuChangedEvent(id));
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofAll());
+        log.info("菜单删除成功: id={}, 删除菜单{}个, 删除角色关联{}条", id, menuCount, roleMenuCount);
     }
 
     @Override
@@ -156,9 +153,10 @@ public class SysMenuServiceImpl implements SysMenuService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MenuVO> findTree() {
-        // 查询所有菜单
-        List<SysMenu> allMenus = menuRepository.findAllOrderBySort();
+        // 查询所有菜单 (只选取列表需要的列)
+        List<SysMenuRepository.MenuRow> allMenus = menuRepository.findAllRowsOrderBySort();
 
         // 转换为 VO
         List<MenuVO> allVOs = allMenus.stream()
@@ -170,8 +168,9 @@ public class SysMenuServiceImpl implements SysMenuService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MenuVO> findAll() {
-        List<SysMenu> allMenus = menuRepository.findAllOrderBySort();
+        List<SysMenuRepository.MenuRow> allMenus = menuRepository.findAllRowsOrderBySort();
         return allMenus.stream()
                 .map(this::convertToVO)
                 .collect(Collectors.toList());
@@ -204,21 +203,34 @@ public class SysMenuServiceImpl implements SysMenuService {
      * @return 树形菜单列表
      */
     private List<MenuVO> buildTree(List<MenuVO> allMenus, Long parentId) {
-        List<MenuVO> result = new ArrayList<>();
-
-        for (MenuVO menu : allMenus) {
-            if (Objects.equals(menu.getParentId(), parentId)) {
-                // 递归获取子菜单
-                List<MenuVO> children = buildTree(allMenus, menu.getId());
-                menu.setChildren(children);
-                result.add(menu);
-            }
-        }
-
-        // 按 sort 排序
-        result.sort(Comparator.comparingInt(m -> m.getSort() != null ? m.getSort() : 0));
+        return TreeBuilder.build(allMenus, parentId, MenuVO::getId, MenuVO::getParentId,
+                m -> m.getSort() != null ? m.getSort() : 0, MenuVO::setChildren);
+    }
 
-        return result;
+    /**
+     * 将菜单列表行转换为视图对象
+     *
+     * @param row 菜单列表行
+     * @return 菜单视图对象
+     */
+    private MenuVO convertToVO(SysMenuRepository.MenuRow row) {
+        MenuVO vo = new MenuVO();
+        vo.setId(row.id());
+        vo.setParentId(row.parentId());
+        vo.setMenuName(row.menuName());
+        vo.setMenuType(row.menuType());
+        vo.setMenuTypeDesc(MenuVO.getMenuTypeDesc(row.menuType()));
+        vo.setPath(row.path());
+        vo.setComponent(row.component());
+        vo.setPermission(row.permission());
+        vo.setIcon(row.icon());
+        vo.setSort(row.sort());
+        vo.setVisible(row.visible());
+        vo.setStatus(row.status());
+        vo.setCreatedAt(row.createTime());
+        vo.setUpdatedAt(row.updateTime());
+        vo.setChildren(new ArrayList<>());
+        return vo;
     }
 
     /**
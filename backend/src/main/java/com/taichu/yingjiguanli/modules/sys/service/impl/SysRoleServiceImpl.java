@@ -1,26 +1,38 @@
 package com.taichu.yingjiguanli.modules.sys.service.impl;
 
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
+import com.taichu.yingjiguanli.common.page.PageCountCache;
+import com.taichu.yingjiguanli.common.page.TableChangedEvent;
 import com.taichu.yingjiguanli.modules.sys.dto.*;
 import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
 import com.taichu.yingjiguanli.modules.sys.entity.SysMenu;
 import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
+import com.taichu.yingjiguanli.modules.sys.event.RoleMenuChangedEvent;
 import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysExportJdbcRepository;
 import com.taichu.yingjiguanli.modules.sys.repository.SysMenuRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysRelationJdbcRepository;
 import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysUserRepository;
 import com.taichu.yingjiguanli.modules.sys.service.SysRoleService;
 import com.taichu.yingjiguanli.modules.sys.vo.RoleVO;
+import com.taichu.yingjiguanli.security.AuthorizationChangedEvent;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -35,9 +47,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SysRoleServiceImpl implements SysRoleService {
 
+    /**
+     * 角色表名 (分页总条数缓存)
+     */
+    private static final String TABLE = "sys_role";
+
     private final SysRoleRepository roleRepository;
     private final SysMenuRepository menuRepository;
     private final SysDeptRepository deptRepository;
+    private final SysExportJdbcRepository exportJdbcRepository;
+    private final SysUserRepository userRepository;
+    private final SysRelationJdbcRepository relationJdbcRepository;
+    private final PageCountCache pageCountCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -59,12 +81,6 @@ public class SysRoleServiceImpl implements SysRoleService {
         role.setRemark(dto.getRemark());
         role.setDelFlag(0);
 
-        // 设置菜单
-        if (dto.getMenuIds() != null && !dto.getMenuIds().isEmpty()) {
-            Set<SysMenu> menus = new HashSet<>(menuRepository.findAllById(dto.getMenuIds()));
-            role.setMenus(menus);
-        }
-
         // 设置数据权限部门 (自定义模式)
         if (dto.getDataScope() != null && dto.getDataScope() == 5
                 && dto.getDeptIds() != null && !dto.getDeptIds().isEmpty()) {
@@ -74,6 +90,12 @@ public class SysRoleServiceImpl implements SysRoleService {
 
         // 保存角色
         SysRole savedRole = roleRepository.save(role);
+
+        // 设置菜单 (直接写入关联表)
+        if (dto.getMenuIds() != null && !dto.getMenuIds().isEmpty()) {
+            relationJdbcRepository.replaceRoleMenus(savedRole.getId(), existingMenuIds(dto.getMenuIds()));
+        }
+        eventPublisher.publishEvent(new TableChangedEvent(TABLE));
         log.info("角色创建成功: id={}", savedRole.getId());
 
         return convertToVO(savedRole);
@@ -111,10 +133,10 @@ public class SysRoleServiceImpl implements SysRoleService {
             role.setRemark(dto.getRemark());
         }
 
-        // 更新菜单
-        if (dto.getMenuIds() != null) {
-            Set<SysMenu> menus = new HashSet<>(menuRepository.findAllById(dto.getMenuIds()));
-            role.setMenus(menus);
+        // 更新菜单 (与现有关联比对后差量写入)
+        if (dto.getMenuIds() != null
+                && relationJdbcRepository.replaceRoleMenus(id, existingMenuIds(dto.getMenuIds())).changed()) {
+            eventPublisher.publishEvent(new RoleMenuChangedEvent(id));
         }
 
         // 更新数据权限部门
@@ -129,6 +151,8 @@ public class SysRoleServiceImpl implements SysRoleService {
 
         // 保存角色
         SysRole savedRole = roleRepository.save(role);
+        publishRoleChanged(id);
+        eventPublisher.publishEvent(new TableChangedEvent(TABLE));
         log.info("角色更新成功: id={}", id);
 
         return convertToVO(savedRole);
@@ -151,6 +175,8 @@ public class SysRoleServiceImpl implements SysRoleService {
 
         // 软删除
         roleRepository.softDelete(id);
+        publishRoleChanged(id);
+        eventPublisher.publishEvent(new TableChangedEvent(TABLE));
         log.info("角色删除成功: id={}", id);
     }
 
@@ -163,6 +189,7 @@ public class SysRoleServiceImpl implements SysRoleService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<RoleVO> findPage(RoleQueryDTO query) {
         log.info("分页查询角色: {}", query);
 
@@ -198,11 +225,38 @@ public class SysRoleServiceImpl implements SysRoleService {
                 Sort.by(Sort.Direction.ASC, "sort")
         );
 
-        Page<SysRole> page = roleRepository.findAll(spec, pageRequest);
+        // 查询本页数据 (只选取列表需要的列，多取一条判断是否有下一页)，总条数按查询条件缓存
+        Slice<SysRoleRepository.RoleRow> slice = roleRepository.findBy(spec,
+                q -> q.as(SysRoleRepository.RoleRow.class).slice(pageRequest));
+        Page<SysRoleRepository.RoleRow> page = pageCountCache.toPage(slice, !Boolean.FALSE.equals(query.getWithTotal()),
+                TABLE, PageCountCache.filter(query.getRoleName(), query.getRoleCode(), query.getStatus()), null,
+                () -> roleRepository.count(spec));
 
         return page.map(this::convertToVO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void export(RoleQueryDTO query, ExportWriter writer) throws IOException {
+        log.info("导出角色: {}", query);
+
+        writer.writeRow("角色ID", "角色名称", "角色编码", "数据权限", "排序", "状态", "备注", "创建时间");
+        try {
+            exportJdbcRepository.streamRoles(query, rs -> {
+                try {
+                    writer.writeRow(rs.getLong("id"), rs.getString("role_name"), rs.getString("role_code"),
+                            RoleVO.getDataScopeDesc(rs.getInt("data_scope")), rs.getInt("sort"),
+                            rs.getInt("status") == 1 ? "启用" : "禁用", rs.getString("remark"),
+                            rs.getTimestamp("create_time"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     @Override
     public List<RoleVO> findAll() {
         List<SysRole> roles = roleRepository.findByDelFlagOrderBySortAsc(0);
@@ -216,20 +270,18 @@ public class SysRoleServiceImpl implements SysRoleService {
     public void assignMenus(Long id, RoleMenuDTO dto) {
         log.info("分配角色菜单: id={}, menuIds={}", id, dto.getMenuIds());
 
-        // 查找角色
-        SysRole role = roleRepository.findById(id)
-                .filter(r -> r.getDelFlag() == 0)
-                .orElseThrow(() -> new BusinessException(404, "角色不存在"));
-
-        // 获取菜单
-        Set<SysMenu> menus = dto.getMenuIds() != null && !dto.getMenuIds().isEmpty()
-                ? new HashSet<>(menuRepository.findAllById(dto.getMenuIds()))
-                : new HashSet<>();
+        // 检查角色是否存在
+        if (!roleRepository.existsByIdAndDelFlag(id, 0)) {
+            throw new BusinessException(404, "角色不存在");
+        }
 
-        // 更新角色菜单
-        role.setMenus(menus);
-        roleRepository.save(role);
-        log.info("角色菜单分配成功: id={}", id);
+        // 与现有关联比对后差量写入，无变更时不发布事件
+        SysRelationJdbcRepository.Delta delta = relationJdbcRepository.replaceRoleMenus(id, existingMenuIds(dto.getMenuIds()));
+        if (delta.changed()) {
+            eventPublisher.publishEvent(new RoleMenuChangedEvent(id));
+            publishRoleChanged(id);
+        }
+        log.info("角色菜单分配成功: id={}, 新增{}个, 移除{}个", id, delta.added(), delta.removed());
     }
 
     @Override
@@ -257,6 +309,7 @@ public class SysRoleServiceImpl implements SysRoleService {
         }
 
         roleRepository.save(role);
+        publishRoleChanged(id);
         log.info("角色数据权限设置成功: id={}", id);
     }
 
@@ -271,7 +324,55 @@ public class SysRoleServiceImpl implements SysRoleService {
     }
 
     /**
-     * 将角色实体转换为视图对象 (不包含关联数据，用于列表查询)
+     * 过滤出存在的菜单ID (只查询ID，不加载菜单实体)
+     *
+     * @param menuIds 菜单ID列表
+     * @return 存在的菜单ID列表
+     */
+    private List<Long> existingMenuIds(List<Long> menuIds) {
+        if (menuIds == null || menuIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return menuRepository.findExistingIds(menuIds);
+    }
+
+    /**
+     * 发布角色授权变更事件，失效拥有该角色的用户的授权缓存
+     *
+     * @param roleId 角色ID
+     */
+    private void publishRoleChanged(Long roleId) {
+        List<Long> userIds = userRepository.findUserIdsByRoleId(roleId);
+        if (!userIds.isEmpty()) {
+            eventPublisher.publishEvent(AuthorizationChangedEvent.ofUsers(userIds));
+        }
+    }
+
+    /**
+     * 将角色列表行转换为视图对象 (不包含关联数据)
+     *
+     * @param row 角色列表行
+     * @return 角色视图对象
+     */
+    private RoleVO convertToVO(SysRoleRepository.RoleRow row) {
+        RoleVO vo = new RoleVO();
+        vo.setId(row.id());
+        vo.setRoleName(row.roleName());
+        vo.setRoleCode(row.roleCode());
+        vo.setDataScope(row.dataScope());
+        vo.setDataScopeDesc(RoleVO.getDataScopeDesc(row.dataScope()));
+        vo.setSort(row.sort());
+        vo.setStatus(row.status());
+        vo.setRemark(row.remark());
+        vo.setCreatedAt(row.createTime());
+        vo.setUpdatedAt(row.updateTime());
+        vo.setMenuIds(Collections.emptyList());
+        vo.setDeptIds(Collections.emptyList());
+        return vo;
+    }
+
+    /**
+     * 将角色实体转换为视图对象 (不包含关联数据)
      *
      * @param role 角色实体
      * @return 角色视图对象
@@ -0,0 +1,444 @@
+package com.taichu.yingjiguanli.modules.sys.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.page.TableChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.cache.DeptTreeCache;
+import com.taichu.yingjiguanli.modules.sys.dto.UserCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
+import com.taichu.yingjiguanli.modules.sys.repository.SysRelationJdbcRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysUserJdbcRepository;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserImportService;
+import com.taichu.yingjiguanli.modules.sys.vo.UserImportJobVO;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 用户批量导入服务实现
+ * 上传文件先落盘为临时文件，再由后台线程逐行读取，按批次处理：
+ * 校验数据 → 批量检查用户名是否已存在 → 在有界线程池中并行计算 BCrypt 密码 → JDBC 批量插入用户和角色关联
+ *
+ * <p>每批在独立事务中提交，批量插入因并发创建同名用户等原因失败时逐行重试，定位失败的行。
+ * 导入任务同一时间只执行一个，其余排队；任务进度和行错误保存在内存中，过期后自动清理。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Service
+public class SysUserImportServiceImpl implements SysUserImportService {
+
+    private static final String STATUS_QUEUED = "QUEUED";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final SysUserJdbcRepository userJdbcRepository;
+    private final SysRelationJdbcRepository relationJdbcRepository;
+    private final SysRoleRepository roleRepository;
+    private final DeptTreeCache deptTreeCache;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxErrors;
+    private final Cache<String, Job> jobs;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService hashExecutor;
+
+    public SysUserImportServiceImpl(SysUserJdbcRepository userJdbcRepository,
+                                    SysRelationJdbcRepository relationJdbcRepository,
+                                    SysRoleRepository roleRepository,
+                                    DeptTreeCache deptTreeCache,
+                                    PasswordEncoder passwordEncoder,
+                                    Validator validator,
+                                    JsonMapper jsonMapper,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${yingji.user-import.batch-size:500}") int batchSize,
+                                    @Value("${yingji.user-import.hash-parallelism:0}") int hashParallelism,
+                                    @Value("${yingji.user-import.max-errors:1000}") int maxErrors,
+                                    @Value("${yingji.user-import.job-ttl:1h}") Duration jobTtl) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.relationJdbcRepository = relationJdbcRepository;
+        this.roleRepository = roleRepository;
+        this.deptTreeCache = deptTreeCache;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterAccess(jobTtl)
+                .build();
+        int parallelism = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+        this.jobExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("user-import-", 0).factory());
+        this.hashExecutor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("user-import-hash-", 0).factory());
+        log.info("用户导入服务初始化: batchSize={}, hashParallelism={}", batchSize, parallelism);
+    }
+
+    @Override
+    public UserImportJobVO submit(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("导入文件不能为空");
+        }
+        String fileName = file.getOriginalFilename();
+        boolean csv = UserImportReader.isCsv(fileName);
+
+        // 落盘为临时文件 (请求结束后上传的临时文件会被清理)
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("user-import-", csv ? ".csv" : ".jsonl");
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            log.error("保存导入文件失败: fileName={}", fileName, e);
+            throw new BusinessException("保存导入文件失败");
+        }
+
+        // 提交后台任务
+        Job job = new Job(UUID.randomUUID().toString().replace("-", ""), fileName);
+        jobs.put(job.id, job);
+        jobExecutor.execute(() -> run(job, tempFile, csv));
+        log.info("用户导入任务已提交: jobId={}, fileName={}, size={}", job.id, fileName, file.getSize());
+        return job.toVO();
+    }
+
+    @Override
+    public Optional<UserImportJobVO> findJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(Job::toVO);
+    }
+
+    /**
+     * 停止导入线程
+     */
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * 执行导入任务
+     */
+    private void run(Job job, Path tempFile, boolean csv) {
+        job.status = STATUS_RUNNING;
+        long start = System.nanoTime();
+        try (InputStream input = Files.newInputStream(tempFile);
+             UserImportReader reader = new UserImportReader(input, csv, jsonMapper)) {
+            Set<Long> deptIds = deptTreeCache.getDeptIds();
+            Set<String> usernames = new HashSet<>();
+            List<Candidate> chunk = new ArrayList<>(batchSize);
+
+            // 逐行读取、校验，满一批后导入
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                Candidate candidate = validate(job, row, usernames, deptIds);
+                job.processed.incrementAndGet();
+                if (candidate != null) {
+                    chunk.add(candidate);
+                }
+                if (chunk.size() >= batchSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+            job.finish(STATUS_COMPLETED, null);
+            log.info("用户导入完成: jobId={}, processed={}, succeeded={}, failed={}, elapsed={}ms",
+                    job.id, job.processed.get(), job.succeeded.get(), job.failed.get(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (BusinessException e) {
+            job.finish(STATUS_FAILED, e.getMessage());
+            log.warn("用户导入失败: jobId={}, message={}", job.id, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(STATUS_FAILED, "导入已中断 (服务停止)");
+            log.warn("用户导入中断: jobId={}, processed={}", job.id, job.processed.get());
+        } catch (Exception e) {
+            job.finish(STATUS_FAILED, "导入失败，请稍后重试");
+            log.error("用户导入异常: jobId={}", job.id, e);
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", tempFile, e);
+            }
+            // 刷新过期时间，保证完成后仍可查询结果
+            jobs.put(job.id, job);
+        }
+    }
+
+    /**
+     * 校验单行数据
+     *
+     * @return 待导入的用户，校验失败时记录错误并返回 null
+     */
+    private Candidate validate(Job job, UserImportReader.Row row, Set<String> usernames, Set<Long> deptIds) {
+        if (row.error() != null) {
+            job.error(row.line(), null, row.error());
+            return null;
+        }
+        UserCreateDTO user = row.user();
+        Set<ConstraintViolation<UserCreateDTO>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            job.error(row.line(), user.getUsername(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        if (!usernames.add(usernameKey(user.getUsername()))) {
+            job.error(row.line(), user.getUsername(), "用户名在导入文件中重复");
+            return null;
+        }
+        if (user.getDeptId() != null && !deptIds.contains(user.getDeptId())) {
+            job.error(row.line(), user.getUsername(), "部门不存在: " + user.getDeptId());
+            return null;
+        }
+        if (user.getStatus() == null) {
+            user.setStatus(1);
+        } else if (user.getStatus() != 0 && user.getStatus() != 1) {
+            job.error(row.line(), user.getUsername(), "状态只能为 0 或 1");
+            return null;
+        }
+        return new Candidate(row.line(), user);
+    }
+
+    /**
+     * 用户名查重键 (sys_user 使用不区分大小写的排序规则，uk_username 忽略大小写)
+     */
+    private static String usernameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 导入一批用户
+     */
+    private void importChunk(Job job, List<Candidate> chunk) throws InterruptedException {
+        // 批量检查用户名是否已存在
+        List<String> chunkUsernames = chunk.stream().map(c -> c.user.getUsername()).toList();
+        Set<String> existing = userJdbcRepository.findExistingUsernames(chunkUsernames).stream()
+                .map(SysUserImportServiceImpl::usernameKey)
+                .collect(Collectors.toSet());
+
+        // 批量检查角色是否存在
+        Set<Long> roleIds = new HashSet<>();
+        for (Candidate candidate : chunk) {
+            if (candidate.user.getRoleIds() != null) {
+                roleIds.addAll(candidate.user.getRoleIds());
+            }
+        }
+        Set<Long> existingRoleIds = roleIds.isEmpty()
+                ? Set.of() : new HashSet<>(roleRepository.findExistingIds(roleIds));
+
+        List<Candidate> accepted = new ArrayList<>(chunk.size());
+        for (Candidate candidate : chunk) {
+            UserCreateDTO user = candidate.user;
+            if (existing.contains(usernameKey(user.getUsername()))) {
+                job.error(candidate.line, user.getUsername(), "用户名已存在");
+            } else if (user.getRoleIds() != null && !existingRoleIds.containsAll(user.getRoleIds())) {
+                job.error(candidate.line, user.getUsername(), "部分角色不存在");
+            } else {
+                accepted.add(candidate);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // 并行计算密码哈希
+        List<Future<String>> hashes = new ArrayList<>(accepted.size());
+        for (Candidate candidate : accepted) {
+            String rawPassword = candidate.user.getPassword();
+            hashes.add(hashExecutor.submit(() -> passwordEncoder.encode(rawPassword)));
+        }
+        List<SysUser> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            users.add(toEntity(accepted.get(i).user, await(hashes.get(i))));
+        }
+
+        // 批量插入，失败时逐行重试定位错误行
+        try {
+            insert(accepted, users);
+            job.succeeded.addAndGet(accepted.size());
+        } catch (DataIntegrityViolationException e) {
+            log.warn("批量插入用户失败，逐行重试: jobId={}, size={}", job.id, accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                Candidate candidate = accepted.get(i);
+                try {
+                    insert(List.of(candidate), List.of(users.get(i)));
+                    job.succeeded.incrementAndGet();
+                } catch (DuplicateKeyException ex) {
+                    job.error(candidate.line, candidate.user.getUsername(), "用户名已存在");
+                } catch (DataIntegrityViolationException ex) {
+                    job.error(candidate.line, candidate.user.getUsername(),
+                            "数据不合法: " + ex.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 在一个事务中插入用户及其角色关联
+     */
+    private void insert(List<Candidate> candidates, List<SysUser> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userJdbcRepository.batchInsert(users, batchSize);
+
+            // 插入角色关联 (按用户名查回生成的用户ID)
+            Map<String, List<Long>> roleIdsByUsername = new LinkedHashMap<>();
+            for (Candidate candidate : candidates) {
+                List<Long> roleIds = candidate.user.getRoleIds();
+                if (roleIds != null && !roleIds.isEmpty()) {
+                    roleIdsByUsername.put(candidate.user.getUsername(), roleIds.stream().distinct().toList());
+                }
+            }
+            if (!roleIdsByUsername.isEmpty()) {
+                Map<String, Long> userIds = userJdbcRepository.findIdsByUsernames(roleIdsByUsername.keySet());
+                Map<Long, List<Long>> userRoleIds = new LinkedHashMap<>();
+                roleIdsByUsername.forEach((username, roleIds) -> userRoleIds.put(userIds.get(username), roleIds));
+                relationJdbcRepository.batchInsertUserRoles(userRoleIds);
+            }
+            eventPublisher.publishEvent(new TableChangedEvent("sys_user"));
+        });
+    }
+
+    /**
+     * 转换为待插入的用户
+     */
+    private SysUser toEntity(UserCreateDTO dto, String encodedPassword) {
+        SysUser user = new SysUser();
+        user.setUsername(dto.getUsername());
+        user.setPassword(encodedPassword);
+        user.setRealName(dto.getRealName());
+        user.setPhone(dto.getPhone());
+        user.setEmail(dto.getEmail());
+        user.setAvatar(dto.getAvatar());
+        user.setDeptId(dto.getDeptId());
+        user.setStatus(dto.getStatus());
+        return user;
+    }
+
+    /**
+     * 等待密码哈希结果
+     */
+    private static String await(Future<String> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码加密失败", e.getCause());
+        }
+    }
+
+    /**
+     * 待导入的用户
+     *
+     * @param line 行号
+     * @param user 用户数据
+     */
+    private record Candidate(long line, UserCreateDTO user) {
+    }
+
+    /**
+     * 导入任务状态 (后台线程写入，查询接口读取)
+     */
+    private final class Job {
+
+        private final String id;
+        private final String fileName;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<UserImportJobVO.RowError> errors = new ArrayList<>();
+        private volatile String status = STATUS_QUEUED;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        /**
+         * 记录行错误 (超过上限后只计数)
+         */
+        void error(long line, String username, String errorMessage) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    UserImportJobVO.RowError error = new UserImportJobVO.RowError();
+                    error.setLine(line);
+                    error.setUsername(username);
+                    error.setMessage(errorMessage);
+                    errors.add(error);
+                }
+            }
+        }
+
+        void finish(String finalStatus, String finalMessage) {
+            this.message = finalMessage;
+            this.finishedAt = LocalDateTime.now();
+            this.status = finalStatus;
+        }
+
+        UserImportJobVO toVO() {
+            UserImportJobVO vo = new UserImportJobVO();
+            vo.setJobId(id);
+            vo.setStatus(status);
+            vo.setFileName(fileName);
+            vo.setProcessed(processed.get());
+            vo.setSucceeded(succeeded.get());
+            vo.setFailed(failed.get());
+            vo.setMessage(message);
+            synchronized (errors) {
+                vo.setErrors(new ArrayList<>(errors));
+            }
+            vo.setCreatedAt(createdAt);
+            vo.setFinishedAt(finishedAt);
+            return vo;
+        }
+    }
+}
@@ -2,28 +2,44 @@ package com.taichu.yingjiguanli.modules.sys.service.impl;
 
 import com.taichu.yingjiguanli.common.BusinessException;
 import com.taichu.yingjiguanli.common.annotation.DataScope;
+import com.taichu.yingjiguanli.common.datascope.DataScopeContext;
 import com.taichu.yingjiguanli.common.datascope.DataScopeHelper;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
+import com.taichu.yingjiguanli.common.page.CursorPage;
+import com.taichu.yingjiguanli.common.page.KeysetCursor;
+import com.taichu.yingjiguanli.common.page.PageCountCache;
+import com.taichu.yingjiguanli.common.page.TableChangedEvent;
 import com.taichu.yingjiguanli.modules.sys.dto.*;
 import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
 import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
 import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
 import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysExportJdbcRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysRelationJdbcRepository;
 import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
 import com.taichu.yingjiguanli.modules.sys.repository.SysUserRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.UserKeywordSearch;
 import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
 import com.taichu.yingjiguanli.modules.sys.vo.UserVO;
+import com.taichu.yingjiguanli.security.AuthorizationChangedEvent;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -38,11 +54,21 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SysUserServiceImpl implements SysUserService {
 
+    /**
+     * 用户表名 (分页总条数缓存)
+     */
+    private static final String TABLE = "sys_user";
+
     private final SysUserRepository userRepository;
     private final SysRoleRepository roleRepository;
+    private final SysRelationJdbcRepository relationJdbcRepository;
     private final SysDeptRepository deptRepository;
+    private final SysExportJdbcRepository exportJdbcRepository;
+    private final UserKeywordSearch userKeywordSearch;
     private final PasswordEncoder passwordEncoder;
     private final DataScopeHelper dataScopeHelper;
+    private final PageCountCache pageCountCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -66,14 +92,14 @@ public class SysUserServiceImpl implements SysUserService {
         user.setStatus(dto.getStatus() != null ? dto.getStatus() : 1);
         user.setDelFlag(0);
 
-        // 设置角色
-        if (dto.getRoleIds() != null && !dto.getRoleIds().isEmpty()) {
-            Set<SysRole> roles = new HashSet<>(roleRepository.findAllById(dto.getRoleIds()));
-            user.setRoles(roles);
-        }
-
         // 保存用户
         SysUser savedUser = userRepository.save(user);
+
+        // 设置角色 (直接写入关联表)
+        if (dto.getRoleIds() != null && !dto.getRoleIds().isEmpty()) {
+            relationJdbcRepository.replaceUserRoles(savedUser.getId(), roleRepository.findExistingIds(dto.getRoleIds()));
+        }
+        eventPublisher.publishEvent(new TableChangedEvent(TABLE));
         log.info("用户创建成功: id={}", savedUser.getId());
 
         return convertToVO(savedUser);
@@ -109,14 +135,17 @@ public class SysUserServiceImpl implements SysUserService {
             user.setStatus(dto.getStatus());
         }
 
-        // 更新角色
+        // 更新角色 (与现有关联比对后差量写入)
         if (dto.getRoleIds() != null) {
-            Set<SysRole> roles = new HashSet<>(roleRepository.findAllById(dto.getRoleIds()));
-            user.setRoles(roles);
+            relationJdbcRepository.replaceUserRoles(id, dto.getRoleIds().isEmpty()
+                    ? Collections.emptyList() : roleRepository.findExistingIds(dto.getRoleIds()));
         }
 
         // 保存用户
         SysUser savedUser = userRepository.save(user);
+        // 角色和资料变更均会影响当前用户信息接口的 ETag
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofUser(id));
+        eventPublisher.publishEvent(new TableChangedEvent(TABLE));
         log.info("用户更新成功: id={}", id);
 
         return convertToVO(savedUser);
@@ -139,6 +168,8 @@ public class SysUserServiceImpl implements SysUserService {
 
         // 软删除
         userRepository.softDelete(id);
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofUser(id));
+        eventPublisher.publishEvent(new TableChangedEvent(TABLE));
         log.info("用户删除成功: id={}", id);
     }
 
@@ -151,51 +182,13 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     @DataScope(deptAlias = "", userAlias = "")
     public Page<UserVO> findPage(UserQueryDTO query) {
         log.info("分页查询用户: {}", query);
 
         // 构建查询条件
-        Specification<SysUser> spec = (root, criteriaQuery, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            // 未删除
-            predicates.add(cb.equal(root.get("delFlag"), 0));
-
-            // 用户名模糊搜索
-            if (StringUtils.hasText(query.getUsername())) {
-                predicates.add(cb.like(root.get("username"), "%" + query.getUsername() + "%"));
-            }
-
-            // 真实姓名模糊搜索
-            if (StringUtils.hasText(query.getRealName())) {
-                predicates.add(cb.like(root.get("realName"), "%" + query.getRealName() + "%"));
-            }
-
-            // 手机号模糊搜索
-            if (StringUtils.hasText(query.getPhone())) {
-                predicates.add(cb.like(root.get("phone"), "%" + query.getPhone() + "%"));
-            }
-
-            // 部门筛选
-            if (query.getDeptId() != null) {
-                predicates.add(cb.equal(root.get("deptId"), query.getDeptId()));
-            }
-
-            // 状态筛选
-            if (query.getStatus() != null) {
-                predicates.add(cb.equal(root.get("status"), query.getStatus()));
-            }
-
-            // 数据权限过滤
-            Predicate dataScopePredicate = dataScopeHelper.buildDataScopePredicate(
-                    root, cb, "deptId", "id");
-            if (dataScopePredicate != null) {
-                predicates.add(dataScopePredicate);
-            }
-
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+        Specification<SysUser> spec = buildSpecification(query);
 
         // 分页查询
         PageRequest pageRequest = PageRequest.of(
@@ -204,9 +197,63 @@ public class SysUserServiceImpl implements SysUserService {
                 Sort.by(Sort.Direction.DESC, "createTime")
         );
 
-        Page<SysUser> page = userRepository.findAll(spec, pageRequest);
+        // 查询本页数据 (只选取列表需要的列，多取一条判断是否有下一页)，总条数按查询条件和数据权限缓存
+        Slice<SysUserRepository.UserRow> slice = userRepository.findBy(spec,
+                q -> q.as(SysUserRepository.UserRow.class).slice(pageRequest));
+        Page<SysUserRepository.UserRow> page = pageCountCache.toPage(slice, !Boolean.FALSE.equals(query.getWithTotal()),
+                TABLE, countFilter(query), dataScopeHelper.getCurrentScope().filterKey(), () -> userRepository.count(spec));
+
+        // 批量查询本页用户的部门名称
+        Map<Long, String> deptNames = findDeptNames(page.getContent());
+        return page.map(row -> convertToVO(row, deptNames.get(row.deptId())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @DataScope(deptAlias = "", userAlias = "")
+    public CursorPage<UserVO> findCursorPage(UserQueryDTO query) {
+        log.info("游标分页查询用户: {}", query);
+
+        // 构建查询条件
+        Specification<SysUser> spec = buildSpecification(query);
+
+        // 按 (createTime, id) 定位下一页
+        int size = query.getSize() != null && query.getSize() > 0 ? query.getSize() : 10;
+        KeysetScrollPosition position = KeysetCursor.decode(query.getCursor());
+        Window<SysUserRepository.UserRow> window = userRepository.findBy(spec,
+                q -> q.as(SysUserRepository.UserRow.class).sortBy(KeysetCursor.SORT).limit(size).scroll(position));
+
+        // 总条数仅在第一页按需统计
+        Long total = Boolean.TRUE.equals(query.getWithTotal()) && position.isInitial()
+                ? pageCountCache.count(TABLE, countFilter(query), dataScopeHelper.getCurrentScope().filterKey(),
+                () -> userRepository.count(spec))
+                : null;
+
+        // 批量查询本页用户的部门名称
+        Map<Long, String> deptNames = findDeptNames(window.getContent());
+        return CursorPage.of(window, size, row -> convertToVO(row, deptNames.get(row.deptId())), total);
+    }
 
-        return page.map(this::convertToVO);
+    @Override
+    @Transactional(readOnly = true)
+    @DataScope(deptAlias = "u", userAlias = "u", userIdColumn = "id")
+    public void export(UserQueryDTO query, ExportWriter writer) throws IOException {
+        log.info("导出用户: {}", query);
+
+        writer.writeRow("用户ID", "用户名", "真实姓名", "手机号", "邮箱", "部门", "状态", "创建时间");
+        try {
+            exportJdbcRepository.streamUsers(query, DataScopeContext.getCondition(), rs -> {
+                try {
+                    writer.writeRow(rs.getLong("id"), rs.getString("username"), rs.getString("real_name"),
+                            rs.getString("phone"), rs.getString("email"), rs.getString("dept_name"),
+                            rs.getInt("status") == 1 ? "启用" : "禁用", rs.getTimestamp("create_time"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     @Override
@@ -244,6 +291,7 @@ public class SysUserServiceImpl implements SysUserService {
 
         // 更新状态
         userRepository.updateStatus(id, dto.getStatus());
+        eventPublisher.publishEvent(new TableChangedEvent(TABLE));
         log.info("用户状态更新成功: id={}, status={}", id, dto.getStatus());
     }
 
@@ -252,23 +300,24 @@ public class SysUserServiceImpl implements SysUserService {
     public void assignRoles(Long id, UserRoleDTO dto) {
         log.info("分配用户角色: id={}, roleIds={}", id, dto.getRoleIds());
 
-        // 查找用户
-        SysUser user = userRepository.findById(id)
-                .filter(u -> u.getDelFlag() == 0)
-                .orElseThrow(() -> new BusinessException(404, "用户不存在"));
-
-        // 获取角色
-        Set<SysRole> roles = new HashSet<>(roleRepository.findAllById(dto.getRoleIds()));
+        // 检查用户是否存在
+        if (!userRepository.existsByIdAndDelFlag(id, 0)) {
+            throw new BusinessException(404, "用户不存在");
+        }
 
         // 验证所有角色都存在
-        if (roles.size() != dto.getRoleIds().size()) {
+        Set<Long> roleIds = new LinkedHashSet<>(dto.getRoleIds());
+        List<Long> existingRoleIds = roleIds.isEmpty() ? Collections.emptyList() : roleRepository.findExistingIds(roleIds);
+        if (existingRoleIds.size() != roleIds.size()) {
             throw new BusinessException("部分角色不存在");
         }
 
-        // 更新用户角色
-        user.setRoles(roles);
-        userRepository.save(user);
-        log.info("用户角色分配成功: id={}", id);
+        // 与现有关联比对后差量写入，无变更时不发布事件
+        SysRelationJdbcRepository.Delta delta = relationJdbcRepository.replaceUserRoles(id, roleIds);
+        if (delta.changed()) {
+            eventPublisher.publishEvent(AuthorizationChangedEvent.ofUser(id));
+        }
+        log.info("用户角色分配成功: id={}, 新增{}个, 移除{}个", id, delta.added(), delta.removed());
     }
 
     @Override
@@ -277,7 +326,113 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     /**
-     * 将用户实体转换为视图对象 (不包含角色关联，用于列表查询)
+     * 构建用户列表查询条件 (含数据权限条件，需在 @DataScope 方法内调用)
+     */
+    private Specification<SysUser> buildSpecification(UserQueryDTO query) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // 未删除
+            predicates.add(cb.equal(root.get("delFlag"), 0));
+
+            // 关键词检索 (用户名、真实姓名、手机号，优先使用全文索引)
+            if (StringUtils.hasText(query.getKeyword())) {
+                predicates.add(userKeywordSearch.toPredicate(root, cb, query.getKeyword().trim()));
+            }
+
+            // 用户名模糊搜索 (全文索引定位后按字段过滤)
+            if (StringUtils.hasText(query.getUsername())) {
+                predicates.add(userKeywordSearch.toPredicate(root, cb, UserKeywordSearch.Field.USERNAME,
+                        query.getUsername().trim()));
+            }
+
+            // 真实姓名模糊搜索 (全文索引定位后按字段过滤)
+            if (StringUtils.hasText(query.getRealName())) {
+                predicates.add(userKeywordSearch.toPredicate(root, cb, UserKeywordSearch.Field.REAL_NAME,
+                        query.getRealName().trim()));
+            }
+
+            // 手机号模糊搜索 (全文索引定位后按字段过滤)
+            if (StringUtils.hasText(query.getPhone())) {
+                predicates.add(userKeywordSearch.toPredicate(root, cb, UserKeywordSearch.Field.PHONE,
+                        query.getPhone().trim()));
+            }
+
+            // 部门筛选
+            if (query.getDeptId() != null) {
+                predicates.add(cb.equal(root.get("deptId"), query.getDeptId()));
+            }
+
+            // 状态筛选
+            if (query.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), query.getStatus()));
+            }
+
+            // 数据权限过滤
+            Predicate dataScopePredicate = dataScopeHelper.buildDataScopePredicate(
+                    root, criteriaQuery, cb, "deptId", "id");
+            if (dataScopePredicate != null) {
+                predicates.add(dataScopePredicate);
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 总条数缓存使用的查询条件
+     */
+    private static List<Object> countFilter(UserQueryDTO query) {
+        String keyword = query.getKeyword() != null ? query.getKeyword().trim() : null;
+        return PageCountCache.filter(keyword, query.getUsername(), query.getRealName(), query.getPhone(),
+                query.getDeptId(), query.getStatus());
+    }
+
+    /**
+     * 批量查询用户所属部门名称
+     *
+     * @param rows 用户列表行
+     * @return 部门ID -> 部门名称
+     */
+    private Map<Long, String> findDeptNames(Collection<SysUserRepository.UserRow> rows) {
+        Set<Long> deptIds = rows.stream()
+                .map(SysUserRepository.UserRow::deptId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (deptIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return deptRepository.findDeptNamesByIds(deptIds).stream()
+                .collect(Collectors.toMap(SysDeptRepository.DeptName::getId,
+                        SysDeptRepository.DeptName::getDeptName, (a, b) -> a));
+    }
+
+    /**
+     * 将用户列表行转换为视图对象 (不包含角色关联)
+     *
+     * @param row      用户列表行
+     * @param deptName 部门名称
+     * @return 用户视图对象
+     */
+    private UserVO convertToVO(SysUserRepository.UserRow row, String deptName) {
+        UserVO vo = new UserVO();
+        vo.setId(row.id());
+        vo.setUsername(row.username());
+        vo.setRealName(row.realName());
+        vo.setPhone(row.phone());
+        vo.setEmail(row.email());
+        vo.setAvatar(row.avatar());
+        vo.setDeptId(row.deptId());
+        vo.setStatus(row.status());
+        vo.setCreatedAt(row.createTime());
+        vo.setUpdatedAt(row.updateTime());
+        vo.setDeptName(deptName);
+        vo.setRoles(Collections.emptyList());
+        return vo;
+    }
+
+    /**
+     * 将用户实体转换为视图对象 (不包含角色关联)
      *
      * @param user 用户实体
      * @return 用户视图对象
@@ -294,6 +449,21 @@ public class SysUserServiceImpl implements SysUserService {
      * @return 用户视图对象
      */
     private UserVO convertToVO(SysUser user, boolean includeRelation) {
+        String deptName = user.getDeptId() != null
+                ? deptRepository.findDeptNameById(user.getDeptId()).orElse(null)
+                : null;
+        return convertToVO(user, includeRelation, deptName);
+    }
+
+    /**
+     * 将用户实体转换为视图对象 (部门名称由调用方提供)
+     *
+     * @param user            用户实体
+     * @param includeRelation 是否包含关联数据 (角色)
+     * @param deptName        部门名称
+     * @return 用户视图对象
+     */
+    private UserVO convertToVO(SysUser user, boolean includeRelation, String deptName) {
         UserVO vo = new UserVO();
         vo.setId(user.getId());
         vo.setUsername(user.getUsername());
@@ -307,10 +477,7 @@ public class SysUserServiceImpl implements SysUserService {
         vo.setUpdatedAt(user.getUpdateTime());
 
         // 设置部门名称
-        if (user.getDeptId() != null) {
-            deptRepository.findById(user.getDeptId())
-                    .ifPresent(dept -> vo.setDeptName(dept.getDeptName()));
-        }
+        vo.setDeptName(deptName);
 
         // 设置角色列表 (仅在需要时获取，避免懒加载异常)
         if (includeRelation) {
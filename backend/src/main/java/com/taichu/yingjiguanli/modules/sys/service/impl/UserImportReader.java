@@ -0,0 +1,203 @@
+package com.taichu.yingjiguanli.modules.sys.service.impl;
+
+import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.modules.sys.dto.UserCreateDTO;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 用户导入文件逐行读取器
+ * 支持 CSV (首行为表头) 和 JSON Lines (每行一个用户对象) 两种格式，按行流式读取，不整体加载文件
+ *
+ * <p>CSV 表头可用列：username, password, realName, phone, email, avatar, deptId, status, roleIds
+ * (列名不区分大小写，可使用下划线形式)；roleIds 多个值以 "|" 分隔。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+class UserImportReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final JsonMapper jsonMapper;
+    private final boolean csv;
+    private List<String> header;
+    private long lineNumber;
+
+    UserImportReader(InputStream input, boolean csv, JsonMapper jsonMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.csv = csv;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * 根据文件名判断是否为 CSV 格式
+     *
+     * @param fileName 文件名
+     * @return true CSV，false JSON Lines
+     */
+    static boolean isCsv(String fileName) {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return true;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return false;
+        }
+        throw new BusinessException("仅支持 .csv、.jsonl、.ndjson 格式的导入文件");
+    }
+
+    /**
+     * 读取下一行数据 (跳过空行)
+     *
+     * @return 数据行，文件结束时返回 null
+     * @throws IOException 读取失败
+     */
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (csv && header == null) {
+                header = parseHeader(line);
+                continue;
+            }
+            try {
+                return new Row(lineNumber, csv ? parseCsv(line) : jsonMapper.readValue(line, UserCreateDTO.class), null);
+            } catch (JacksonException e) {
+                return new Row(lineNumber, null, "JSON 格式错误: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                return new Row(lineNumber, null, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * 解析 CSV 表头，列名统一为小写且去掉下划线
+     */
+    private List<String> parseHeader(String line) {
+        List<String> columns = new ArrayList<>();
+        for (String column : splitCsv(line)) {
+            String name = column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+            switch (name) {
+                case "username", "password", "realname", "phone", "email", "avatar", "deptid", "status", "roleids" ->
+                        columns.add(name);
+                default -> throw new BusinessException("导入文件包含未知列: " + column);
+            }
+        }
+        if (!columns.contains("username") || !columns.contains("password")) {
+            throw new BusinessException("导入文件缺少 username 或 password 列");
+        }
+        return columns;
+    }
+
+    /**
+     * 按表头将 CSV 行转换为用户
+     */
+    private UserCreateDTO parseCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("列数超过表头列数");
+        }
+        UserCreateDTO user = new UserCreateDTO();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header.get(i)) {
+                case "username" -> user.setUsername(value);
+                case "password" -> user.setPassword(value);
+                case "realname" -> user.setRealName(value);
+                case "phone" -> user.setPhone(value);
+                case "email" -> user.setEmail(value);
+                case "avatar" -> user.setAvatar(value);
+                case "deptid" -> user.setDeptId(parseLong(value, "部门ID"));
+                case "status" -> user.setStatus((int) parseLong(value, "状态"));
+                case "roleids" -> {
+                    List<Long> roleIds = new ArrayList<>();
+                    for (String roleId : value.split("\\|")) {
+                        if (!roleId.isBlank()) {
+                            roleIds.add(parseLong(roleId.trim(), "角色ID"));
+                        }
+                    }
+                    user.setRoleIds(roleIds);
+                }
+                default -> {
+                }
+            }
+        }
+        return user;
+    }
+
+    private static long parseLong(String value, String field) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + "格式不正确: " + value);
+        }
+    }
+
+    /**
+     * 拆分单行 CSV (支持双引号包裹和 "" 转义，不支持字段内换行)
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * 导入数据行
+     *
+     * @param line  行号 (从1开始，含表头)
+     * @param user  用户数据 (解析失败时为 null)
+     * @param error 解析错误 (解析成功时为 null)
+     */
+    record Row(long line, UserCreateDTO user, String error) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.taichu.yingjiguanli.modules.sys.vo;
 
+import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -64,4 +65,25 @@ public class DeptVO {
      * 更新时间
      */
     private LocalDateTime updatedAt;
+
+    /**
+     * 将部门实体转换为视图对象
+     *
+     * @param dept 部门实体
+     * @return 部门视图对象
+     */
+    public static DeptVO from(SysDept dept) {
+        DeptVO vo = new DeptVO();
+        vo.setId(dept.getId());
+        vo.setParentId(dept.getParentId());
+        vo.setDeptName(dept.getDeptName());
+        vo.setLeader(dept.getLeader());
+        vo.setPhone(dept.getPhone());
+        vo.setSort(dept.getSort());
+        vo.setStatus(dept.getStatus());
+        vo.setCreatedAt(dept.getCreateTime());
+        vo.setUpdatedAt(dept.getUpdateTime());
+        vo.setChildren(new ArrayList<>());
+        return vo;
+    }
 }
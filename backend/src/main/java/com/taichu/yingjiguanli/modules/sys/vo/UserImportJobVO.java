@@ -0,0 +1,87 @@
+package com.taichu.yingjiguanli.modules.sys.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户批量导入任务视图对象
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Data
+public class UserImportJobVO {
+
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * 任务状态 (QUEUED 排队中, RUNNING 导入中, COMPLETED 已完成, FAILED 失败)
+     */
+    private String status;
+
+    /**
+     * 导入文件名
+     */
+    private String fileName;
+
+    /**
+     * 已处理行数
+     */
+    private int processed;
+
+    /**
+     * 导入成功数
+     */
+    private int succeeded;
+
+    /**
+     * 导入失败数
+     */
+    private int failed;
+
+    /**
+     * 失败原因 (任务整体失败时)
+     */
+    private String message;
+
+    /**
+     * 行错误 (最多保留配置的条数)
+     */
+    private List<RowError> errors;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 完成时间
+     */
+    private LocalDateTime finishedAt;
+
+    /**
+     * 行错误
+     */
+    @Data
+    public static class RowError {
+        /**
+         * 行号 (从1开始，含表头)
+         */
+        private long line;
+
+        /**
+         * 用户名
+         */
+        private String username;
+
+        /**
+         * 错误信息
+         */
+        private String message;
+    }
+}
@@ -2,6 +2,7 @@ package com.taichu.yingjiguanli.modules.test.controller;
 
 import cn.dev33.satoken.annotation.SaCheckPermission;
 import com.taichu.yingjiguanli.common.ApiResponse;
+import com.taichu.yingjiguanli.common.page.CursorPage;
 import com.taichu.yingjiguanli.modules.test.dto.TestDataScopeDTO;
 import com.taichu.yingjiguanli.modules.test.dto.TestDataScopeQueryDTO;
 import com.taichu.yingjiguanli.modules.test.service.TestDataScopeService;
@@ -59,6 +60,16 @@ public class TestDataScopeController {
         return ApiResponse.success(result);
     }
 
+    /**
+     * 游标分页查询 (自动应用数据权限过滤)
+     */
+    @GetMapping("/cursor")
+    @SaCheckPermission("test:dataScope:list")
+    @Operation(summary = "游标分页查询", description = "按创建时间倒序，传入上一页返回的 nextCursor 获取下一页")
+    public ApiResponse<CursorPage<TestDataScopeVO>> cursor(TestDataScopeQueryDTO query) {
+        return ApiResponse.success(testDataScopeService.findCursorPage(query));
+    }
+
     /**
      * 获取当前用户数据权限信息
      */
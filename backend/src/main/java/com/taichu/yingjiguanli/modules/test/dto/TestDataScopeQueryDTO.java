@@ -35,4 +35,14 @@ public class TestDataScopeQueryDTO {
      * 每页条数
      */
     private Integer size = 10;
+
+    /**
+     * 游标 (游标分页，为空表示第一页)
+     */
+    private String cursor;
+
+    /**
+     * 是否统计总条数 (游标分页，仅第一页统计)
+     */
+    private Boolean withTotal = false;
 }
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "test_data_scope", indexes = {
         @Index(name = "idx_dept_id", columnList = "dept_id"),
-        @Index(name = "idx_create_by", columnList = "create_by")
+        @Index(name = "idx_create_by", columnList = "create_by"),
+        @Index(name = "idx_create_time_id", columnList = "create_time, id")
 })
 @Comment("数据权限测试表")
 public class TestDataScope {
@@ -75,7 +76,7 @@ public class TestDataScope {
     /**
      * 创建时间
      */
-    @Column(name = "create_time")
+    @Column(name = "create_time", nullable = false)
     @Comment("创建时间")
     private LocalDateTime createTime;
 
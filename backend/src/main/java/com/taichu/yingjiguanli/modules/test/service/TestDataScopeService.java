@@ -1,5 +1,6 @@
 package com.taichu.yingjiguanli.modules.test.service;
 
+import com.taichu.yingjiguanli.common.page.CursorPage;
 import com.taichu.yingjiguanli.modules.test.dto.TestDataScopeDTO;
 import com.taichu.yingjiguanli.modules.test.dto.TestDataScopeQueryDTO;
 import com.taichu.yingjiguanli.modules.test.service.impl.TestDataScopeServiceImpl;
@@ -22,6 +23,14 @@ public interface TestDataScopeService {
      */
     Page<TestDataScopeVO> findPage(TestDataScopeQueryDTO query);
 
+    /**
+     * 游标分页查询 (应用数据权限过滤，按创建时间倒序)
+     *
+     * @param query 查询条件 (cursor 为上一页返回的游标)
+     * @return 游标分页数据
+     */
+    CursorPage<TestDataScopeVO> findCursorPage(TestDataScopeQueryDTO query);
+
     /**
      * 获取当前用户数据权限信息
      *
@@ -2,13 +2,13 @@ package com.taichu.yingjiguanli.modules.test.service.impl;
 
 import cn.dev33.satoken.stp.StpUtil;
 import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.common.annotation.ReadRoute;
+import com.taichu.yingjiguanli.common.datasource.ReadTarget;
 import com.taichu.yingjiguanli.common.datascope.DataScopeHelper;
 import com.taichu.yingjiguanli.common.datascope.DataScopeType;
-import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
-import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
-import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
-import com.taichu.yingjiguanli.modules.sys.repository.SysDeptRepository;
-import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
+import com.taichu.yingjiguanli.common.datascope.ResolvedDataScope;
+import com.taichu.yingjiguanli.common.page.CursorPage;
+import com.taichu.yingjiguanli.common.page.KeysetCursor;
 import com.taichu.yingjiguanli.modules.sys.repository.SysUserRepository;
 import com.taichu.yingjiguanli.modules.test.dto.TestDataScopeDTO;
 import com.taichu.yingjiguanli.modules.test.dto.TestDataScopeQueryDTO;
@@ -19,15 +19,16 @@ import com.taichu.yingjiguanli.modules.test.vo.TestDataScopeVO;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 数据权限测试服务实现
@@ -43,8 +44,6 @@ public class TestDataScopeServiceImpl implements TestDataScopeService {
 
     private final TestDataScopeRepository testDataScopeRepository;
     private final SysUserRepository userRepository;
-    private final SysDeptRepository deptRepository;
-    private final SysRoleRepository roleRepository;
     private final DataScopeHelper dataScopeHelper;
 
     /**
@@ -52,14 +51,56 @@ public class TestDataScopeServiceImpl implements TestDataScopeService {
      * 这是数据权限的核心实现
      */
     @Override
+    @ReadRoute(ReadTarget.REPLICA)
     public Page<TestDataScopeVO> findPage(TestDataScopeQueryDTO query) {
-        Long userId = StpUtil.getLoginIdAsLong();
         DataScopeInfo scopeInfo = getCurrentDataScopeInfo();
         log.info("数据权限查询: userId={}, dataScope={}, desc={}",
-                userId, scopeInfo.getDataScope(), scopeInfo.getDataScopeDesc());
+                scopeInfo.getUserId(), scopeInfo.getDataScope(), scopeInfo.getDataScopeDesc());
+
+        // 构建查询条件
+        Specification<TestDataScope> spec = buildSpecification(query);
+
+        // 分页参数
+        int page = query.getPage() != null && query.getPage() > 0 ? query.getPage() - 1 : 0;
+        int size = query.getSize() != null && query.getSize() > 0 ? query.getSize() : 10;
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createTime"));
+
+        // 执行查询
+        Page<TestDataScope> pageData = testDataScopeRepository.findAll(spec, pageRequest);
+
+        // 转换为 VO
+        return pageData.map(this::convertToVO);
+    }
+
+    /**
+     * 游标分页查询 (应用数据权限过滤)
+     * 按 (createTime, id) 定位下一页，不执行偏移扫描，总条数仅在第一页按需统计
+     */
+    @Override
+    @ReadRoute(ReadTarget.REPLICA)
+    public CursorPage<TestDataScopeVO> findCursorPage(TestDataScopeQueryDTO query) {
+        log.info("数据权限游标查询: cursor={}", query.getCursor());
 
         // 构建查询条件
-        Specification<TestDataScope> spec = (root, criteriaQuery, cb) -> {
+        Specification<TestDataScope> spec = buildSpecification(query);
+
+        // 执行查询
+        int size = query.getSize() != null && query.getSize() > 0 ? query.getSize() : 10;
+        KeysetScrollPosition position = KeysetCursor.decode(query.getCursor());
+        Window<TestDataScope> window = testDataScopeRepository.findBy(spec,
+                q -> q.sortBy(KeysetCursor.SORT).limit(size).scroll(position));
+        Long total = Boolean.TRUE.equals(query.getWithTotal()) && position.isInitial()
+                ? testDataScopeRepository.count(spec) : null;
+
+        // 转换为 VO
+        return CursorPage.of(window, size, this::convertToVO, total);
+    }
+
+    /**
+     * 构建查询条件 (业务条件 + 数据权限条件)
+     */
+    private Specification<TestDataScope> buildSpecification(TestDataScopeQueryDTO query) {
+        return (root, criteriaQuery, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             // 业务查询条件
@@ -80,24 +121,13 @@ public class TestDataScopeServiceImpl implements TestDataScopeService {
             // createBy: 创建人字段名
             // ============================================================
             Predicate dataScopePredicate = dataScopeHelper.buildDataScopePredicate(
-                    root, cb, "deptId", "createBy");
+                    root, criteriaQuery, cb, "deptId", "createBy");
             if (dataScopePredicate != null) {
                 predicates.add(dataScopePredicate);
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        // 分页参数
-        int page = query.getPage() != null && query.getPage() > 0 ? query.getPage() - 1 : 0;
-        int size = query.getSize() != null && query.getSize() > 0 ? query.getSize() : 10;
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createTime"));
-
-        // 执行查询
-        Page<TestDataScope> pageData = testDataScopeRepository.findAll(spec, pageRequest);
-
-        // 转换为 VO
-        return pageData.map(this::convertToVO);
     }
 
     /**
@@ -105,50 +135,25 @@ public class TestDataScopeServiceImpl implements TestDataScopeService {
      */
     @Override
     public DataScopeInfo getCurrentDataScopeInfo() {
-        Long userId = StpUtil.getLoginIdAsLong();
+        ResolvedDataScope scope = dataScopeHelper.getCurrentScope();
 
-        // 获取用户信息
-        SysUser user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return new DataScopeInfo(DataScopeType.DATA_SCOPE_SELF.getCode(),
-                    DataScopeType.DATA_SCOPE_SELF.getDesc(), userId, null, Collections.emptySet());
-        }
+        // 权限最大的数据权限范围（编码最小），无角色时视为仅本人
+        DataScopeType scopeType = scope.widestType();
 
-        // 获取用户角色
-        List<SysRole> roles = roleRepository.findRolesByUserId(userId);
-        if (roles.isEmpty()) {
-            return new DataScopeInfo(DataScopeType.DATA_SCOPE_SELF.getCode(),
-                    DataScopeType.DATA_SCOPE_SELF.getDesc(), userId, user.getDeptId(), Collections.emptySet());
-        }
+        // 仅自定义数据权限时展示自定义部门
+        Set<Long> customDeptIds = scopeType == DataScopeType.DATA_SCOPE_CUSTOM
+                ? scope.customDeptIds()
+                : Collections.emptySet();
 
-        // 找到最小的数据权限范围（权限最大）
-        int minDataScope = roles.stream()
-                .map(SysRole::getDataScope)
-                .filter(Objects::nonNull)
-                .min(Integer::compareTo)
-                .orElse(DataScopeType.DATA_SCOPE_SELF.getCode());
-
-        DataScopeType scopeType = DataScopeType.fromCode(minDataScope);
-
-        // 收集自定义部门
-        Set<Long> customDeptIds = new HashSet<>();
-        if (minDataScope == DataScopeType.DATA_SCOPE_CUSTOM.getCode()) {
-            for (SysRole role : roles) {
-                if (role.getDataScope() != null && role.getDataScope() == DataScopeType.DATA_SCOPE_CUSTOM.getCode()) {
-                    customDeptIds.addAll(role.getDepts().stream()
-                            .map(SysDept::getId)
-                            .collect(Collectors.toSet()));
-                }
-            }
-        }
-
-        return new DataScopeInfo(scopeType.getCode(), scopeType.getDesc(), userId, user.getDeptId(), customDeptIds);
+        return new DataScopeInfo(scopeType.getCode(), scopeType.getDesc(),
+                scope.userId(), scope.deptId(), customDeptIds);
     }
 
     /**
      * 根据ID查询
      */
     @Override
+    @ReadRoute(ReadTarget.REPLICA)
     public TestDataScopeVO findById(Long id) {
         TestDataScope entity = testDataScopeRepository.findById(id)
                 .orElseThrow(() -> new BusinessException(404, "数据不存在"));
@@ -166,7 +171,8 @@ public class TestDataScopeServiceImpl implements TestDataScopeService {
     @Transactional
     public TestDataScopeVO create(TestDataScopeDTO dto) {
         Long userId = StpUtil.getLoginIdAsLong();
-        SysUser user = userRepository.findById(userId)
+        // 查询用户及部门名称
+        SysUserRepository.UserProfile user = userRepository.findProfileById(userId)
                 .orElseThrow(() -> new BusinessException(404, "用户不存在"));
 
         TestDataScope entity = new TestDataScope();
@@ -175,12 +181,7 @@ public class TestDataScopeServiceImpl implements TestDataScopeService {
         entity.setDeptId(user.getDeptId());
         entity.setCreateBy(userId);
         entity.setCreateByName(user.getRealName());
-
-        // 获取部门名称
-        if (user.getDeptId() != null) {
-            deptRepository.findById(user.getDeptId())
-                    .ifPresent(dept -> entity.setDeptName(dept.getDeptName()));
-        }
+        entity.setDeptName(user.getDeptName());
 
         TestDataScope saved = testDataScopeRepository.save(entity);
         log.info("新增测试数据: id={}, title={}, deptId={}, createBy={}",
@@ -230,28 +231,24 @@ public class TestDataScopeServiceImpl implements TestDataScopeService {
      * 检查当前用户是否有权限操作该数据
      */
     private void checkDataPermission(TestDataScope entity) {
+        ResolvedDataScope scope = dataScopeHelper.getCurrentScope();
+
         // 如果有全部权限，直接返回
-        if (dataScopeHelper.hasAllDataScope()) {
+        if (scope.isAll()) {
             return;
         }
 
-        // 获取可访问的部门ID
-        Set<Long> accessibleDeptIds = dataScopeHelper.getAccessibleDeptIds();
-
         // 如果是仅本人权限
-        if (dataScopeHelper.isSelfDataScopeOnly()) {
-            Long userId = StpUtil.getLoginIdAsLong();
-            if (entity.getCreateBy() != null && entity.getCreateBy().equals(userId)) {
+        if (scope.isSelfOnly()) {
+            if (entity.getCreateBy() != null && entity.getCreateBy().equals(scope.userId())) {
                 return;
             }
             throw new BusinessException(403, "没有权限操作此数据");
         }
 
         // 检查部门权限
-        if (accessibleDeptIds != null && entity.getDeptId() != null) {
-            if (accessibleDeptIds.contains(entity.getDeptId())) {
-                return;
-            }
+        if (entity.getDeptId() != null && scope.deptIds().contains(entity.getDeptId())) {
+            return;
         }
 
         throw new BusinessException(403, "没有权限操作此数据");
@@ -0,0 +1,48 @@
+package com.taichu.yingjiguanli.security;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户授权档案
+ * 一次加载用户基本信息、部门名称、角色、权限标识和自定义数据权限部门，
+ * 作为授权缓存、用户信息接口和数据权限解析共同使用的不可变单元
+ *
+ * @param userId        用户ID
+ * @param username      用户名
+ * @param realName      真实姓名
+ * @param avatar        头像
+ * @param deptId        部门ID
+ * @param deptName      部门名称
+ * @param roleIds       有效角色ID列表 (启用且未删除，升序)
+ * @param roleCodes     有效角色编码列表 (与 roleIds 顺序一致)
+ * @param permissions   权限标识列表 (有效角色拥有的启用菜单)
+ * @param roleScopes    未删除角色的数据权限范围 (含已禁用角色，与原数据权限解析保持一致)
+ * @param customDeptIds 自定义数据权限角色指定的部门ID
+ * @param version       档案版本号 (缓存失效后重新加载时变化)
+ * @author CX
+ * @since 2026-01-17
+ */
+public record AuthProfile(
+        Long userId,
+        String username,
+        String realName,
+        String avatar,
+        Long deptId,
+        String deptName,
+        List<Long> roleIds,
+        List<String> roleCodes,
+        List<String> permissions,
+        List<RoleScope> roleScopes,
+        Set<Long> customDeptIds,
+        long version) {
+
+    /**
+     * 角色数据权限范围
+     *
+     * @param roleId    角色ID
+     * @param dataScope 数据权限范围 (可为 null，视为全部数据)
+     */
+    public record RoleScope(Long roleId, Integer dataScope) {
+    }
+}
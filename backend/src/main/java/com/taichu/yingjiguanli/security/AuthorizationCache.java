@@ -0,0 +1,157 @@
+package com.taichu.yingjiguanli.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taichu.yingjiguanli.common.datasource.ReadRouteHelper;
+import com.taichu.yingjiguanli.modules.sys.event.DeptChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.repository.SysAuthProfileJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户授权档案缓存
+ * 缓存每个用户的 {@link AuthProfile} (用户信息、角色、权限标识、数据权限)，
+ * 权限校验、用户信息接口和数据权限解析共用同一份档案，避免各自执行多表关联查询
+ *
+ * <p>容量和过期时间可配置；授权数据变更时通过 {@link AuthorizationChangedEvent} 在事务提交后精确失效，
+ * 部门变更 ({@link DeptChangedEvent}) 时失效该部门用户的档案 (部门名称)。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+@Component
+public class AuthorizationCache {
+
+    private final SysAuthProfileJdbcRepository profileRepository;
+    private final ReadRouteHelper readRouteHelper;
+    private final Cache<Long, AuthProfile> cache;
+    /**
+     * 档案版本号生成器 (每次加载递增，用于生成授权数据 ETag)
+     */
+    private final AtomicLong profileVersion = new AtomicLong();
+
+    public AuthorizationCache(SysAuthProfileJdbcRepository profileRepository,
+                              ReadRouteHelper readRouteHelper,
+                              @Value("${yingji.cache.auth.maximum-size:10000}") long maximumSize,
+                              @Value("${yingji.cache.auth.ttl:10m}") Duration ttl) {
+        this.profileRepository = profileRepository;
+        this.readRouteHelper = readRouteHelper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        log.info("用户授权缓存初始化: maximumSize={}, ttl={}", maximumSize, ttl);
+    }
+
+    /**
+     * 获取用户权限标识列表
+     *
+     * @param userId 用户ID
+     * @return 权限标识列表 (不可变)
+     */
+    public List<String> getPermissions(Long userId) {
+        AuthProfile profile = getProfile(userId);
+        return profile != null ? profile.permissions() : List.of();
+    }
+
+    /**
+     * 获取用户角色编码列表
+     *
+     * @param userId 用户ID
+     * @return 角色编码列表 (不可变)
+     */
+    public List<String> getRoleCodes(Long userId) {
+        AuthProfile profile = getProfile(userId);
+        return profile != null ? profile.roleCodes() : List.of();
+    }
+
+    /**
+     * 获取用户授权档案，未命中时从数据库加载
+     *
+     * @param userId 用户ID
+     * @return 授权档案，用户不存在时为 null (不缓存)
+     */
+    public AuthProfile getProfile(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * 失效指定用户的缓存
+     *
+     * @param userId 用户ID
+     */
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    /**
+     * 失效全部缓存
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 授权数据变更后失效缓存 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChanged(AuthorizationChangedEvent event) {
+        if (event.all()) {
+            log.debug("授权数据变更，失效全部用户授权缓存");
+            cache.invalidateAll();
+        } else if (!event.userIds().isEmpty()) {
+            log.debug("授权数据变更，失效用户授权缓存: userIds={}", event.userIds());
+            cache.invalidateAll(event.userIds());
+        }
+    }
+
+    /**
+     * 部门变更后失效该部门用户的档案 (事务提交后执行，无事务时立即执行)
+     *
+     * @param event 部门变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeptChanged(DeptChangedEvent event) {
+        cache.asMap().values().removeIf(profile -> Objects.equals(profile.deptId(), event.deptId()));
+    }
+
+    /**
+     * 获取缓存统计信息 (命中、未命中、加载耗时等)
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * 从数据库加载用户授权档案
+     */
+    private AuthProfile load(Long userId) {
+        log.debug("加载用户授权档案, userId={}", userId);
+        return readRouteHelper.onPrimary(() -> profileRepository.load(userId, profileVersion.incrementAndGet()));
+    }
+}
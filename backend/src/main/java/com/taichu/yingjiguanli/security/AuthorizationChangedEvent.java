@@ -0,0 +1,45 @@
+package com.taichu.yingjiguanli.security;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 授权数据变更事件
+ * 用户角色、角色菜单、角色数据权限、菜单权限等发生变化时发布，用于精确失效授权缓存
+ *
+ * @param userIds 受影响的用户ID (all 为 true 时忽略)
+ * @param all     是否影响全部用户
+ * @author CX
+ * @since 2026-01-17
+ */
+public record AuthorizationChangedEvent(Set<Long> userIds, boolean all) {
+
+    /**
+     * 指定用户的授权数据发生变化
+     *
+     * @param userIds 用户ID集合
+     * @return 变更事件
+     */
+    public static AuthorizationChangedEvent ofUsers(Collection<Long> userIds) {
+        return new AuthorizationChangedEvent(Set.copyOf(userIds), false);
+    }
+
+    /**
+     * 单个用户的授权数据发生变化
+     *
+     * @param userId 用户ID
+     * @return 变更事件
+     */
+    public static AuthorizationChangedEvent ofUser(Long userId) {
+        return new AuthorizationChangedEvent(Set.of(userId), false);
+    }
+
+    /**
+     * 全部用户的授权数据发生变化 (如菜单权限标识修改)
+     *
+     * @return 变更事件
+     */
+    public static AuthorizationChangedEvent ofAll() {
+        return new AuthorizationChangedEvent(Set.of(), true);
+    }
+}
@@ -1,8 +1,6 @@
 package com.taichu.yingjiguanli.security;
 
 import cn.dev33.satoken.stp.StpInterface;
-import com.taichu.yingjiguanli.modules.sys.repository.SysMenuRepository;
-import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -11,7 +9,7 @@ import java.util.List;
 
 /**
  * Sa-Token 权限认证接口实现
- * 用于获取用户的权限列表和角色列表
+ * 用于获取用户的权限列表和角色列表 (经由 {@link AuthorizationCache} 缓存)
  *
  * @author CX
  * @since 2026-01-13
@@ -21,8 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StpInterfaceImpl implements StpInterface {
 
-    private final SysMenuRepository menuRepository;
-    private final SysRoleRepository roleRepository;
+    private final AuthorizationCache authorizationCache;
 
     /**
      * 返回指定账号拥有的权限码集合
@@ -35,8 +32,8 @@ public class StpInterfaceImpl implements StpInterface {
     public List<String> getPermissionList(Object loginId, String loginType) {
         Long userId = Long.parseLong(loginId.toString());
         log.debug("获取用户权限列表, userId={}", userId);
-        // 从数据库查询用户权限
-        return menuRepository.findPermissionsByUserId(userId);
+        // 从授权缓存获取用户权限 (未命中时查询数据库)
+        return authorizationCache.getPermissions(userId);
     }
 
     /**
@@ -50,7 +47,7 @@ public class StpInterfaceImpl implements StpInterface {
     public List<String> getRoleList(Object loginId, String loginType) {
         Long userId = Long.parseLong(loginId.toString());
         log.debug("获取用户角色列表, userId={}", userId);
-        // 从数据库查询用户角色
-        return roleRepository.findRoleCodesByUserId(userId);
+        // 从授权缓存获取用户角色 (未命中时查询数据库)
+        return authorizationCache.getRoleCodes(userId);
     }
 }
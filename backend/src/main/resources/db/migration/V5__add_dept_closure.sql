@@ -0,0 +1,32 @@
+-- V5__add_dept_closure.sql
+-- 作者: CX
+-- 日期: 2026-01-17
+-- 描述: 添加部门闭包表，支持无递归的子树查询 (数据权限、报表按部门子树过滤)
+
+-- =============================================
+-- 1. 部门闭包表 sys_dept_closure
+-- 每个部门与其所有祖先 (含自身) 各一行，子树查询为 ancestor_id 上的索引范围扫描
+-- =============================================
+CREATE TABLE sys_dept_closure (
+    ancestor_id BIGINT NOT NULL COMMENT '祖先部门ID',
+    descendant_id BIGINT NOT NULL COMMENT '后代部门ID',
+    depth INT NOT NULL DEFAULT 0 COMMENT '层级距离 (0为自身)',
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_descendant_id (descendant_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='部门闭包表';
+
+-- =============================================
+-- 2. 根据现有部门数据初始化闭包关系 (仅未删除部门)
+-- =============================================
+INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE dept_path AS (
+    SELECT id AS ancestor_id, id AS descendant_id, 0 AS depth
+    FROM sys_dept
+    WHERE del_flag = 0
+    UNION ALL
+    SELECT dp.ancestor_id, d.id, dp.depth + 1
+    FROM dept_path dp
+    INNER JOIN sys_dept d ON d.parent_id = dp.descendant_id
+    WHERE d.del_flag = 0
+)
+SELECT ancestor_id, descendant_id, depth FROM dept_path;
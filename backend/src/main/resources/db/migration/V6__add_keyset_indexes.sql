@@ -0,0 +1,16 @@
+-- V6__add_keyset_indexes.sql
+-- 作者: CX
+-- 日期: 2026-01-17
+-- 描述: 添加 (create_time, id) 复合索引，支持用户、数据权限测试列表按创建时间倒序的游标分页
+
+-- =============================================
+-- 1. 用户表：未删除用户按 (create_time, id) 倒序定位下一页
+-- =============================================
+CREATE INDEX idx_del_flag_create_time_id ON sys_user (del_flag, create_time, id);
+
+-- =============================================
+-- 2. 数据权限测试表：创建时间改为非空，保证游标比较不会遗漏数据
+-- =============================================
+UPDATE test_data_scope SET create_time = NOW() WHERE create_time IS NULL;
+ALTER TABLE test_data_scope MODIFY COLUMN create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间';
+CREATE INDEX idx_create_time_id ON test_data_scope (create_time, id);
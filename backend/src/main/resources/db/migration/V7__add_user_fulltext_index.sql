@@ -0,0 +1,16 @@
+-- V7__add_user_fulltext_index.sql
+-- 作者: CX
+-- 日期: 2026-01-17
+-- 描述: 用户表添加 n-gram 全文索引，支持按用户名、真实姓名、手机号关键词检索 (替代前置通配符 LIKE 全表扫描)
+
+-- =============================================
+-- 1. 关闭停用词 (在建索引时生效)
+-- n-gram 分词会丢弃包含停用词 (如 in、at、is) 的词元，用户名中的这类片段将无法被检索到
+-- =============================================
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+-- =============================================
+-- 2. 全文索引 (n-gram 分词，词元长度由服务器参数 ngram_token_size 决定，默认2)
+-- 索引随用户新增、修改、删除自动维护
+-- =============================================
+ALTER TABLE sys_user ADD FULLTEXT INDEX ft_username_real_name_phone (username, real_name, phone) WITH PARSER ngram;
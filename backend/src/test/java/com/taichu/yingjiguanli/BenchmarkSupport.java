@@ -0,0 +1,95 @@
+package com.taichu.yingjiguanli;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * 性能基准计时工具
+ * 先预热若干次 (触发 JIT 编译、填充缓存)，再逐次计时并统计中位数、P99、最小值和每次调用在当前线程上的平均分配量。
+ * 基准测试类标注 {@code @Tag("benchmark")}，默认测试不运行，使用 {@code mvn test -Pbenchmark} 单独运行
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Slf4j
+public final class BenchmarkSupport {
+
+    /**
+     * 防止被测代码的结果被 JIT 消除
+     */
+    private static volatile int sink;
+
+    /**
+     * 线程分配量统计 (HotSpot 扩展，不支持时不统计分配量)
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported() ? threads : null;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 计时结果 (毫秒) 和每次调用的平均分配量 (KB，不支持统计时为 -1)
+     */
+    public record Result(String name, int iterations, double median, double p99, double min, double allocatedKb) {
+
+        @Override
+        public String toString() {
+            return "%-40s median=%9.3f ms  p99=%9.3f ms  min=%9.3f ms  alloc=%9.1f KB  (n=%d)"
+                    .formatted(name, median, p99, min, allocatedKb, iterations);
+        }
+    }
+
+    /**
+     * 预热后逐次计时
+     *
+     * @param name       基准名称
+     * @param warmup     预热次数
+     * @param iterations 计时次数
+     * @param action     被测操作，返回值参与防消除计算
+     * @return 计时结果
+     */
+    public static Result measure(String name, int warmup, int iterations, Supplier<?> action) {
+        for (int i = 0; i < warmup; i++) {
+            consume(action.get());
+        }
+
+        long[] nanos = new long[iterations];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            Object value = action.get();
+            nanos[i] = System.nanoTime() - start;
+            consume(value);
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        Arrays.sort(nanos);
+
+        Result result = new Result(name, iterations,
+                millis(nanos[(iterations - 1) / 2]),
+                millis(nanos[Math.min(iterations - 1, (int) Math.ceil(iterations * 0.99) - 1)]),
+                millis(nanos[0]),
+                THREADS != null ? allocated / 1024.0 / iterations : -1);
+        log.info("基准 {}", result);
+        return result;
+    }
+
+    /**
+     * 当前线程累计分配字节数
+     */
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static void consume(Object value) {
+        sink ^= System.identityHashCode(value);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
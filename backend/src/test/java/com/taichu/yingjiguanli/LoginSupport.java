@@ -0,0 +1,58 @@
+package com.taichu.yingjiguanli;
+
+import cn.dev33.satoken.stp.StpUtil;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * 测试登录工具
+ * 绑定模拟请求后以指定用户登录，使 {@code StpUtil}、数据权限切面等依赖当前登录用户的代码可在测试线程中直接调用服务层。
+ * 每次登录对应一个新的模拟请求，请求范围内缓存的数据 (如已解析的数据权限) 不会跨登录复用
+ *
+ * <pre>
+ * try (LoginSupport.Session ignored = LoginSupport.loginAs(userId)) {
+ *     userService.findPage(query);
+ * }
+ * </pre>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+public final class LoginSupport {
+
+    private LoginSupport() {
+    }
+
+    /**
+     * 以指定用户登录
+     *
+     * @param userId 用户ID
+     * @return 登录会话，关闭时注销并解除模拟请求
+     */
+    public static Session loginAs(Long userId) {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), new MockHttpServletResponse()));
+        StpUtil.login(userId);
+        return new Session();
+    }
+
+    /**
+     * 登录会话
+     */
+    public static final class Session implements AutoCloseable {
+
+        private Session() {
+        }
+
+        @Override
+        public void close() {
+            try {
+                StpUtil.logout();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
+    }
+}
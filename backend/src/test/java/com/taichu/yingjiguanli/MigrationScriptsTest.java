@@ -0,0 +1,70 @@
+package com.taichu.yingjiguanli;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 迁移脚本一致性检查
+ * 测试使用的 H2 迁移脚本 (db/h2) 是 MySQL 迁移脚本 (db/migration) 的手工改写版本，
+ * 每个 H2 脚本在文件头记录对应 MySQL 脚本的 CRC32。新增或修改 MySQL 迁移后，
+ * 需同步改写 H2 脚本并更新校验和，否则本测试失败
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+class MigrationScriptsTest {
+
+    private static final Pattern SOURCE_CRC = Pattern.compile("^-- 源脚本 CRC32: ([0-9a-f]{8})$", Pattern.MULTILINE);
+
+    @Test
+    void h2ScriptsMatchMySqlScripts() throws IOException {
+        Map<String, Resource> mysql = scripts("classpath:db/migration/*.sql");
+        Map<String, Resource> h2 = scripts("classpath:db/h2/*.sql");
+        assertThat(mysql).isNotEmpty();
+        assertThat(h2.keySet())
+                .as("db/h2 与 db/migration 的脚本文件应一一对应")
+                .containsExactlyElementsOf(mysql.keySet());
+
+        for (Map.Entry<String, Resource> entry : mysql.entrySet()) {
+            String h2Script = entry.getValue().getFilename();
+            Matcher matcher = SOURCE_CRC.matcher(h2.get(entry.getKey()).getContentAsString(StandardCharsets.UTF_8));
+            assertThat(matcher.find())
+                    .as("%s 的 H2 版本缺少源脚本 CRC32", h2Script)
+                    .isTrue();
+            assertThat(matcher.group(1))
+                    .as("%s 已修改，需同步更新 db/h2 中的 H2 版本及其源脚本 CRC32", h2Script)
+                    .isEqualTo(crc32(entry.getValue()));
+        }
+    }
+
+    /**
+     * 按文件名列出脚本
+     */
+    private static Map<String, Resource> scripts(String pattern) throws IOException {
+        Map<String, Resource> result = new TreeMap<>();
+        Arrays.stream(new PathMatchingResourcePatternResolver().getResources(pattern))
+                .forEach(resource -> result.put(resource.getFilename(), resource));
+        return result;
+    }
+
+    /**
+     * 计算脚本内容的 CRC32 (8 位小写十六进制)
+     */
+    private static String crc32(Resource resource) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(resource.getContentAsByteArray());
+        return "%08x".formatted(crc.getValue());
+    }
+}
@@ -0,0 +1,28 @@
+package com.taichu.yingjiguanli;
+
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.EnabledIfDockerAvailable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * MySQL 集成测试
+ * 使用 Testcontainers 启动的 MySQL 8，执行 db/migration 中的正式迁移脚本 (包括闭包表初始化和 n-gram 全文索引)，
+ * 本机没有 Docker 时跳过
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@EnabledIfDockerAvailable
+@Import(MySqlTestConfiguration.class)
+@ActiveProfiles(value = "mysql-test", inheritProfiles = false)
+public @interface MySqlTest {
+}
@@ -0,0 +1,23 @@
+package com.taichu.yingjiguanli;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.mysql.MySQLContainer;
+
+/**
+ * MySQL 容器测试配置
+ * 容器随测试上下文启动，数据源连接信息由 {@link ServiceConnection} 提供
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MySqlTestConfiguration {
+
+    @Bean
+    @ServiceConnection
+    MySQLContainer mysqlContainer() {
+        return new MySQLContainer("mysql:8.0");
+    }
+}
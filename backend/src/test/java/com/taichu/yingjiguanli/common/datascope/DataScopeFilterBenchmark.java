@@ -0,0 +1,153 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import com.taichu.yingjiguanli.BenchmarkSupport;
+import com.taichu.yingjiguanli.LoginSupport;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserQueryDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserRoleDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysRoleService;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 数据权限过滤方案性能基准 (本部门及下级，子树 10 / 1k / 10k 个部门，每个部门 2 个用户)
+ * 同一用户分别以内联部门ID (阈值不限) 和闭包表子查询 (阈值 0) 执行用户分页查询 (首页 20 条，不统计总数)
+ * 和全量导出。H2 的计划与 MySQL 不同，结果只用于对比两种方案的相对开销；
+ * MySQL 上的数据见 {@code DataScopeFilterMySqlBenchmark}。运行: mvn test -Pbenchmark -Dtest='DataScopeFilter*Benchmark'
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DataScopeFilterBenchmark {
+
+    private static final int DEFAULT_THRESHOLD = 200;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private SysUserService userService;
+
+    @Autowired
+    private SysRoleService roleService;
+
+    @Autowired
+    private DataScopeAspect dataScopeAspect;
+
+    @Autowired
+    private DataScopeHelper dataScopeHelper;
+
+    private final List<DataScopeFixture> fixtures = new ArrayList<>();
+
+    @AfterAll
+    void cleanUpData() {
+        fixtures.forEach(DataScopeFixture::cleanup);
+    }
+
+    @AfterEach
+    void restoreThreshold() {
+        setThreshold(DEFAULT_THRESHOLD);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 10_000})
+    void deptAndChild(int deptCount) {
+        Long userId = createLoginUser(deptCount);
+
+        List<Integer> inlineRows = new ArrayList<>();
+        List<Integer> subqueryRows = new ArrayList<>();
+        for (boolean inline : new boolean[]{true, false}) {
+            setThreshold(inline ? Integer.MAX_VALUE : 0);
+            String name = (inline ? "内联部门ID" : "闭包表子查询") + " depts=" + deptCount;
+            try (LoginSupport.Session ignored = LoginSupport.loginAs(userId)) {
+                BenchmarkSupport.measure("用户分页 " + name, 10, 30, this::firstPage);
+                BenchmarkSupport.measure("用户导出 " + name, 3, 10, this::exportRowCount);
+                (inline ? inlineRows : subqueryRows).add(exportRowCount());
+            }
+        }
+        assertThat(subqueryRows).isEqualTo(inlineRows).containsExactly(deptCount * 2 + 1);
+    }
+
+    /**
+     * 创建部门树 (约 deptCount 个部门) 及拥有本部门及下级数据权限的登录用户
+     */
+    private Long createLoginUser(int deptCount) {
+        DataScopeFixture fixture = new DataScopeFixture(context, "dsb" + deptCount + "x" + Long.toString(System.nanoTime(), 36));
+        fixtures.add(fixture);
+        List<List<Long>> levels = switch (deptCount) {
+            case 10 -> fixture.createTree(9);
+            case 1_000 -> fixture.createTree(9, 110);
+            default -> fixture.createTree(99, 100);
+        };
+        List<Long> deptIds = levels.stream().flatMap(List::stream).toList();
+        assertThat(deptIds).hasSize(deptCount);
+        fixture.createUsers(deptIds, 2);
+
+        String code = fixture.roleCode("child");
+        RoleCreateDTO role = new RoleCreateDTO();
+        role.setRoleName(code);
+        role.setRoleCode(code);
+        role.setDataScope(DataScopeType.DATA_SCOPE_DEPT_AND_CHILD.getCode());
+        Long roleId = roleService.create(role).getId();
+
+        Long userId = fixture.createUsers(List.of(levels.getFirst().getFirst()), 1).getFirst();
+        UserRoleDTO userRole = new UserRoleDTO();
+        userRole.setRoleIds(List.of(roleId));
+        userService.assignRoles(userId, userRole);
+        return userId;
+    }
+
+    private Object firstPage() {
+        UserQueryDTO query = new UserQueryDTO();
+        query.setSize(20);
+        query.setWithTotal(false);
+        return userService.findPage(query);
+    }
+
+    private int exportRowCount() {
+        int[] rows = {0};
+        try {
+            userService.export(new UserQueryDTO(), new ExportWriter() {
+                @Override
+                public void writeRow(Object... values) {
+                    rows[0]++;
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // 不计表头
+        return rows[0] - 1;
+    }
+
+    private void setThreshold(int threshold) {
+        ReflectionTestUtils.setField(dataScopeAspect, "inlineThreshold", threshold);
+        ReflectionTestUtils.setField(dataScopeHelper, "inlineThreshold", threshold);
+    }
+}
@@ -0,0 +1,13 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import com.taichu.yingjiguanli.MySqlTest;
+
+/**
+ * 数据权限过滤方案性能基准 (MySQL，使用正式迁移脚本)
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@MySqlTest
+class DataScopeFilterMySqlBenchmark extends DataScopeFilterBenchmark {
+}
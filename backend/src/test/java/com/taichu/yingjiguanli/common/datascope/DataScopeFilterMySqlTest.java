@@ -0,0 +1,13 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import com.taichu.yingjiguanli.MySqlTest;
+
+/**
+ * 数据权限过滤方案一致性测试 (MySQL，使用正式迁移脚本)
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@MySqlTest
+class DataScopeFilterMySqlTest extends DataScopeFilterTest {
+}
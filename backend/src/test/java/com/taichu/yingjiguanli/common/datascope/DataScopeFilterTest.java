@@ -0,0 +1,236 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import com.taichu.yingjiguanli.LoginSupport;
+import com.taichu.yingjiguanli.common.export.ExportWriter;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserQueryDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserRoleDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysRoleService;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import com.taichu.yingjiguanli.modules.sys.vo.UserVO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 数据权限过滤方案一致性测试
+ * 可访问部门数在内联阈值两侧时分别使用内联部门ID和闭包表/角色部门子查询，
+ * 断言同一用户在阈值为 0 (总是子查询)、200 (默认) 和不限 (总是内联) 时，
+ * Specification 分页查询与原生 SQL 导出返回的用户完全相同，且等于按闭包表独立计算的结果
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DataScopeFilterTest {
+
+    private static final int DEFAULT_THRESHOLD = 200;
+    private static final List<Integer> THRESHOLDS = List.of(0, DEFAULT_THRESHOLD, Integer.MAX_VALUE);
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private SysUserService userService;
+
+    @Autowired
+    private SysRoleService roleService;
+
+    @Autowired
+    private DataScopeResolver dataScopeResolver;
+
+    @Autowired
+    private DataScopeAspect dataScopeAspect;
+
+    @Autowired
+    private DataScopeHelper dataScopeHelper;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private DataScopeFixture fixture;
+    private List<List<Long>> levels;
+    private List<Long> customDeptIds;
+    private int roles;
+
+    @BeforeAll
+    void setUpData() {
+        fixture = new DataScopeFixture(context, "dsf" + Long.toString(System.nanoTime(), 36));
+        // 1 + 15 + 300 个部门，每个部门 2 个用户
+        levels = fixture.createTree(15, 20);
+        fixture.createUsers(levels.stream().flatMap(List::stream).toList(), 2);
+
+        // 自定义部门: 随机 250 个叶子部门 (超过默认阈值)
+        List<Long> leaves = new ArrayList<>(levels.get(2));
+        Collections.shuffle(leaves, new Random(7));
+        customDeptIds = List.copyOf(leaves.subList(0, 250));
+    }
+
+    @AfterAll
+    void cleanUpData() {
+        fixture.cleanup();
+    }
+
+    @AfterEach
+    void restoreThreshold() {
+        setThreshold(DEFAULT_THRESHOLD);
+    }
+
+    @Test
+    void deptAndChildAboveThreshold() {
+        Long root = levels.get(0).getFirst();
+        Long userId = loginUser(root, role(DataScopeType.DATA_SCOPE_DEPT_AND_CHILD, List.of()));
+
+        assertThat(DataScopeFilter.of(dataScopeResolver.resolve(userId), DEFAULT_THRESHOLD).hasDeptSubtree()).isTrue();
+        assertSameRowsOnBothSides(userId, usersInDepts(subtree(root)));
+    }
+
+    @Test
+    void deptAndChildBelowThreshold() {
+        Long middle = levels.get(1).getFirst();
+        Long userId = loginUser(middle, role(DataScopeType.DATA_SCOPE_DEPT_AND_CHILD, List.of()));
+
+        assertThat(DataScopeFilter.of(dataScopeResolver.resolve(userId), DEFAULT_THRESHOLD).hasDeptSubtree()).isFalse();
+        assertSameRowsOnBothSides(userId, usersInDepts(subtree(middle)));
+    }
+
+    @Test
+    void customDeptsAboveThreshold() {
+        Long userId = loginUser(levels.get(1).get(1), role(DataScopeType.DATA_SCOPE_CUSTOM, customDeptIds));
+
+        assertThat(DataScopeFilter.of(dataScopeResolver.resolve(userId), DEFAULT_THRESHOLD).hasCustomRoles()).isTrue();
+        assertSameRowsOnBothSides(userId, usersInDepts(customDeptIds));
+    }
+
+    @Test
+    void customDeptsWithSelf() {
+        Long userId = loginUser(levels.get(1).get(2),
+                role(DataScopeType.DATA_SCOPE_CUSTOM, customDeptIds), role(DataScopeType.DATA_SCOPE_SELF, List.of()));
+
+        Set<Long> expected = usersInDepts(customDeptIds);
+        expected.add(userId);
+        assertSameRowsOnBothSides(userId, expected);
+    }
+
+    @Test
+    void ownDeptWithCustomDepts() {
+        Long ownDept = levels.get(1).get(3);
+        Long userId = loginUser(ownDept,
+                role(DataScopeType.DATA_SCOPE_DEPT, List.of()), role(DataScopeType.DATA_SCOPE_CUSTOM, customDeptIds));
+
+        List<Long> deptIds = new ArrayList<>(customDeptIds);
+        deptIds.add(ownDept);
+        assertSameRowsOnBothSides(userId, usersInDepts(deptIds));
+    }
+
+    /**
+     * 断言各阈值下分页查询和导出均返回预期用户
+     */
+    private void assertSameRowsOnBothSides(Long userId, Set<Long> expected) {
+        for (int threshold : THRESHOLDS) {
+            setThreshold(threshold);
+            try (LoginSupport.Session ignored = LoginSupport.loginAs(userId)) {
+                assertThat(pageIds()).as("分页查询 threshold=%d", threshold)
+                        .containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(exportIds()).as("导出 threshold=%d", threshold)
+                        .containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+    }
+
+    private List<Long> pageIds() {
+        UserQueryDTO query = new UserQueryDTO();
+        query.setSize(10_000);
+        query.setWithTotal(false);
+        return userService.findPage(query).getContent().stream().map(UserVO::getId).toList();
+    }
+
+    private List<Long> exportIds() {
+        List<Long> ids = new ArrayList<>();
+        try {
+            userService.export(new UserQueryDTO(), new ExportWriter() {
+                @Override
+                public void writeRow(Object... values) {
+                    if (values[0] instanceof Long id) {
+                        ids.add(id);
+                    }
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return ids;
+    }
+
+    private void setThreshold(int threshold) {
+        ReflectionTestUtils.setField(dataScopeAspect, "inlineThreshold", threshold);
+        ReflectionTestUtils.setField(dataScopeHelper, "inlineThreshold", threshold);
+    }
+
+    /**
+     * 创建登录用户并分配角色
+     */
+    private Long loginUser(Long deptId, Long... roleIds) {
+        Long userId = fixture.createUsers(List.of(deptId), 1).getFirst();
+        UserRoleDTO dto = new UserRoleDTO();
+        dto.setRoleIds(List.of(roleIds));
+        userService.assignRoles(userId, dto);
+        return userId;
+    }
+
+    /**
+     * 创建指定数据权限的角色
+     */
+    private Long role(DataScopeType scopeType, List<Long> deptIds) {
+        String code = fixture.roleCode(scopeType.getCode() + "n" + roles++);
+        RoleCreateDTO dto = new RoleCreateDTO();
+        dto.setRoleName(code);
+        dto.setRoleCode(code);
+        dto.setDataScope(scopeType.getCode());
+        dto.setDeptIds(deptIds);
+        return roleService.create(dto).getId();
+    }
+
+    /**
+     * 闭包表中部门及其全部下级
+     */
+    private List<Long> subtree(Long deptId) {
+        return jdbcTemplate.queryForList("SELECT descendant_id FROM sys_dept_closure WHERE ancestor_id = :deptId",
+                Map.of("deptId", deptId), Long.class);
+    }
+
+    /**
+     * 指定部门中未删除的用户
+     */
+    private Set<Long> usersInDepts(Collection<Long> deptIds) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM sys_user WHERE del_flag = 0 AND dept_id IN (:deptIds)",
+                Map.of("deptIds", deptIds), Long.class));
+    }
+}
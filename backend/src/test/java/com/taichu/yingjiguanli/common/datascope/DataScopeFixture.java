@@ -0,0 +1,168 @@
+package com.taichu.yingjiguanli.common.datascope;
+
+import com.taichu.yingjiguanli.common.page.TableChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.cache.DeptHierarchyIndex;
+import com.taichu.yingjiguanli.modules.sys.cache.DeptTreeCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据权限测试数据
+ * 直接经 JDBC 批量写入部门树 (含闭包关系) 和用户，避免逐条经服务层创建上万条数据；
+ * 写入和清理后重载部门层级索引、部门树快照并清空二级缓存，使服务层读取到一致的数据。
+ * 部门名称、用户名和角色编码均以前缀 (字母数字) 开头，{@link #cleanup()} 按前缀删除
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+final class DataScopeFixture {
+
+    private static final String PASSWORD = "$2a$10$7JB720yubVSZvUI0rEqK/.VqGOZTH.ulu33dHOiBE8ByOhJIrdAu2";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationContext context;
+    private final String prefix;
+    private final Map<Long, Long> parents = new HashMap<>();
+    private int userBatches;
+
+    DataScopeFixture(ApplicationContext context, String prefix) {
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.context = context;
+        this.prefix = prefix;
+    }
+
+    /**
+     * 创建部门树 (一个顶级部门，逐层按扇出创建下级)
+     *
+     * @param fanouts 每层每个部门的下级数量
+     * @return 各层部门ID (第 0 层为顶级部门)
+     */
+    List<List<Long>> createTree(int... fanouts) {
+        List<List<Long>> levels = new ArrayList<>();
+        levels.add(insertDepts(0, List.of(0L), 1));
+        for (int level = 0; level < fanouts.length; level++) {
+            levels.add(insertDepts(level + 1, levels.get(level), fanouts[level]));
+        }
+
+        // 闭包关系: 每个部门与其全部祖先 (含自身)
+        List<Object[]> links = new ArrayList<>();
+        for (List<Long> ids : levels) {
+            for (Long id : ids) {
+                int depth = 0;
+                for (Long current = id; parents.containsKey(current); current = parents.get(current)) {
+                    links.add(new Object[]{current, id, depth++});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)", links);
+        refreshCaches();
+        return levels;
+    }
+
+    /**
+     * 在每个部门下创建用户
+     *
+     * @param deptIds 部门ID
+     * @param perDept 每个部门的用户数
+     * @return 用户ID
+     */
+    List<Long> createUsers(Collection<Long> deptIds, int perDept) {
+        String batch = prefix + "u" + userBatches++ + "n";
+        List<Object[]> rows = new ArrayList<>();
+        int index = 0;
+        for (Long deptId : deptIds) {
+            for (int i = 0; i < perDept; i++) {
+                rows.add(new Object[]{batch + index++, PASSWORD, "数据权限测试用户", deptId});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO sys_user (username, password, real_name, dept_id, status, del_flag) VALUES (?, ?, ?, ?, 1, 0)",
+                rows);
+        context.publishEvent(new TableChangedEvent("sys_user"));
+        return jdbcTemplate.queryForList("SELECT id FROM sys_user WHERE username LIKE ? ORDER BY id", Long.class,
+                batch + "%");
+    }
+
+    /**
+     * 角色编码 (以前缀开头，{@link #cleanup()} 时删除)
+     *
+     * @param name 名称
+     * @return 角色编码
+     */
+    String roleCode(String name) {
+        return prefix + "r" + name;
+    }
+
+    /**
+     * 删除本前缀下的全部用户、角色、部门及关联数据
+     */
+    void cleanup() {
+        String deptPattern = prefix + "-%";
+        String userPattern = prefix + "u%";
+        String rolePattern = prefix + "r%";
+        jdbcTemplate.update("DELETE FROM sys_user_role WHERE user_id IN (SELECT id FROM sys_user WHERE username LIKE ?)",
+                userPattern);
+        jdbcTemplate.update("DELETE FROM sys_user WHERE username LIKE ?", userPattern);
+        for (String relation : List.of("sys_user_role", "sys_role_menu", "sys_role_dept")) {
+            jdbcTemplate.update("DELETE FROM " + relation
+                    + " WHERE role_id IN (SELECT id FROM sys_role WHERE role_code LIKE ?)", rolePattern);
+        }
+        jdbcTemplate.update("DELETE FROM sys_role WHERE role_code LIKE ?", rolePattern);
+        jdbcTemplate.update("DELETE FROM sys_role_dept WHERE dept_id IN (SELECT id FROM sys_dept WHERE dept_name LIKE ?)",
+                deptPattern);
+        jdbcTemplate.update("DELETE FROM sys_dept_closure WHERE descendant_id IN "
+                + "(SELECT id FROM sys_dept WHERE dept_name LIKE ?)", deptPattern);
+        jdbcTemplate.update("DELETE FROM sys_dept WHERE dept_name LIKE ?", deptPattern);
+        parents.clear();
+        context.publishEvent(new TableChangedEvent("sys_user"));
+        refreshCaches();
+    }
+
+    /**
+     * 批量插入一层部门，按名称查回ID
+     */
+    private List<Long> insertDepts(int level, List<Long> parentIds, int fanout) {
+        String levelPrefix = prefix + "-" + level + "-";
+        List<Object[]> rows = new ArrayList<>();
+        Map<String, Long> parentByName = new HashMap<>();
+        int index = 0;
+        for (Long parentId : parentIds) {
+            for (int i = 0; i < fanout; i++) {
+                String name = levelPrefix + index++;
+                rows.add(new Object[]{parentId, name, i});
+                parentByName.put(name, parentId);
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO sys_dept (parent_id, dept_name, sort, status, del_flag) VALUES (?, ?, ?, 1, 0)", rows);
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        jdbcTemplate.query("SELECT id, dept_name FROM sys_dept WHERE dept_name LIKE ? ORDER BY id",
+                rs -> {
+                    Long id = rs.getLong("id");
+                    Long parentId = parentByName.get(rs.getString("dept_name"));
+                    if (parentId != null) {
+                        ids.add(id);
+                        parents.put(id, parentId);
+                    }
+                }, levelPrefix + "%");
+        return ids;
+    }
+
+    /**
+     * 重载部门层级索引、部门树快照并清空二级缓存
+     */
+    private void refreshCaches() {
+        context.getBean(DeptHierarchyIndex.class).refresh();
+        context.getBean(DeptTreeCache.class).refresh();
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+    }
+}
@@ -0,0 +1,249 @@
+package com.taichu.yingjiguanli.common.datasource;
+
+import com.taichu.yingjiguanli.LoginSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 主库/只读副本路由测试
+ * 主库和副本为两个独立的 H2 内存库，各有一行标记数据，按读到的标记判断语句实际使用的数据源。
+ * 断言只读事务和标注读副本的非事务读路径使用副本，读写事务、未标注的读和显式指定主库使用主库，
+ * 以及会话写入后的粘滞、复制延迟超限和获取副本连接失败三种情况回退主库
+ *
+ * <p>使用共享的测试应用上下文提供 Sa-Token 会话，路由数据源在测试内单独创建，不替换应用数据源。</p>
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTest {
+
+    private static final Long ADMIN_ID = 1L;
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    /**
+     * 检查间隔 (足够长，初次检查后由测试调用 {@link #checkLag()} 触发检查，结果不受后台线程时序影响)
+     */
+    private static final Duration CHECK_INTERVAL = Duration.ofHours(1);
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private FailingDataSource replicaPool;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        primary = new JdbcTemplate(database("replica_test_primary_" + suffix, "primary"));
+        DataSource replicaDataSource = database("replica_test_replica_" + suffix, "replica");
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        replica.update("INSERT INTO replica_lag (seconds) VALUES (0)");
+
+        // 延迟监控直连副本，路由使用可模拟连接失败的副本连接池
+        replicaPool = new FailingDataSource(replicaDataSource);
+        lagMonitor = new ReplicaLagMonitor(replicaDataSource, "SELECT seconds FROM replica_lag", MAX_LAG,
+                CHECK_INTERVAL);
+        routingDataSource = new ReplicaRoutingDataSource(primary.getDataSource(), replicaPool, lagMonitor,
+                Duration.ofSeconds(10), 100);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        awaitFirstCheck();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lagMonitor.close();
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertThat(marker(readOnly)).isEqualTo("replica");
+        assertThat(marker(readWrite)).isEqualTo("primary");
+        assertThat(marker()).as("未标注的非事务读").isEqualTo("primary");
+
+        // 非事务读路径标注读副本
+        assertThat(withReadRoute(ReadTarget.REPLICA, this::marker)).isEqualTo("replica");
+
+        // 只读事务中显式指定主库
+        assertThat(withReadRoute(ReadTarget.PRIMARY, () -> marker(readOnly))).isEqualTo("primary");
+
+        // 读写事务不受读路由影响
+        assertThat(withReadRoute(ReadTarget.REPLICA, () -> marker(readWrite))).isEqualTo("primary");
+    }
+
+    @Test
+    void sessionReadsPrimaryAfterWrite() {
+        try (LoginSupport.Session ignored = LoginSupport.loginAs(ADMIN_ID)) {
+            assertThat(marker(readOnly)).isEqualTo("replica");
+
+            // 回滚的读写事务不触发粘滞
+            readWrite.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE marker SET name = name");
+                status.setRollbackOnly();
+            });
+            assertThat(marker(readOnly)).isEqualTo("replica");
+
+            // 提交后本会话读主库
+            readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET name = name"));
+            assertThat(marker(readOnly)).isEqualTo("primary");
+            assertThat(withReadRoute(ReadTarget.REPLICA, this::marker)).isEqualTo("primary");
+        }
+
+        // 其他会话不受影响
+        try (LoginSupport.Session ignored = LoginSupport.loginAs(ADMIN_ID)) {
+            assertThat(marker(readOnly)).isEqualTo("replica");
+        }
+        assertThat(routingDataSource.stats()).containsEntry("stickyFallbackCount", 2L);
+    }
+
+    @Test
+    void readsPrimaryWhileReplicaLags() {
+        replica.update("UPDATE replica_lag SET seconds = ?", MAX_LAG.toSeconds() + 3600);
+        checkLag();
+        assertThat(lagMonitor.isAvailable()).isFalse();
+
+        assertThat(marker(readOnly)).isEqualTo("primary");
+        assertThat(withReadRoute(ReadTarget.REPLICA, this::marker)).isEqualTo("primary");
+        assertThat(routingDataSource.stats()).containsEntry("lagFallbackCount", 2L);
+        assertThat(lagMonitor.stats()).containsEntry("lagSeconds", MAX_LAG.toSeconds() + 3600)
+                .containsEntry("available", false);
+
+        // 延迟恢复到上限以内
+        replica.update("UPDATE replica_lag SET seconds = ?", MAX_LAG.toSeconds());
+        checkLag();
+        assertThat(marker(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsPrimaryWhenReplicaConnectionFails() {
+        replicaPool.failing = true;
+
+        // 本次读取回退主库，并在下一次延迟检查成功前不再路由到副本
+        assertThat(marker(readOnly)).isEqualTo("primary");
+        assertThat(lagMonitor.isAvailable()).isFalse();
+        assertThat(replicaPool.attempts).isEqualTo(1);
+        assertThat(marker(readOnly)).isEqualTo("primary");
+        assertThat(replicaPool.attempts).as("标记不可用后不再尝试副本").isEqualTo(1);
+
+        // 副本恢复后下一次检查成功即重新使用副本
+        replicaPool.failing = false;
+        checkLag();
+        assertThat(marker(readOnly)).isEqualTo("replica");
+    }
+
+    /**
+     * 读取当前连接所在库的标记
+     */
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    /**
+     * 在事务中读取标记
+     */
+    private String marker(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> marker());
+    }
+
+    /**
+     * 在指定读路由下执行 (同 {@link ReadRouteAspect})
+     */
+    private static String withReadRoute(ReadTarget target, Supplier<String> action) {
+        ReadTarget previous = ReadRouteContext.set(target);
+        try {
+            return action.get();
+        } finally {
+            ReadRouteContext.restore(previous);
+        }
+    }
+
+    /**
+     * 创建独立的内存库并写入标记
+     */
+    private static DataSource database(String name, String marker) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE marker (name VARCHAR(20))");
+        template.update("INSERT INTO marker (name) VALUES (?)", marker);
+        return dataSource;
+    }
+
+    /**
+     * 执行一次延迟检查
+     */
+    private void checkLag() {
+        ReflectionTestUtils.invokeMethod(lagMonitor, "check");
+    }
+
+    /**
+     * 等待后台线程完成启动后的首次检查
+     */
+    private void awaitFirstCheck() {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!lagMonitor.isAvailable()) {
+            assertThat(System.nanoTime()).as("等待首次延迟检查超时").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 可模拟获取连接失败的副本连接池
+     */
+    private static final class FailingDataSource extends DelegatingDataSource {
+
+        private volatile boolean failing;
+        private volatile int attempts;
+
+        FailingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                attempts++;
+                throw new SQLException("模拟副本连接失败");
+            }
+            return super.getConnection();
+        }
+    }
+}
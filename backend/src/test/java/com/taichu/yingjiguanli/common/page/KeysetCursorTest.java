@@ -0,0 +1,81 @@
+package com.taichu.yingjiguanli.common.page;
+
+import com.taichu.yingjiguanli.common.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 游标编解码测试 (往返一致、首页、URL 安全、无效游标)
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+class KeysetCursorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2026-01-17T08:30:15.123456789", "2026-01-17T08:30:15.5", "2026-01-17T08:30",
+            "1999-12-31T23:59:59"})
+    void roundTripKeepsCreateTimeAndId(String createTime) {
+        LocalDateTime time = LocalDateTime.parse(createTime);
+
+        KeysetScrollPosition position = KeysetCursor.decode(KeysetCursor.encode(position(time, 9_007_199_254_740_993L)));
+
+        assertThat(position.getDirection()).isEqualTo(ScrollPosition.Direction.FORWARD);
+        assertThat(position.getKeys()).containsExactly(
+                Map.entry("createTime", time), Map.entry("id", 9_007_199_254_740_993L));
+    }
+
+    @Test
+    void blankCursorIsFirstPage() {
+        assertThat(KeysetCursor.decode(null).isInitial()).isTrue();
+        assertThat(KeysetCursor.decode("").isInitial()).isTrue();
+        assertThat(KeysetCursor.decode("  ").isInitial()).isTrue();
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        // 遍历多种取值，标准 Base64 编码时会出现 '+'、'/' 和填充字符
+        for (long id = 1; id < 200; id++) {
+            String cursor = KeysetCursor.encode(position(LocalDateTime.of(2026, 1, 17, 8, 30, 15, 999_000_000), id));
+            assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "a+b/c", "%%%"})
+    void malformedCursorIsRejected(String cursor) {
+        assertInvalid(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"|1", "2026-01-17T08:30|", "2026-01-17T08:30|abc", "2026-13-01T00:00|1",
+            "2026-01-17T08:30", "1|2026-01-17T08:30"})
+    void cursorWithInvalidKeysIsRejected(String value) {
+        assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("分页游标无效");
+    }
+
+    private static KeysetScrollPosition position(LocalDateTime createTime, long id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createTime", createTime);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,95 @@
+package com.taichu.yingjiguanli.common.page;
+
+import com.taichu.yingjiguanli.LoginSupport;
+import com.taichu.yingjiguanli.modules.sys.dto.UserCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserQueryDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分页总条数缓存失效测试
+ * 断言 {@link TableChangedEvent} 在事务提交后才失效缓存、回滚时不失效，
+ * 以及经服务层新增、删除用户后分页总条数立即更新
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PageCountCacheInvalidationTest {
+
+    private static final Long ADMIN_ID = 1L;
+
+    @Autowired
+    private PageCountCache pageCountCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SysUserService userService;
+
+    @Test
+    void invalidatesAfterCommitOnly() {
+        String table = "page_count_test_" + System.nanoTime();
+        List<Object> filter = PageCountCache.filter();
+        AtomicInteger counts = new AtomicInteger();
+        pageCountCache.count(table, filter, null, counts::incrementAndGet);
+
+        // 事务内发布: 提交前仍命中缓存
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new TableChangedEvent(table));
+            assertThat(pageCountCache.count(table, filter, null, counts::incrementAndGet)).isEqualTo(1);
+        });
+        assertThat(pageCountCache.count(table, filter, null, counts::incrementAndGet)).isEqualTo(2);
+
+        // 回滚: 不失效
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new TableChangedEvent(table));
+            status.setRollbackOnly();
+        });
+        assertThat(pageCountCache.count(table, filter, null, counts::incrementAndGet)).isEqualTo(2);
+
+        // 无事务: 立即失效
+        eventPublisher.publishEvent(new TableChangedEvent(table));
+        assertThat(pageCountCache.count(table, filter, null, counts::incrementAndGet)).isEqualTo(3);
+    }
+
+    @Test
+    void userPageTotalFollowsServiceChanges() {
+        try (LoginSupport.Session ignored = LoginSupport.loginAs(ADMIN_ID)) {
+            long before = total();
+            // 命中缓存
+            assertThat(total()).isEqualTo(before);
+
+            UserCreateDTO dto = new UserCreateDTO();
+            dto.setUsername("pcc" + Long.toString(System.nanoTime(), 36));
+            dto.setPassword("pass123");
+            Long userId = userService.create(dto).getId();
+            assertThat(total()).isEqualTo(before + 1);
+
+            userService.delete(userId);
+            assertThat(total()).isEqualTo(before);
+        }
+    }
+
+    private long total() {
+        UserQueryDTO query = new UserQueryDTO();
+        query.setSize(1);
+        query.setWithTotal(true);
+        return userService.findPage(query).getTotalElements();
+    }
+}
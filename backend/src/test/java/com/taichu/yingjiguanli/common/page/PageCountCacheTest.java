@@ -0,0 +1,96 @@
+package com.taichu.yingjiguanli.common.page;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分页总条数缓存测试 (缓存键、按表失效、统计期间发生变更、不统计总条数)
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+class PageCountCacheTest {
+
+    private final PageCountCache cache = new PageCountCache(1_000, Duration.ofMinutes(5));
+    private final AtomicInteger counts = new AtomicInteger();
+
+    @Test
+    void sameQueryIsCountedOnce() {
+        List<Object> filter = PageCountCache.filter("name", 1);
+
+        assertThat(cache.count("sys_user", filter, "all", counter(5))).isEqualTo(5);
+        assertThat(cache.count("sys_user", filter, "all", counter(6))).isEqualTo(5);
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    void blankFilterEqualsUnsetAndDifferentScopesAreSeparate() {
+        cache.count("sys_user", PageCountCache.filter(null, 1), "all", counter(5));
+
+        assertThat(cache.count("sys_user", PageCountCache.filter("  ", 1), "all", counter(6))).isEqualTo(5);
+        assertThat(cache.count("sys_user", PageCountCache.filter("", 1), "all", counter(6))).isEqualTo(5);
+        assertThat(cache.count("sys_user", PageCountCache.filter("a", 1), "all", counter(7))).isEqualTo(7);
+        assertThat(cache.count("sys_user", PageCountCache.filter(null, 1), "dept:3", counter(8))).isEqualTo(8);
+        assertThat(counts).hasValue(3);
+    }
+
+    @Test
+    void tableChangeInvalidatesOnlyThatTable() {
+        List<Object> filter = PageCountCache.filter();
+        cache.count("sys_user", filter, null, counter(5));
+        cache.count("sys_role", filter, null, counter(2));
+
+        cache.onTableChanged(new TableChangedEvent("sys_user"));
+
+        assertThat(cache.count("sys_user", filter, null, counter(6))).isEqualTo(6);
+        assertThat(cache.count("sys_role", filter, null, counter(3))).isEqualTo(2);
+        assertThat(counts).hasValue(3);
+    }
+
+    @Test
+    void countStartedBeforeChangeIsNotReusedAfterIt() {
+        List<Object> filter = PageCountCache.filter();
+
+        // 统计过程中有变更提交: 旧结果只写入旧版本的键
+        long stale = cache.count("sys_user", filter, null, () -> {
+            cache.onTableChanged(new TableChangedEvent("sys_user"));
+            return counter(5).getAsLong();
+        });
+
+        assertThat(stale).isEqualTo(5);
+        assertThat(cache.count("sys_user", filter, null, counter(6))).isEqualTo(6);
+        assertThat(cache.count("sys_user", filter, null, counter(7))).isEqualTo(6);
+    }
+
+    @Test
+    void pageWithoutTotalDoesNotCount() {
+        SliceImpl<String> middle = new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 2), true);
+        SliceImpl<String> last = new SliceImpl<>(List.of("a"), PageRequest.of(3, 2), false);
+
+        Page<String> withoutTotal = cache.toPage(middle, false, "sys_user", PageCountCache.filter(), null, counter(100));
+        Page<String> lastPage = cache.toPage(last, true, "sys_user", PageCountCache.filter(), null, counter(100));
+        Page<String> withTotal = cache.toPage(middle, true, "sys_user", PageCountCache.filter(), null, counter(100));
+
+        // 未统计时总条数为已知下界，最后一页直接推算
+        assertThat(withoutTotal.getTotalElements()).isEqualTo(9);
+        assertThat(lastPage.getTotalElements()).isEqualTo(7);
+        assertThat(withTotal.getTotalElements()).isEqualTo(100);
+        assertThat(counts).hasValue(1);
+    }
+
+    private LongSupplier counter(long value) {
+        return () -> {
+            counts.incrementAndGet();
+            return value;
+        };
+    }
+}
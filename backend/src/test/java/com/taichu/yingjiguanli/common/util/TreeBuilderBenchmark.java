@@ -0,0 +1,73 @@
+package com.taichu.yingjiguanli.common.util;
+
+import com.taichu.yingjiguanli.BenchmarkSupport;
+import com.taichu.yingjiguanli.common.util.TreeBuilderTest.Node;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 树形结构构建性能基准 (1k / 10k / 100k 节点)
+ * 随机生成的树中每个节点的父节点为之前生成的任一节点，与逐层扫描全部节点的递归构建对比 (仅 1k / 10k，
+ * 100k 时递归构建需约 10^10 次比较)。运行: mvn test -Pbenchmark -Dtest=TreeBuilderBenchmark
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@Tag("benchmark")
+class TreeBuilderBenchmark {
+
+    private static final long ROOT = 0L;
+    private static final int RECURSIVE_MAX_SIZE = 10_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 100_000})
+    void build(int size) {
+        List<Node> nodes = randomTree(size);
+
+        BenchmarkSupport.Result linear = BenchmarkSupport.measure("TreeBuilder.build n=" + size, 20, 50,
+                () -> TreeBuilder.build(nodes, ROOT, Node::id, Node::parentId, Node::sort, Node::setChildren));
+
+        if (size <= RECURSIVE_MAX_SIZE) {
+            BenchmarkSupport.Result recursive = BenchmarkSupport.measure("递归逐层扫描 n=" + size, 2, 5,
+                    () -> buildRecursively(nodes, ROOT));
+            assertThat(linear.median()).isLessThan(recursive.median());
+        }
+    }
+
+    /**
+     * 随机树 (节点顺序打乱，排序键随机)
+     */
+    private static List<Node> randomTree(int size) {
+        Random random = new Random(size);
+        List<Node> nodes = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            long parentId = i <= 10 ? ROOT : 1 + random.nextInt(i - 1);
+            nodes.add(new Node((long) i, parentId, random.nextInt(100)));
+        }
+        Collections.shuffle(nodes, random);
+        return nodes;
+    }
+
+    /**
+     * 原递归构建方式：每个节点扫描全部节点查找子节点
+     */
+    private static List<Node> buildRecursively(List<Node> nodes, Long parentId) {
+        List<Node> children = nodes.stream()
+                .filter(node -> parentId.equals(node.parentId()))
+                .sorted(Comparator.comparingInt(Node::sort))
+                .toList();
+        for (Node child : children) {
+            child.setChildren(buildRecursively(nodes, child.id()));
+        }
+        return children;
+    }
+}
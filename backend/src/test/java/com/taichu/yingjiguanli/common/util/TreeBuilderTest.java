@@ -0,0 +1,168 @@
+package com.taichu.yingjiguanli.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 树形结构构建测试 (排序、孤儿节点、成环节点、重复ID、深层级)
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+class TreeBuilderTest {
+
+    private static final long ROOT = 0L;
+
+    @Test
+    void emptyInputBuildsEmptyTree() {
+        assertThat(build(null)).isEmpty();
+        assertThat(build(List.of())).isEmpty();
+    }
+
+    @Test
+    void siblingsAreSortedBySortKeyAndKeepInputOrderForEqualKeys() {
+        List<Node> nodes = List.of(
+                node(1, ROOT, 2),
+                node(2, ROOT, 1),
+                node(11, 1, 3),
+                node(12, 1, 1),
+                node(13, 1, 3),
+                node(14, 1, 2));
+
+        List<Node> roots = build(nodes);
+
+        assertThat(ids(roots)).containsExactly(2L, 1L);
+        assertThat(ids(roots.get(1).children)).containsExactly(12L, 14L, 11L, 13L);
+    }
+
+    @Test
+    void everyAttachedNodeGetsChildrenOnceAndLeavesGetEmptyList() {
+        List<Node> nodes = List.of(node(1, ROOT, 1), node(2, 1, 1), node(3, 2, 1));
+
+        List<Node> roots = build(nodes);
+
+        assertThat(nodes).allSatisfy(node -> assertThat(node.setterCalls).isEqualTo(1));
+        Node leaf = roots.getFirst().children.getFirst().children.getFirst();
+        assertThat(leaf.id).isEqualTo(3L);
+        assertThat(leaf.children).isEmpty();
+    }
+
+    @Test
+    void orphansAndTheirDescendantsAreDropped() {
+        Node orphan = node(2, 99, 1);
+        Node orphanChild = node(3, 2, 1);
+        List<Node> nodes = List.of(node(1, ROOT, 1), orphan, orphanChild);
+
+        List<Node> roots = build(nodes);
+
+        assertThat(ids(roots)).containsExactly(1L);
+        assertThat(roots.getFirst().children).isEmpty();
+        assertThat(orphan.setterCalls).isZero();
+        assertThat(orphanChild.setterCalls).isZero();
+    }
+
+    @Test
+    void cyclesAreDroppedWithoutLooping() {
+        Node a = node(2, 3, 1);
+        Node b = node(3, 2, 1);
+        Node self = node(4, 4, 1);
+        List<Node> nodes = List.of(node(1, ROOT, 1), a, b, self);
+
+        List<Node> roots = build(nodes);
+
+        assertThat(ids(roots)).containsExactly(1L);
+        assertThat(List.of(a, b, self)).allSatisfy(node -> assertThat(node.setterCalls).isZero());
+    }
+
+    @Test
+    void nodeWithRootParentIdAsIdDoesNotLoop() {
+        Node self = node(ROOT, ROOT, 1);
+        List<Node> nodes = List.of(self, node(1, ROOT, 2));
+
+        List<Node> roots = build(nodes);
+
+        assertThat(ids(roots)).containsExactly(ROOT, 1L);
+        assertThat(self.setterCalls).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateIdIsAttachedOnlyOnce() {
+        Node first = node(2, 1, 1);
+        Node duplicate = node(2, 1, 2);
+        List<Node> nodes = List.of(node(1, ROOT, 1), first, duplicate);
+
+        List<Node> roots = build(nodes);
+
+        assertThat(roots.getFirst().children).containsExactly(first);
+        assertThat(first.setterCalls + duplicate.setterCalls).isEqualTo(1);
+    }
+
+    @Test
+    void deepChainDoesNotOverflowStack() {
+        int depth = 100_000;
+        List<Node> nodes = new ArrayList<>(depth);
+        for (int i = 1; i <= depth; i++) {
+            nodes.add(node(i, i - 1, 1));
+        }
+
+        List<Node> roots = build(nodes);
+
+        Node current = roots.getFirst();
+        int levels = 1;
+        while (!current.children.isEmpty()) {
+            current = current.children.getFirst();
+            levels++;
+        }
+        assertThat(levels).isEqualTo(depth);
+    }
+
+    private static List<Node> build(List<Node> nodes) {
+        return TreeBuilder.build(nodes, ROOT, Node::id, Node::parentId, Node::sort, Node::setChildren);
+    }
+
+    private static List<Long> ids(List<Node> nodes) {
+        return nodes.stream().map(Node::id).toList();
+    }
+
+    private static Node node(long id, long parentId, int sort) {
+        return new Node(id, parentId, sort);
+    }
+
+    /**
+     * 测试节点
+     */
+    static final class Node {
+        private final Long id;
+        private final Long parentId;
+        private final int sort;
+        private List<Node> children;
+        private int setterCalls;
+
+        Node(Long id, Long parentId, int sort) {
+            this.id = id;
+            this.parentId = parentId;
+            this.sort = sort;
+        }
+
+        Long id() {
+            return id;
+        }
+
+        Long parentId() {
+            return parentId;
+        }
+
+        int sort() {
+            return sort;
+        }
+
+        void setChildren(List<Node> children) {
+            this.children = children;
+            setterCalls++;
+        }
+    }
+}
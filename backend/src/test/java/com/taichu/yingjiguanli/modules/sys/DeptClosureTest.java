@@ -0,0 +1,153 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.common.BusinessException;
+import com.taichu.yingjiguanli.modules.sys.dto.DeptCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.DeptUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysDeptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 部门闭包表维护测试
+ * 每次新增、移动、删除部门后，断言 sys_dept_closure 与按 sys_dept 父子关系推导出的闭包关系完全一致
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DeptClosureTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private SysDeptService deptService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void closureMatchesHierarchyAfterCreateMoveAndDelete() {
+        assertClosureMatchesHierarchy();
+
+        // 新增: a → b → c，d 为顶级部门
+        Long a = createDept(0L);
+        Long b = createDept(a);
+        Long c = createDept(b);
+        Long d = createDept(0L);
+        assertClosureMatchesHierarchy();
+        assertThat(descendants(a)).containsExactlyInAnyOrder(a, b, c);
+
+        // 移动子树: b (含 c) 移到 d 下
+        moveDept(b, d);
+        assertClosureMatchesHierarchy();
+        assertThat(descendants(a)).containsExactly(a);
+        assertThat(descendants(d)).containsExactlyInAnyOrder(d, b, c);
+
+        // 移动为顶级部门
+        moveDept(b, 0L);
+        assertClosureMatchesHierarchy();
+        assertThat(descendants(d)).containsExactly(d);
+
+        // 删除叶子部门
+        deptService.delete(c);
+        assertClosureMatchesHierarchy();
+        assertThat(descendants(b)).containsExactly(b);
+    }
+
+    @Test
+    void moveUnderOwnDescendantIsRejected() {
+        Long a = createDept(0L);
+        Long b = createDept(a);
+        Long c = createDept(b);
+
+        assertThatThrownBy(() -> moveDept(a, c))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("不能将子部门设为父部门");
+        assertClosureMatchesHierarchy();
+    }
+
+    @Test
+    void moveUnderDescendantChangedOutsideThisNodeIsRejected() {
+        Long a = createDept(0L);
+        Long b = createDept(0L);
+
+        // 其他节点将 b 移到 a 下 (本节点未收到部门变更事件，内存层级索引中 b 仍为顶级部门)
+        jdbcTemplate.update("UPDATE sys_dept SET parent_id = ? WHERE id = ?", a, b);
+        jdbcTemplate.update("INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, 1)", a, b);
+
+        // 环检查以事务内的闭包表为准
+        assertThatThrownBy(() -> moveDept(a, b))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("不能将子部门设为父部门");
+        assertClosureMatchesHierarchy();
+
+        // 经服务层移回顶级部门，同步本节点的内存索引
+        moveDept(b, 0L);
+        assertClosureMatchesHierarchy();
+    }
+
+    /**
+     * 断言闭包表与部门父子关系推导出的闭包关系 (祖先, 后代, 深度) 一致
+     */
+    private void assertClosureMatchesHierarchy() {
+        Map<Long, Long> parents = new HashMap<>();
+        jdbcTemplate.query("SELECT id, parent_id FROM sys_dept WHERE del_flag = 0",
+                rs -> {
+                    parents.put(rs.getLong("id"), rs.getLong("parent_id"));
+                });
+
+        Set<List<Long>> expected = new HashSet<>();
+        for (Long id : parents.keySet()) {
+            long depth = 0;
+            for (Long current = id; parents.containsKey(current); current = parents.get(current)) {
+                expected.add(List.of(current, id, depth++));
+            }
+        }
+
+        Set<List<Long>> actual = new HashSet<>(jdbcTemplate.query(
+                "SELECT ancestor_id, descendant_id, depth FROM sys_dept_closure",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3))));
+        assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    /**
+     * 闭包表中部门及其所有下级部门ID
+     */
+    private List<Long> descendants(Long deptId) {
+        return jdbcTemplate.queryForList(
+                "SELECT descendant_id FROM sys_dept_closure WHERE ancestor_id = ?", Long.class, deptId);
+    }
+
+    /**
+     * 创建部门
+     */
+    private Long createDept(Long parentId) {
+        DeptCreateDTO dto = new DeptCreateDTO();
+        dto.setParentId(parentId);
+        dto.setDeptName("闭包测试部门" + SEQUENCE.incrementAndGet());
+        return deptService.create(dto).getId();
+    }
+
+    /**
+     * 移动部门
+     */
+    private void moveDept(Long deptId, Long parentId) {
+        DeptUpdateDTO dto = new DeptUpdateDTO();
+        dto.setParentId(parentId);
+        deptService.update(deptId, dto);
+    }
+}
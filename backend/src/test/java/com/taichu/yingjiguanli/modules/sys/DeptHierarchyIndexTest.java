@@ -0,0 +1,132 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.modules.sys.cache.DeptHierarchyIndex;
+import com.taichu.yingjiguanli.modules.sys.dto.DeptCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.DeptUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysDeptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 部门层级内存索引测试
+ * 断言索引返回的子树、上下级判断与闭包表一致，包括经变更事件增量重建后和从数据库全量重载后
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DeptHierarchyIndexTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private DeptHierarchyIndex deptHierarchyIndex;
+
+    @Autowired
+    private SysDeptService deptService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void subtreesMatchClosureAfterServiceChanges() {
+        assertIndexMatchesClosure();
+
+        // 随机建树 (每个部门挂到之前创建的任一部门或顶级)
+        Random random = new Random(42);
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Long parentId = created.isEmpty() || random.nextInt(5) == 0
+                    ? 0L : created.get(random.nextInt(created.size()));
+            created.add(createDept(parentId));
+        }
+        assertIndexMatchesClosure();
+
+        // 随机移动 (跳过会成环的移动)
+        for (int i = 0; i < 15; i++) {
+            Long deptId = created.get(random.nextInt(created.size()));
+            Long parentId = created.get(random.nextInt(created.size()));
+            if (!deptService.findDeptAndChildrenIds(deptId).contains(parentId)) {
+                moveDept(deptId, parentId);
+            }
+        }
+        assertIndexMatchesClosure();
+
+        // 删除叶子部门
+        for (Long deptId : created) {
+            if (deptService.findDeptAndChildrenIds(deptId).size() == 1 && random.nextBoolean()) {
+                deptService.delete(deptId);
+            }
+        }
+        assertIndexMatchesClosure();
+
+        deptHierarchyIndex.refresh();
+        assertIndexMatchesClosure();
+    }
+
+    @Test
+    void refreshPicksUpChangesFromOtherNodes() {
+        Long a = createDept(0L);
+        Long b = createDept(0L);
+        long version = deptHierarchyIndex.version();
+
+        // 其他节点将 b 移到 a 下 (本节点未收到部门变更事件)
+        jdbcTemplate.update("UPDATE sys_dept SET parent_id = ? WHERE id = ?", a, b);
+        jdbcTemplate.update("INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, 1)", a, b);
+        assertThat(deptHierarchyIndex.isAncestorOrSelf(a, b)).isFalse();
+
+        deptHierarchyIndex.refresh();
+        assertThat(deptHierarchyIndex.version()).isGreaterThan(version);
+        assertThat(deptHierarchyIndex.isAncestorOrSelf(a, b)).isTrue();
+        assertIndexMatchesClosure();
+
+        // 经服务层移回顶级部门
+        moveDept(b, 0L);
+        assertIndexMatchesClosure();
+    }
+
+    /**
+     * 断言每个部门在索引中的子树与闭包表一致，且子树内的部门均判定为下级
+     */
+    private void assertIndexMatchesClosure() {
+        List<Long> deptIds = jdbcTemplate.queryForList("SELECT id FROM sys_dept WHERE del_flag = 0", Long.class);
+        for (Long deptId : deptIds) {
+            List<Long> closure = deptService.findDeptAndChildrenIds(deptId);
+            assertThat(deptHierarchyIndex.getDeptAndChildrenIds(deptId))
+                    .as("部门 %d 的子树", deptId)
+                    .containsExactlyInAnyOrderElementsOf(closure);
+            assertThat(closure).allSatisfy(descendantId ->
+                    assertThat(deptHierarchyIndex.isAncestorOrSelf(deptId, descendantId)).isTrue());
+        }
+    }
+
+    /**
+     * 创建部门
+     */
+    private Long createDept(Long parentId) {
+        DeptCreateDTO dto = new DeptCreateDTO();
+        dto.setParentId(parentId);
+        dto.setDeptName("索引测试部门" + SEQUENCE.incrementAndGet());
+        return deptService.create(dto).getId();
+    }
+
+    /**
+     * 移动部门
+     */
+    private void moveDept(Long deptId, Long parentId) {
+        DeptUpdateDTO dto = new DeptUpdateDTO();
+        dto.setParentId(parentId);
+        deptService.update(deptId, dto);
+    }
+}
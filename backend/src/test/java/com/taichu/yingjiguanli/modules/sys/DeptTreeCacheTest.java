@@ -0,0 +1,111 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.modules.sys.cache.DeptTreeCache;
+import com.taichu.yingjiguanli.modules.sys.dto.DeptCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysDeptService;
+import com.taichu.yingjiguanli.modules.sys.vo.DeptVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 部门树内存快照测试
+ * 断言调用方修改 {@link DeptTreeCache#getTree()} 和 {@link DeptTreeCache#getList()} 的返回结果
+ * (节点字段、子节点列表、列表本身) 不会影响快照，后续读取和预序列化 JSON 仍为原始数据
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DeptTreeCacheTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private DeptTreeCache deptTreeCache;
+
+    @Autowired
+    private SysDeptService deptService;
+
+    @Test
+    void callersCannotModifySnapshot() {
+        String parentName = "快照测试部门" + SEQUENCE.incrementAndGet();
+        String childName = "快照测试部门" + SEQUENCE.incrementAndGet();
+        Long parentId = createDept(0L, parentName);
+        Long childId = createDept(parentId, childName);
+        try {
+            long version = deptTreeCache.version();
+
+            // 修改返回的部门树: 节点字段、子节点列表和顶级列表
+            List<DeptVO> tree = deptTreeCache.getTree();
+            DeptVO parent = find(tree, parentId);
+            parent.setDeptName("已修改");
+            parent.getChildren().getFirst().setDeptName("已修改");
+            parent.getChildren().clear();
+            tree.clear();
+
+            // 修改返回的平铺列表
+            List<DeptVO> list = deptTreeCache.getList();
+            int size = list.size();
+            list.forEach(dept -> dept.setDeptName("已修改"));
+            list.clear();
+
+            // 快照未重建，重新读取仍为原始数据
+            assertThat(deptTreeCache.version()).isEqualTo(version);
+            DeptVO reread = find(deptTreeCache.getTree(), parentId);
+            assertThat(reread.getDeptName()).isEqualTo(parentName);
+            assertThat(reread.getChildren()).extracting(DeptVO::getId, DeptVO::getDeptName)
+                    .containsExactly(tuple(childId, childName));
+            assertThat(deptTreeCache.getList()).hasSize(size)
+                    .noneMatch(dept -> "已修改".equals(dept.getDeptName()));
+            assertThat(deptTreeCache.getTreeJson()).contains(parentName, childName).doesNotContain("已修改");
+
+            // 每次调用返回新对象
+            assertThat(deptTreeCache.getTree()).isNotSameAs(deptTreeCache.getTree());
+            assertThat(find(deptTreeCache.getTree(), parentId)).isNotSameAs(find(deptTreeCache.getTree(), parentId));
+
+            // 部门ID集合只读
+            assertThat(deptTreeCache.getDeptIds()).contains(parentId, childId);
+            assertThatThrownBy(() -> deptTreeCache.getDeptIds().remove(parentId))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        } finally {
+            deptService.delete(childId);
+            deptService.delete(parentId);
+        }
+    }
+
+    /**
+     * 在部门树中查找节点
+     */
+    private static DeptVO find(List<DeptVO> nodes, Long id) {
+        for (DeptVO node : nodes) {
+            if (node.getId().equals(id)) {
+                return node;
+            }
+            DeptVO found = find(node.getChildren(), id);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 创建部门
+     */
+    private Long createDept(Long parentId, String name) {
+        DeptCreateDTO dto = new DeptCreateDTO();
+        dto.setParentId(parentId);
+        dto.setDeptName(name);
+        return deptService.create(dto).getId();
+    }
+}
@@ -0,0 +1,13 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.MySqlTest;
+
+/**
+ * Hibernate 二级缓存一致性测试 (MySQL，使用正式迁移脚本)
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@MySqlTest
+class HibernateCacheCoherenceMySqlTest extends HibernateCacheCoherenceTest {
+}
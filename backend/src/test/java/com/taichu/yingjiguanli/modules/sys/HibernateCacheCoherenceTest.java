@@ -0,0 +1,194 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.modules.sys.dto.DeptUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleMenuDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserRoleDTO;
+import com.taichu.yingjiguanli.modules.sys.entity.SysDept;
+import com.taichu.yingjiguanli.modules.sys.entity.SysMenu;
+import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
+import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
+import com.taichu.yingjiguanli.modules.sys.repository.SysMenuRepository;
+import com.taichu.yingjiguanli.modules.sys.service.SysDeptService;
+import com.taichu.yingjiguanli.modules.sys.service.SysRoleService;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import com.taichu.yingjiguanli.modules.sys.vo.DeptVO;
+import com.taichu.yingjiguanli.modules.sys.vo.RoleVO;
+import com.taichu.yingjiguanli.modules.sys.vo.UserVO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate 二级缓存一致性测试
+ * 先读取使菜单、角色、部门实体及其关联集合进入二级缓存，再经服务层写入 (含绕过 Hibernate 的 JDBC 差量写入)，
+ * 断言之后的读取返回新数据而不是缓存中的旧数据。测试方法不开启事务，每次服务调用使用独立的持久化上下文
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HibernateCacheCoherenceTest {
+
+    private static final String ROLE_MENUS = SysRole.class.getName() + ".menus";
+    private static final String USER_ROLES = SysUser.class.getName() + ".roles";
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private SysRoleService roleService;
+
+    @Autowired
+    private SysUserService userService;
+
+    @Autowired
+    private SysDeptService deptService;
+
+    @Autowired
+    private SysMenuRepository menuRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+    private List<Long> menuIds;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        menuIds = menuRepository.findAllOrderBySort().stream()
+                .map(SysMenu::getId)
+                .limit(3)
+                .toList();
+        assertThat(menuIds).hasSize(3);
+    }
+
+    @Test
+    void roleMenusAreFreshAfterAssignMenusAndUpdate() {
+        Long roleId = createRole(List.of(menuIds.get(0), menuIds.get(1)));
+
+        // 读取角色详情，菜单集合进入二级缓存
+        assertThat(roleMenuIds(roleId)).containsExactlyInAnyOrder(menuIds.get(0), menuIds.get(1));
+        assertThat(cache.containsCollection(ROLE_MENUS, roleId)).isTrue();
+
+        // 分配菜单 (JDBC 差量写入)
+        RoleMenuDTO assign = new RoleMenuDTO();
+        assign.setMenuIds(List.of(menuIds.get(1), menuIds.get(2)));
+        roleService.assignMenus(roleId, assign);
+        assertThat(roleMenuIds(roleId)).containsExactlyInAnyOrder(menuIds.get(1), menuIds.get(2));
+
+        // 更新角色 (实体更新 + JDBC 差量写入菜单)
+        RoleUpdateDTO update = new RoleUpdateDTO();
+        update.setRoleName("缓存测试角色-改");
+        update.setMenuIds(List.of(menuIds.get(2)));
+        roleService.update(roleId, update);
+        RoleVO role = roleService.findById(roleId).orElseThrow();
+        assertThat(role.getRoleName()).isEqualTo("缓存测试角色-改");
+        assertThat(role.getMenuIds()).containsExactly(menuIds.get(2));
+    }
+
+    @Test
+    void userRolesAreFreshAfterAssignRoles() {
+        Long firstRoleId = createRole(List.of());
+        Long secondRoleId = createRole(List.of());
+        Long userId = createUser(null, List.of(firstRoleId));
+
+        // 读取用户详情，角色集合进入二级缓存
+        assertThat(userRoleIds(userId)).containsExactly(firstRoleId);
+        assertThat(cache.containsCollection(USER_ROLES, userId)).isTrue();
+
+        // 分配角色 (JDBC 差量写入)
+        UserRoleDTO assign = new UserRoleDTO();
+        assign.setRoleIds(List.of(firstRoleId, secondRoleId));
+        userService.assignRoles(userId, assign);
+        assertThat(userRoleIds(userId)).containsExactlyInAnyOrder(firstRoleId, secondRoleId);
+
+        assign.setRoleIds(List.of(secondRoleId));
+        userService.assignRoles(userId, assign);
+        assertThat(userRoleIds(userId)).containsExactly(secondRoleId);
+    }
+
+    @Test
+    void userDeptNameIsFreshAfterDeptRename() {
+        // 使用初始化数据中的部门 (测试结束后恢复名称)
+        DeptVO dept = deptService.findAll().getLast();
+        Long deptId = dept.getId();
+        Long userId = createUser(deptId, List.of());
+
+        // 读取用户详情，部门名称进入查询缓存、部门实体进入二级缓存
+        assertThat(userService.findById(userId).orElseThrow().getDeptName()).isEqualTo(dept.getDeptName());
+        assertThat(deptService.findById(deptId).orElseThrow().getDeptName()).isEqualTo(dept.getDeptName());
+        assertThat(cache.containsEntity(SysDept.class, deptId)).isTrue();
+
+        // 部门改名
+        DeptUpdateDTO update = new DeptUpdateDTO();
+        update.setDeptName(dept.getDeptName() + "-改");
+        deptService.update(deptId, update);
+        try {
+            assertThat(userService.findById(userId).orElseThrow().getDeptName()).isEqualTo(update.getDeptName());
+            assertThat(deptService.findById(deptId).orElseThrow().getDeptName()).isEqualTo(update.getDeptName());
+        } finally {
+            update.setDeptName(dept.getDeptName());
+            deptService.update(deptId, update);
+        }
+    }
+
+    /**
+     * 创建角色
+     */
+    private Long createRole(List<Long> roleMenuIds) {
+        String suffix = nextSuffix();
+        RoleCreateDTO dto = new RoleCreateDTO();
+        dto.setRoleName("缓存测试角色" + suffix);
+        dto.setRoleCode("cache_test_" + suffix);
+        dto.setMenuIds(roleMenuIds);
+        return roleService.create(dto).getId();
+    }
+
+    /**
+     * 创建用户
+     */
+    private Long createUser(Long deptId, List<Long> roleIds) {
+        UserCreateDTO dto = new UserCreateDTO();
+        dto.setUsername("cache_test_" + nextSuffix());
+        dto.setPassword("pass123");
+        dto.setRealName("缓存测试用户");
+        dto.setDeptId(deptId);
+        dto.setRoleIds(roleIds);
+        return userService.create(dto).getId();
+    }
+
+    /**
+     * 角色详情中的菜单ID
+     */
+    private List<Long> roleMenuIds(Long roleId) {
+        return roleService.findById(roleId).orElseThrow().getMenuIds();
+    }
+
+    /**
+     * 用户详情中的角色ID
+     */
+    private List<Long> userRoleIds(Long userId) {
+        return userService.findById(userId).orElseThrow().getRoles().stream()
+                .map(UserVO.RoleVO::getId)
+                .toList();
+    }
+
+    /**
+     * 测试数据名称后缀 (同一测试上下文内唯一)
+     */
+    private static String nextSuffix() {
+        return Long.toString(System.nanoTime(), 36) + SEQUENCE.incrementAndGet();
+    }
+}
@@ -0,0 +1,229 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.BenchmarkSupport;
+import com.taichu.yingjiguanli.LoginSupport;
+import com.taichu.yingjiguanli.common.page.TableChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleQueryDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserQueryDTO;
+import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
+import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
+import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysUserRepository;
+import com.taichu.yingjiguanli.modules.sys.service.SysMenuService;
+import com.taichu.yingjiguanli.modules.sys.service.SysRoleService;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列表接口查询方式性能基准 (20k 用户、500 个角色)
+ * 同一分页查询分别以实体、记录投影和接口投影读取，对比耗时和每次调用的分配量；
+ * 再对用户分页 (第 0 / 50 页，每页 100 条)、角色分页、菜单列表和菜单树的服务层方法计时。
+ * 只统计查询和转换，不含 HTTP 和 JSON 序列化；H2 内存库的结果只用于相对比较。
+ * 运行: mvn test -Pbenchmark -Dtest=ListProjectionBenchmark
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListProjectionBenchmark {
+
+    private static final Long ADMIN_ID = 1L;
+    private static final String PASSWORD = "$2a$10$7JB720yubVSZvUI0rEqK/.VqGOZTH.ulu33dHOiBE8ByOhJIrdAu2";
+    private static final int USERS = 20_000;
+    private static final int ROLES = 500;
+    private static final int SIZE = 100;
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SysUserRepository userRepository;
+
+    @Autowired
+    private SysRoleRepository roleRepository;
+
+    @Autowired
+    private SysUserService userService;
+
+    @Autowired
+    private SysRoleService roleService;
+
+    @Autowired
+    private SysMenuService menuService;
+
+    private final String prefix = "lpb" + Long.toString(System.nanoTime(), 36);
+    private TransactionTemplate readOnly;
+
+    /**
+     * 用户接口投影 (与 {@link SysUserRepository.UserRow} 相同的列)
+     */
+    interface UserView {
+
+        Long getId();
+
+        String getUsername();
+
+        String getRealName();
+
+        String getPhone();
+
+        String getEmail();
+
+        String getAvatar();
+
+        Long getDeptId();
+
+        Integer getStatus();
+
+        LocalDateTime getCreateTime();
+
+        LocalDateTime getUpdateTime();
+    }
+
+    @BeforeAll
+    void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Object[]> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{prefix + "u" + i, PASSWORD, "基准用户" + i, "138" + String.format("%08d", i),
+                    prefix + "u" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sys_user (username, password, real_name, phone, email, status, del_flag) "
+                + "VALUES (?, ?, ?, ?, ?, 1, 0)", users);
+
+        List<Object[]> roles = new ArrayList<>(ROLES);
+        for (int i = 0; i < ROLES; i++) {
+            roles.add(new Object[]{"基准角色" + i, prefix + "r" + i, i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sys_role (role_name, role_code, sort, status, del_flag) "
+                + "VALUES (?, ?, ?, 1, 0)", roles);
+        refresh();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM sys_user WHERE username LIKE ?", prefix + "u%");
+        jdbcTemplate.update("DELETE FROM sys_role WHERE role_code LIKE ?", prefix + "r%");
+        refresh();
+    }
+
+    @Test
+    void userPageReadModes() {
+        for (int page : new int[]{0, 50}) {
+            PageRequest pageRequest = PageRequest.of(page, SIZE, Sort.by(Sort.Direction.DESC, "createTime", "id"));
+            Specification<SysUser> spec = (root, query, cb) -> cb.equal(root.get("status"), 1);
+
+            List<Long> entityIds = userPage("实体", page, spec, q -> q.slice(pageRequest), SysUser::getId);
+            List<Long> rowIds = userPage("记录投影", page, spec,
+                    q -> q.as(SysUserRepository.UserRow.class).slice(pageRequest), SysUserRepository.UserRow::id);
+            List<Long> viewIds = userPage("接口投影", page, spec,
+                    q -> q.as(UserView.class).slice(pageRequest), UserView::getId);
+
+            assertThat(rowIds).hasSize(SIZE).isEqualTo(entityIds).isEqualTo(viewIds);
+        }
+    }
+
+    @Test
+    void rolePageReadModes() {
+        PageRequest pageRequest = PageRequest.of(0, SIZE, Sort.by(Sort.Direction.ASC, "sort", "id"));
+        Specification<SysRole> spec = (root, query, cb) -> cb.equal(root.get("status"), 1);
+
+        List<Long> entityIds = rolePage("实体", spec, q -> q.slice(pageRequest), SysRole::getId);
+        List<Long> rowIds = rolePage("记录投影", spec,
+                q -> q.as(SysRoleRepository.RoleRow.class).slice(pageRequest), SysRoleRepository.RoleRow::id);
+
+        assertThat(rowIds).hasSize(SIZE).isEqualTo(entityIds);
+    }
+
+    @Test
+    void listEndpoints() {
+        try (LoginSupport.Session ignored = LoginSupport.loginAs(ADMIN_ID)) {
+            for (int page : new int[]{0, 50}) {
+                UserQueryDTO query = new UserQueryDTO();
+                query.setPage(page);
+                query.setSize(SIZE);
+                BenchmarkSupport.measure("用户分页 page=" + page + " size=" + SIZE, WARMUP, ITERATIONS,
+                        () -> userService.findPage(query));
+            }
+
+            RoleQueryDTO roleQuery = new RoleQueryDTO();
+            roleQuery.setPage(0);
+            roleQuery.setSize(SIZE);
+            BenchmarkSupport.measure("角色分页 page=0 size=" + SIZE, WARMUP, ITERATIONS,
+                    () -> roleService.findPage(roleQuery));
+            BenchmarkSupport.measure("菜单列表", WARMUP, ITERATIONS, menuService::findAll);
+            BenchmarkSupport.measure("菜单树", WARMUP, ITERATIONS, menuService::findTree);
+        }
+    }
+
+    /**
+     * 在只读事务中按指定方式读取一页用户并计时，返回本页用户ID
+     */
+    private <R> List<Long> userPage(String mode, int page, Specification<SysUser> spec,
+                                    Function<FluentQuery.FetchableFluentQuery<SysUser>, Slice<R>> fetch,
+                                    Function<R, Long> id) {
+        BenchmarkSupport.measure("用户分页 " + mode + " page=" + page, WARMUP, ITERATIONS,
+                () -> readOnly.execute(status -> userRepository.findBy(spec, fetch)));
+        return readOnly.execute(status -> userRepository.findBy(spec, fetch).map(id).getContent());
+    }
+
+    /**
+     * 在只读事务中按指定方式读取一页角色并计时，返回本页角色ID
+     */
+    private <R> List<Long> rolePage(String mode, Specification<SysRole> spec,
+                                    Function<FluentQuery.FetchableFluentQuery<SysRole>, Slice<R>> fetch,
+                                    Function<R, Long> id) {
+        BenchmarkSupport.measure("角色分页 " + mode, WARMUP, ITERATIONS,
+                () -> readOnly.execute(status -> roleRepository.findBy(spec, fetch)));
+        return readOnly.execute(status -> roleRepository.findBy(spec, fetch).map(id).getContent());
+    }
+
+    /**
+     * 失效分页总条数缓存并清空二级缓存
+     */
+    private void refresh() {
+        eventPublisher.publishEvent(new TableChangedEvent("sys_user"));
+        eventPublisher.publishEvent(new TableChangedEvent("sys_role"));
+        entityManagerFactory.getCache().evictAll();
+    }
+}
@@ -0,0 +1,191 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.modules.sys.entity.SysMenu;
+import com.taichu.yingjiguanli.modules.sys.entity.SysRole;
+import com.taichu.yingjiguanli.modules.sys.repository.SysRelationJdbcRepository;
+import com.taichu.yingjiguanli.modules.sys.repository.SysRoleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 关联表差量写入测试
+ * 断言只插入新增、只删除移除的关联 (保留行的主键不变)，超过单条 DELETE 上限时分段删除，
+ * 与调用方共用事务，并在变更后清除对应的集合二级缓存
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SysRelationJdbcRepositoryTest {
+
+    private static final String ROLE_MENUS = SysRole.class.getName() + ".menus";
+
+    /**
+     * 测试用属主ID (负数，不与真实用户冲突)
+     */
+    private static final AtomicLong OWNER_SEQUENCE = new AtomicLong(-System.currentTimeMillis());
+
+    @Autowired
+    private SysRelationJdbcRepository relationJdbcRepository;
+
+    @Autowired
+    private SysRoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> owners = new ArrayList<>();
+    private Long roleId;
+
+    @AfterEach
+    void cleanUp() {
+        for (Long owner : owners) {
+            jdbcTemplate.update("DELETE FROM sys_user_role WHERE user_id = ?", owner);
+        }
+        if (roleId != null) {
+            jdbcTemplate.update("DELETE FROM sys_role_menu WHERE role_id = ?", roleId);
+            jdbcTemplate.update("DELETE FROM sys_role WHERE id = ?", roleId);
+            entityManagerFactory.getCache().evictAll();
+        }
+    }
+
+    @Test
+    void writesOnlyTheDelta() {
+        Long userId = nextOwner();
+
+        assertThat(relationJdbcRepository.replaceUserRoles(userId, List.of(1L, 2L, 3L)))
+                .isEqualTo(new SysRelationJdbcRepository.Delta(3, 0));
+        Map<Long, Long> rowIds = userRoleRowIds(userId);
+
+        // 移除 1、新增 4，保留 2、3
+        assertThat(relationJdbcRepository.replaceUserRoles(userId, List.of(2L, 3L, 4L)))
+                .isEqualTo(new SysRelationJdbcRepository.Delta(1, 1));
+        Map<Long, Long> updated = userRoleRowIds(userId);
+        assertThat(updated).containsOnlyKeys(2L, 3L, 4L);
+        assertThat(updated.get(2L)).as("保留的关联不重新插入").isEqualTo(rowIds.get(2L));
+        assertThat(updated.get(3L)).isEqualTo(rowIds.get(3L));
+
+        // 目标相同 (含重复ID) 时无变更
+        SysRelationJdbcRepository.Delta unchanged = relationJdbcRepository.replaceUserRoles(userId, List.of(4L, 3L, 2L, 2L));
+        assertThat(unchanged.changed()).isFalse();
+        assertThat(userRoleRowIds(userId)).isEqualTo(updated);
+
+        // null 与空集合均清空全部关联
+        assertThat(relationJdbcRepository.replaceUserRoles(userId, null))
+                .isEqualTo(new SysRelationJdbcRepository.Delta(0, 3));
+        assertThat(userRoleRowIds(userId)).isEmpty();
+        assertThat(relationJdbcRepository.replaceUserRoles(userId, List.of()).changed()).isFalse();
+    }
+
+    @Test
+    void deletesInChunks() {
+        Long userId = nextOwner();
+        List<Long> roleIds = LongStream.rangeClosed(1, 1_201).boxed().toList();
+
+        assertThat(relationJdbcRepository.replaceUserRoles(userId, roleIds))
+                .isEqualTo(new SysRelationJdbcRepository.Delta(1_201, 0));
+        assertThat(userRoleRowIds(userId)).hasSize(1_201);
+
+        // 只保留最后一个，其余 1200 条分 3 段删除
+        assertThat(relationJdbcRepository.replaceUserRoles(userId, List.of(1_201L)))
+                .isEqualTo(new SysRelationJdbcRepository.Delta(0, 1_200));
+        assertThat(userRoleRowIds(userId)).containsOnlyKeys(1_201L);
+    }
+
+    @Test
+    void batchInsertsRolesForNewUsers() {
+        Long first = nextOwner();
+        Long second = nextOwner();
+
+        relationJdbcRepository.batchInsertUserRoles(Map.of(first, List.of(1L, 2L), second, Set.of(3L)));
+
+        assertThat(userRoleRowIds(first)).containsOnlyKeys(1L, 2L);
+        assertThat(userRoleRowIds(second)).containsOnlyKeys(3L);
+    }
+
+    @Test
+    void joinsCallerTransaction() {
+        Long userId = nextOwner();
+        relationJdbcRepository.replaceUserRoles(userId, List.of(1L, 2L));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            relationJdbcRepository.replaceUserRoles(userId, List.of(3L));
+            assertThat(userRoleRowIds(userId)).containsOnlyKeys(3L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(userRoleRowIds(userId)).containsOnlyKeys(1L, 2L);
+    }
+
+    @Test
+    void evictsCollectionCacheOnChange() {
+        List<Long> menuIds = jdbcTemplate.queryForList("SELECT id FROM sys_menu ORDER BY id", Long.class);
+        assertThat(menuIds).hasSizeGreaterThanOrEqualTo(3);
+        String code = "relr" + Long.toString(System.nanoTime(), 36);
+        jdbcTemplate.update("INSERT INTO sys_role (role_name, role_code) VALUES (?, ?)", code, code);
+        roleId = jdbcTemplate.queryForObject("SELECT id FROM sys_role WHERE role_code = ?", Long.class, code);
+        relationJdbcRepository.replaceRoleMenus(roleId, menuIds.subList(0, 2));
+
+        // 加载集合写入二级缓存
+        assertThat(roleMenuIds()).containsExactlyInAnyOrderElementsOf(menuIds.subList(0, 2));
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        assertThat(cache.containsCollection(ROLE_MENUS, roleId)).isTrue();
+
+        // 无变更时保留缓存
+        assertThat(relationJdbcRepository.replaceRoleMenus(roleId, menuIds.subList(0, 2)).changed()).isFalse();
+        assertThat(cache.containsCollection(ROLE_MENUS, roleId)).isTrue();
+
+        // 有变更时清除缓存，重新加载读取到最新关联
+        relationJdbcRepository.replaceRoleMenus(roleId, menuIds.subList(1, 3));
+        assertThat(cache.containsCollection(ROLE_MENUS, roleId)).isFalse();
+        assertThat(roleMenuIds()).containsExactlyInAnyOrderElementsOf(menuIds.subList(1, 3));
+    }
+
+    private Long nextOwner() {
+        Long owner = OWNER_SEQUENCE.decrementAndGet();
+        owners.add(owner);
+        return owner;
+    }
+
+    /**
+     * 用户角色关联: 角色ID -> 关联行主键
+     */
+    private Map<Long, Long> userRoleRowIds(Long userId) {
+        return jdbcTemplate.queryForList("SELECT id, role_id FROM sys_user_role WHERE user_id = ?", userId).stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("ROLE_ID")).longValue(),
+                        row -> ((Number) row.get("ID")).longValue()));
+    }
+
+    /**
+     * 经 JPA 加载角色菜单集合
+     */
+    private Set<Long> roleMenuIds() {
+        return transactionTemplate.execute(status -> roleRepository.findById(roleId).orElseThrow().getMenus().stream()
+                .map(SysMenu::getId)
+                .collect(Collectors.toSet()));
+    }
+}
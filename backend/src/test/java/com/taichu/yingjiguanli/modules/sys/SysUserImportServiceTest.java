@@ -0,0 +1,174 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.modules.sys.repository.SysUserJdbcRepository;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserImportService;
+import com.taichu.yingjiguanli.modules.sys.vo.UserImportJobVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+/**
+ * 用户批量导入测试
+ * 断言用户名查重不区分大小写 (文件内重复和已存在用户)，以及批量插入因唯一索引或数据超长失败时
+ * 整批回滚后逐行重试，只有出错的行被记录，其余行 (含角色关联) 正常导入
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SysUserImportServiceTest {
+
+    private static final String HEADER = "username,password,realName,email,roleIds";
+
+    @Autowired
+    private SysUserImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SysUserJdbcRepository userJdbcRepository;
+
+    private String prefix;
+    private Long roleId;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "imp" + Long.toString(System.nanoTime(), 36);
+        roleId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM sys_role", Long.class);
+        // 已存在的用户 (小写)
+        jdbcTemplate.update("INSERT INTO sys_user (username, password, real_name) VALUES (?, 'x', '已存在用户')",
+                prefix + "exist");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM sys_user_role WHERE user_id IN (SELECT id FROM sys_user WHERE username LIKE ?)",
+                prefix + "%");
+        jdbcTemplate.update("DELETE FROM sys_user WHERE username LIKE ?", prefix + "%");
+    }
+
+    @Test
+    void duplicateUsernamesAreCaseInsensitive() {
+        String upper = prefix.toUpperCase(Locale.ROOT);
+        UserImportJobVO job = runImport(
+                row(prefix + "a", ""),
+                row(upper + "A", ""),
+                row(upper + "EXIST", ""),
+                row(prefix + "b", ""));
+
+        assertThat(job.getSucceeded()).isEqualTo(2);
+        assertThat(job.getErrors()).extracting(UserImportJobVO.RowError::getLine, UserImportJobVO.RowError::getMessage)
+                .containsExactly(tuple(3L, "用户名在导入文件中重复"), tuple(4L, "用户名已存在"));
+        assertThat(importedUsernames()).containsExactlyInAnyOrder(prefix + "a", prefix + "b", prefix + "exist");
+    }
+
+    @Test
+    void retriesRowByRowWhenBatchHitsUniqueIndex() {
+        // 模拟查重后其他请求创建了同名用户: 查重未发现，批量插入触发唯一索引
+        // (只替换导入服务中的依赖，不使用 Bean 覆盖，避免新建应用上下文)
+        Object target = AopTestUtils.getTargetObject(importService);
+        SysUserJdbcRepository repository =
+                spy(AopTestUtils.<SysUserJdbcRepository>getUltimateTargetObject(userJdbcRepository));
+        doReturn(Set.of()).when(repository).findExistingUsernames(any());
+        UserImportJobVO job;
+        ReflectionTestUtils.setField(target, "userJdbcRepository", repository);
+        try {
+            job = runImport(
+                    row(prefix + "a", String.valueOf(roleId)),
+                    row(prefix.toUpperCase(Locale.ROOT) + "EXIST", ""),
+                    row(prefix + "b", String.valueOf(roleId)));
+        } finally {
+            ReflectionTestUtils.setField(target, "userJdbcRepository", userJdbcRepository);
+        }
+
+        assertThat(job.getSucceeded()).isEqualTo(2);
+        assertThat(job.getErrors()).extracting(UserImportJobVO.RowError::getLine, UserImportJobVO.RowError::getMessage)
+                .containsExactly(tuple(3L, "用户名已存在"));
+        assertThat(importedUsernames()).containsExactlyInAnyOrder(prefix + "a", prefix + "b", prefix + "exist");
+        assertImportedRoles();
+    }
+
+    @Test
+    void retriesRowByRowWhenBatchHitsColumnLimit() {
+        // 邮箱格式合法但超过列长度 (100)
+        String longEmail = "a".repeat(95) + "@example.com";
+        UserImportJobVO job = runImport(
+                row(prefix + "a", String.valueOf(roleId)),
+                prefix + "long,pass123,导入用户," + longEmail + ",",
+                row(prefix + "b", String.valueOf(roleId)));
+
+        assertThat(job.getSucceeded()).isEqualTo(2);
+        assertThat(job.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(3L);
+            assertThat(error.getUsername()).isEqualTo(prefix + "long");
+            assertThat(error.getMessage()).startsWith("数据不合法");
+        });
+        assertThat(importedUsernames()).containsExactlyInAnyOrder(prefix + "a", prefix + "b", prefix + "exist");
+        assertImportedRoles();
+    }
+
+    /**
+     * 断言成功导入的用户各有一条角色关联 (失败的整批已回滚，逐行重试未重复插入)
+     */
+    private void assertImportedRoles() {
+        List<String> usernames = jdbcTemplate.queryForList("SELECT u.username FROM sys_user_role ur "
+                + "INNER JOIN sys_user u ON u.id = ur.user_id WHERE u.username LIKE ? AND ur.role_id = ?",
+                String.class, prefix + "%", roleId);
+        assertThat(usernames).containsExactlyInAnyOrder(prefix + "a", prefix + "b");
+    }
+
+    private String row(String username, String roleIds) {
+        return username + ",pass123,导入用户," + username + "@example.com," + roleIds;
+    }
+
+    private List<String> importedUsernames() {
+        return jdbcTemplate.queryForList("SELECT username FROM sys_user WHERE username LIKE ?", String.class,
+                prefix + "%");
+    }
+
+    /**
+     * 提交 CSV 导入并等待任务完成
+     */
+    private UserImportJobVO runImport(String... rows) {
+        String content = HEADER + "\n" + String.join("\n", rows) + "\n";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                content.getBytes(StandardCharsets.UTF_8));
+        String jobId = importService.submit(file).getJobId();
+
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        UserImportJobVO job = importService.findJob(jobId).orElseThrow();
+        while (job.getFinishedAt() == null && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            job = importService.findJob(jobId).orElseThrow();
+        }
+        assertThat(job.getStatus()).as("导入任务状态: %s", job.getMessage()).isEqualTo("COMPLETED");
+        assertThat(job.getProcessed()).isEqualTo(rows.length);
+        assertThat(job.getFailed()).isEqualTo(rows.length - job.getSucceeded());
+        return job;
+    }
+}
@@ -0,0 +1,177 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.LoginSupport;
+import com.taichu.yingjiguanli.common.page.CursorPage;
+import com.taichu.yingjiguanli.common.page.TableChangedEvent;
+import com.taichu.yingjiguanli.modules.sys.dto.UserQueryDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import com.taichu.yingjiguanli.modules.sys.vo.UserVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用户游标分页测试
+ * 断言逐页翻完时每行恰好出现一次且按 (createTime, id) 倒序，创建时间相同的行按ID拆分到相邻页，
+ * 末页 (含恰好整除) 无下一页游标，总条数只在首页统计，翻页过程中新增的用户不影响后续页
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCursorPageTest {
+
+    private static final Long ADMIN_ID = 1L;
+
+    @Autowired
+    private SysUserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private String prefix;
+    private Long deptId;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "cur" + Long.toString(System.nanoTime(), 36);
+        jdbcTemplate.update("INSERT INTO sys_dept (parent_id, dept_name) VALUES (0, ?)", prefix);
+        deptId = jdbcTemplate.queryForObject("SELECT id FROM sys_dept WHERE dept_name = ?", Long.class, prefix);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM sys_user WHERE dept_id = ?", deptId);
+        jdbcTemplate.update("DELETE FROM sys_dept WHERE id = ?", deptId);
+        eventPublisher.publishEvent(new TableChangedEvent("sys_user"));
+    }
+
+    @Test
+    void scrollsEveryRowOnceInKeysetOrder() {
+        // 25 个用户，每 4 个创建时间相同
+        LocalDateTime base = LocalDateTime.of(2026, 1, 17, 8, 0);
+        for (int i = 0; i < 25; i++) {
+            createUser(base.plusSeconds(i / 4));
+        }
+        List<Long> expected = expectedOrder();
+
+        List<CursorPage<UserVO>> pages = scroll(10);
+
+        assertThat(pages).extracting(page -> page.getContent().size()).containsExactly(10, 10, 5);
+        assertThat(pages).extracting(CursorPage::isHasNext).containsExactly(true, true, false);
+        assertThat(pages.getLast().getNextCursor()).isNull();
+        assertThat(ids(pages)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void lastFullPageHasNoNextCursor() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 17, 8, 0);
+        for (int i = 0; i < 20; i++) {
+            createUser(base);
+        }
+
+        List<CursorPage<UserVO>> pages = scroll(5);
+
+        assertThat(pages).hasSize(4);
+        assertThat(pages).extracting(CursorPage::isHasNext).containsExactly(true, true, true, false);
+        assertThat(ids(pages)).containsExactlyElementsOf(expectedOrder());
+    }
+
+    @Test
+    void totalIsCountedOnFirstPageOnly() {
+        for (int i = 0; i < 7; i++) {
+            createUser(LocalDateTime.of(2026, 1, 17, 8, i));
+        }
+
+        try (LoginSupport.Session ignored = LoginSupport.loginAs(ADMIN_ID)) {
+            UserQueryDTO query = query(5, null);
+            query.setWithTotal(true);
+            CursorPage<UserVO> first = userService.findCursorPage(query);
+            query.setCursor(first.getNextCursor());
+            CursorPage<UserVO> second = userService.findCursorPage(query);
+
+            assertThat(first.getTotal()).isEqualTo(7L);
+            assertThat(second.getTotal()).isNull();
+            assertThat(second.getContent()).hasSize(2);
+        }
+    }
+
+    @Test
+    void newerRowsDoNotShiftLaterPages() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 17, 8, 0);
+        for (int i = 0; i < 9; i++) {
+            createUser(base.plusMinutes(i));
+        }
+        List<Long> expected = expectedOrder();
+
+        try (LoginSupport.Session ignored = LoginSupport.loginAs(ADMIN_ID)) {
+            CursorPage<UserVO> first = userService.findCursorPage(query(4, null));
+            // 翻页过程中新增更新的用户
+            createUser(base.plusHours(1));
+            CursorPage<UserVO> second = userService.findCursorPage(query(4, first.getNextCursor()));
+            CursorPage<UserVO> third = userService.findCursorPage(query(4, second.getNextCursor()));
+
+            assertThat(ids(List.of(first, second, third))).containsExactlyElementsOf(expected);
+            assertThat(third.isHasNext()).isFalse();
+        }
+    }
+
+    /**
+     * 以管理员身份逐页查询直到没有下一页
+     */
+    private List<CursorPage<UserVO>> scroll(int size) {
+        List<CursorPage<UserVO>> pages = new ArrayList<>();
+        try (LoginSupport.Session ignored = LoginSupport.loginAs(ADMIN_ID)) {
+            String cursor = null;
+            do {
+                CursorPage<UserVO> page = userService.findCursorPage(query(size, cursor));
+                assertThat(page.getNextCursor() != null).isEqualTo(page.isHasNext());
+                pages.add(page);
+                cursor = page.getNextCursor();
+            } while (cursor != null && pages.size() < 100);
+        }
+        return pages;
+    }
+
+    private UserQueryDTO query(int size, String cursor) {
+        UserQueryDTO query = new UserQueryDTO();
+        query.setDeptId(deptId);
+        query.setSize(size);
+        query.setCursor(cursor);
+        return query;
+    }
+
+    private void createUser(LocalDateTime createTime) {
+        jdbcTemplate.update("INSERT INTO sys_user (username, password, dept_id, create_time) VALUES (?, 'x', ?, ?)",
+                prefix + "u" + jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sys_user WHERE dept_id = ?",
+                        Long.class, deptId), deptId, Timestamp.valueOf(createTime));
+    }
+
+    /**
+     * 按 (create_time, id) 倒序的用户ID
+     */
+    private List<Long> expectedOrder() {
+        return jdbcTemplate.queryForList("SELECT id FROM sys_user WHERE dept_id = ? ORDER BY create_time DESC, id DESC",
+                Long.class, deptId);
+    }
+
+    private static List<Long> ids(List<CursorPage<UserVO>> pages) {
+        return pages.stream().flatMap(page -> page.getContent().stream()).map(UserVO::getId).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.taichu.yingjiguanli.modules.sys;
+
+import com.taichu.yingjiguanli.config.FullTextFunctionContributor;
+import com.taichu.yingjiguanli.modules.sys.entity.SysUser;
+import com.taichu.yingjiguanli.modules.sys.repository.UserKeywordSearch;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.criteria.JpaFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户关键词检索条件测试
+ * 断言全文检索串以绑定参数传入 (Criteria 不使用字面量，原生 SQL 只引用命名参数)，
+ * 检索串中的双引号被去除，短关键词和未启用全文检索时回退为 LIKE
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+class UserKeywordSearchTest {
+
+    private final UserKeywordSearch fulltextSearch = new UserKeywordSearch(true, 2);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void criteriaBindsPhraseAsParameter() {
+        HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class);
+        Root<SysUser> root = mock(Root.class);
+        Path<Object> path = mock(Path.class);
+        JpaExpression<Object> phrase = mock(JpaExpression.class);
+        JpaFunction<Double> score = mock(JpaFunction.class);
+        when(root.get(anyString())).thenReturn(path);
+        doReturn(phrase).when(cb).value(any());
+        when(cb.function(eq(FullTextFunctionContributor.MATCH_AGAINST), eq(Double.class), any(Expression[].class)))
+                .thenReturn(score);
+
+        fulltextSearch.toPredicate(root, cb, "张\"三");
+
+        verify(cb).value("\"张 三\"");
+        verify(cb, never()).literal(any());
+        verify(cb).function(FullTextFunctionContributor.MATCH_AGAINST, Double.class, path, path, path, phrase);
+        verify(cb).greaterThan(score, 0.0);
+    }
+
+    @Test
+    void sqlReferencesNamedParameterOnly() {
+        Map<String, Object> params = new HashMap<>();
+
+        String sql = fulltextSearch.toSql("u", "a'b\"c", params);
+
+        assertThat(sql).isEqualTo("MATCH(u.username, u.real_name, u.phone) AGAINST(:keyword IN BOOLEAN MODE)");
+        assertThat(params).containsExactly(Map.entry(UserKeywordSearch.PARAM_KEYWORD, "\"a'b c\""));
+    }
+
+    @Test
+    void fieldSqlCombinesMatchAndLike() {
+        Map<String, Object> params = new HashMap<>();
+
+        String sql = fulltextSearch.toSql("u", UserKeywordSearch.Field.REAL_NAME, "张三", params);
+
+        assertThat(sql).isEqualTo("MATCH(u.username, u.real_name, u.phone) AGAINST(:realNamePhrase IN BOOLEAN MODE)"
+                + " AND u.real_name LIKE :realName");
+        assertThat(params).containsOnly(Map.entry("realName", "%张三%"), Map.entry("realNamePhrase", "\"张三\""));
+    }
+
+    @Test
+    void shortOrQuoteOnlyKeywordFallsBackToLike() {
+        for (String keyword : new String[]{"张", "\"\""}) {
+            Map<String, Object> params = new HashMap<>();
+            assertThat(fulltextSearch.toSql("u", keyword, params)).doesNotContain("MATCH");
+            assertThat(params).containsExactly(Map.entry(UserKeywordSearch.PARAM_KEYWORD, "%" + keyword + "%"));
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        assertThat(new UserKeywordSearch(false, 2).toSql("u", "张三", params))
+                .isEqualTo("(u.username LIKE :keyword OR u.real_name LIKE :keyword OR u.phone LIKE :keyword)");
+    }
+}
@@ -0,0 +1,203 @@
+package com.taichu.yingjiguanli.security;
+
+import com.taichu.yingjiguanli.modules.sys.dto.DeptUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.MenuCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.MenuUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.RoleMenuDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserCreateDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserRoleDTO;
+import com.taichu.yingjiguanli.modules.sys.dto.UserUpdateDTO;
+import com.taichu.yingjiguanli.modules.sys.service.SysDeptService;
+import com.taichu.yingjiguanli.modules.sys.service.SysMenuService;
+import com.taichu.yingjiguanli.modules.sys.service.SysRoleService;
+import com.taichu.yingjiguanli.modules.sys.service.SysUserService;
+import com.taichu.yingjiguanli.modules.sys.vo.DeptVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用户授权档案缓存失效测试
+ * 先读取使档案进入缓存，再经服务层修改角色菜单、用户角色、菜单权限标识、用户资料和部门名称，
+ * 断言事务提交后再次读取得到新档案，未变更时命中缓存返回同一实例
+ *
+ * @author CX
+ * @since 2026-01-17
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthorizationCacheTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private AuthorizationCache authorizationCache;
+
+    @Autowired
+    private SysUserService userService;
+
+    @Autowired
+    private SysRoleService roleService;
+
+    @Autowired
+    private SysMenuService menuService;
+
+    @Autowired
+    private SysDeptService deptService;
+
+    private final List<Long> menuIds = new ArrayList<>();
+    private String firstPermission;
+    private String secondPermission;
+
+    @BeforeEach
+    void setUp() {
+        firstPermission = createMenu();
+        secondPermission = createMenu();
+    }
+
+    @AfterEach
+    void tearDown() {
+        menuIds.forEach(menuService::delete);
+    }
+
+    @Test
+    void unchangedProfileIsServedFromCache() {
+        Long userId = createUser(null, List.of(createRole(List.of(menuIds.get(0)))));
+
+        AuthProfile profile = authorizationCache.getProfile(userId);
+
+        assertThat(authorizationCache.getProfile(userId)).isSameAs(profile);
+        assertThat(profile.permissions()).containsExactly(firstPermission);
+    }
+
+    @Test
+    void roleMenuChangeEvictsUsersOfThatRole() {
+        Long roleId = createRole(List.of(menuIds.get(0)));
+        Long userId = createUser(null, List.of(roleId));
+        Long otherUserId = createUser(null, List.of(createRole(List.of(menuIds.get(0)))));
+        assertThat(authorizationCache.getPermissions(userId)).containsExactly(firstPermission);
+        AuthProfile otherProfile = authorizationCache.getProfile(otherUserId);
+
+        RoleMenuDTO assign = new RoleMenuDTO();
+        assign.setMenuIds(List.of(menuIds.get(1)));
+        roleService.assignMenus(roleId, assign);
+
+        assertThat(authorizationCache.getPermissions(userId)).containsExactly(secondPermission);
+        // 未拥有该角色的用户不受影响
+        assertThat(authorizationCache.getProfile(otherUserId)).isSameAs(otherProfile);
+    }
+
+    @Test
+    void userRoleChangeEvictsThatUser() {
+        Long firstRoleId = createRole(List.of(menuIds.get(0)));
+        Long secondRoleId = createRole(List.of(menuIds.get(1)));
+        Long userId = createUser(null, List.of(firstRoleId));
+        assertThat(authorizationCache.getPermissions(userId)).containsExactly(firstPermission);
+
+        UserRoleDTO assign = new UserRoleDTO();
+        assign.setRoleIds(List.of(secondRoleId));
+        userService.assignRoles(userId, assign);
+
+        assertThat(authorizationCache.getPermissions(userId)).containsExactly(secondPermission);
+        assertThat(authorizationCache.getProfile(userId).roleIds()).containsExactly(secondRoleId);
+    }
+
+    @Test
+    void menuPermissionChangeEvictsAllUsers() {
+        Long userId = createUser(null, List.of(createRole(List.of(menuIds.get(0)))));
+        assertThat(authorizationCache.getPermissions(userId)).containsExactly(firstPermission);
+
+        MenuUpdateDTO update = new MenuUpdateDTO();
+        update.setPermission(firstPermission + ":changed");
+        menuService.update(menuIds.get(0), update);
+
+        assertThat(authorizationCache.getPermissions(userId)).containsExactly(firstPermission + ":changed");
+    }
+
+    @Test
+    void userProfileChangeEvictsThatUser() {
+        Long userId = createUser(null, List.of());
+        assertThat(authorizationCache.getProfile(userId).realName()).isEqualTo("授权缓存测试用户");
+
+        UserUpdateDTO update = new UserUpdateDTO();
+        update.setRealName("授权缓存测试用户-改");
+        userService.update(userId, update);
+
+        assertThat(authorizationCache.getProfile(userId).realName()).isEqualTo("授权缓存测试用户-改");
+    }
+
+    @Test
+    void deptRenameEvictsUsersOfThatDept() {
+        // 使用初始化数据中的部门 (测试结束后恢复名称)
+        DeptVO dept = deptService.findAll().getFirst();
+        Long userId = createUser(dept.getId(), List.of());
+        assertThat(authorizationCache.getProfile(userId).deptName()).isEqualTo(dept.getDeptName());
+
+        DeptUpdateDTO update = new DeptUpdateDTO();
+        update.setDeptName(dept.getDeptName() + "-改");
+        deptService.update(dept.getId(), update);
+        try {
+            assertThat(authorizationCache.getProfile(userId).deptName()).isEqualTo(update.getDeptName());
+        } finally {
+            update.setDeptName(dept.getDeptName());
+            deptService.update(dept.getId(), update);
+        }
+    }
+
+    /**
+     * 创建按钮菜单
+     *
+     * @return 权限标识
+     */
+    private String createMenu() {
+        String permission = "auth_cache_test:" + nextSuffix();
+        MenuCreateDTO dto = new MenuCreateDTO();
+        dto.setMenuName("授权缓存测试按钮");
+        dto.setMenuType(2);
+        dto.setPermission(permission);
+        menuIds.add(menuService.create(dto).getId());
+        return permission;
+    }
+
+    /**
+     * 创建角色
+     */
+    private Long createRole(List<Long> roleMenuIds) {
+        String suffix = nextSuffix();
+        RoleCreateDTO dto = new RoleCreateDTO();
+        dto.setRoleName("授权缓存测试角色" + suffix);
+        dto.setRoleCode("auth_cache_test_" + suffix);
+        dto.setMenuIds(roleMenuIds);
+        return roleService.create(dto).getId();
+    }
+
+    /**
+     * 创建用户
+     */
+    private Long createUser(Long deptId, List<Long> roleIds) {
+        UserCreateDTO dto = new UserCreateDTO();
+        dto.setUsername("auth_cache_test_" + nextSuffix());
+        dto.setPassword("pass123");
+        dto.setRealName("授权缓存测试用户");
+        dto.setDeptId(deptId);
+        dto.setRoleIds(roleIds);
+        return userService.create(dto).getId();
+    }
+
+    /**
+     * 测试数据名称后缀 (同一测试上下文内唯一)
+     */
+    private static String nextSuffix() {
+        return Long.toString(System.nanoTime(), 36) + SEQUENCE.incrementAndGet();
+    }
+}
@@ -0,0 +1,120 @@
+-- V1__create_sys_tables.sql
+-- 作者: CX
+-- 日期: 2026-01-13
+-- 描述: 创建权限管理系统基础表
+-- H2 测试版本: 索引名加表名前缀 (H2 的索引名在整个 schema 内唯一)
+-- 源脚本 CRC32: 57d36840
+
+-- =============================================
+-- 部门表 sys_dept
+-- =============================================
+CREATE TABLE sys_dept (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    parent_id BIGINT DEFAULT 0 COMMENT '父部门ID (0为顶级)',
+    dept_name VARCHAR(50) NOT NULL COMMENT '部门名称',
+    leader VARCHAR(50) COMMENT '负责人',
+    phone VARCHAR(20) COMMENT '联系电话',
+    sort INT DEFAULT 0 COMMENT '排序',
+    status TINYINT DEFAULT 1 COMMENT '状态 (0禁用 1启用)',
+    del_flag TINYINT DEFAULT 0 COMMENT '删除标记 (0正常 1删除)',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX sys_dept_idx_parent_id (parent_id),
+    INDEX sys_dept_idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='部门表';
+
+-- =============================================
+-- 用户表 sys_user
+-- =============================================
+CREATE TABLE sys_user (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    username VARCHAR(50) NOT NULL COMMENT '用户名',
+    password VARCHAR(100) NOT NULL COMMENT '密码',
+    real_name VARCHAR(50) COMMENT '真实姓名',
+    phone VARCHAR(20) COMMENT '手机号',
+    email VARCHAR(100) COMMENT '邮箱',
+    avatar VARCHAR(255) COMMENT '头像URL',
+    dept_id BIGINT COMMENT '部门ID',
+    status TINYINT DEFAULT 1 COMMENT '状态 (0禁用 1启用)',
+    del_flag TINYINT DEFAULT 0 COMMENT '删除标记 (0正常 1删除)',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY sys_user_uk_username (username),
+    INDEX sys_user_idx_dept_id (dept_id),
+    INDEX sys_user_idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户表';
+
+-- =============================================
+-- 角色表 sys_role
+-- =============================================
+CREATE TABLE sys_role (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    role_name VARCHAR(50) NOT NULL COMMENT '角色名称',
+    role_code VARCHAR(50) NOT NULL COMMENT '角色编码',
+    data_scope TINYINT DEFAULT 1 COMMENT '数据权限范围 (1全部 2本部门 3本部门及下级 4仅本人 5自定义)',
+    sort INT DEFAULT 0 COMMENT '排序',
+    status TINYINT DEFAULT 1 COMMENT '状态 (0禁用 1启用)',
+    del_flag TINYINT DEFAULT 0 COMMENT '删除标记 (0正常 1删除)',
+    remark VARCHAR(255) COMMENT '备注',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY sys_role_uk_role_code (role_code),
+    INDEX sys_role_idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色表';
+
+-- =============================================
+-- 菜单表 sys_menu
+-- =============================================
+CREATE TABLE sys_menu (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    parent_id BIGINT DEFAULT 0 COMMENT '父菜单ID (0为顶级)',
+    menu_name VARCHAR(50) NOT NULL COMMENT '菜单名称',
+    menu_type TINYINT NOT NULL COMMENT '菜单类型 (0目录 1菜单 2按钮)',
+    path VARCHAR(255) COMMENT '路由路径',
+    component VARCHAR(255) COMMENT '组件路径',
+    permission VARCHAR(100) COMMENT '权限标识',
+    icon VARCHAR(50) COMMENT '图标',
+    sort INT DEFAULT 0 COMMENT '排序',
+    visible TINYINT DEFAULT 1 COMMENT '是否可见 (0隐藏 1显示)',
+    status TINYINT DEFAULT 1 COMMENT '状态 (0禁用 1启用)',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX sys_menu_idx_parent_id (parent_id),
+    INDEX sys_menu_idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='菜单表';
+
+-- =============================================
+-- 用户角色关联表 sys_user_role
+-- =============================================
+CREATE TABLE sys_user_role (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    role_id BIGINT NOT NULL COMMENT '角色ID',
+    UNIQUE KEY sys_user_role_uk_user_role (user_id, role_id),
+    INDEX sys_user_role_idx_user_id (user_id),
+    INDEX sys_user_role_idx_role_id (role_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户角色关联表';
+
+-- =============================================
+-- 角色菜单关联表 sys_role_menu
+-- =============================================
+CREATE TABLE sys_role_menu (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    role_id BIGINT NOT NULL COMMENT '角色ID',
+    menu_id BIGINT NOT NULL COMMENT '菜单ID',
+    UNIQUE KEY sys_role_menu_uk_role_menu (role_id, menu_id),
+    INDEX sys_role_menu_idx_role_id (role_id),
+    INDEX sys_role_menu_idx_menu_id (menu_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色菜单关联表';
+
+-- =============================================
+-- 角色部门关联表 sys_role_dept (数据权限)
+-- =============================================
+CREATE TABLE sys_role_dept (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    role_id BIGINT NOT NULL COMMENT '角色ID',
+    dept_id BIGINT NOT NULL COMMENT '部门ID',
+    UNIQUE KEY sys_role_dept_uk_role_dept (role_id, dept_id),
+    INDEX sys_role_dept_idx_role_id (role_id),
+    INDEX sys_role_dept_idx_dept_id (dept_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色部门关联表(数据权限)';
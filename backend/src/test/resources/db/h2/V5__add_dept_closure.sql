@@ -0,0 +1,24 @@
+-- V5__add_dept_closure.sql
+-- 作者: CX
+-- 日期: 2026-01-17
+-- 描述: 添加部门闭包表，支持无递归的子树查询 (数据权限、报表按部门子树过滤)
+-- H2 测试版本: 索引名加表名前缀，闭包关系直接写入
+-- 源脚本 CRC32: 8738cd28
+
+-- =============================================
+-- 1. 部门闭包表 sys_dept_closure
+-- 每个部门与其所有祖先 (含自身) 各一行，子树查询为 ancestor_id 上的索引范围扫描
+-- =============================================
+CREATE TABLE sys_dept_closure (
+    ancestor_id BIGINT NOT NULL COMMENT '祖先部门ID',
+    descendant_id BIGINT NOT NULL COMMENT '后代部门ID',
+    depth INT NOT NULL DEFAULT 0 COMMENT '层级距离 (0为自身)',
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX sys_dept_closure_idx_descendant_id (descendant_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='部门闭包表';
+
+-- =============================================
+-- 2. 根据现有部门数据初始化闭包关系 (仅未删除部门)
+-- =============================================
+-- H2 不支持 INSERT ... WITH RECURSIVE，按 V4 的部门数据直接写入闭包关系
+INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth) VALUES (1,1,0),(2,2,0),(1,2,1),(3,3,0),(1,3,1),(4,4,0),(1,4,1),(5,5,0),(2,5,1),(1,5,2),(6,6,0),(2,6,1),(1,6,2),(7,7,0),(3,7,1),(1,7,2),(8,8,0),(3,8,1),(1,8,2);
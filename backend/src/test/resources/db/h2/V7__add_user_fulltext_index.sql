@@ -0,0 +1,8 @@
+-- V7__add_user_fulltext_index.sql
+-- 作者: CX
+-- 日期: 2026-01-17
+-- 描述: 用户表添加 n-gram 全文索引，支持按用户名、真实姓名、手机号关键词检索 (替代前置通配符 LIKE 全表扫描)
+-- H2 测试版本: H2 不支持 FULLTEXT 索引，测试配置关闭全文检索 (yingji.user-search.fulltext=false)，检索回退为 LIKE
+-- 源脚本 CRC32: 71b4781c
+
+SELECT 1;
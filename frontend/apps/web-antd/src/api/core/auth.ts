@@ -1,5 +1,13 @@
+import type { RouteRecordStringComponent, UserInfo } from '@vben/types';
+
+import type { BackendRoute } from './menu';
+import type { BackendUserInfo } from './user';
+
 import { baseRequestClient, requestClient } from '#/api/request';
 
+import { transformRoutes } from './menu';
+import { transformUserInfo } from './user';
+
 export namespace AuthApi {
   /** 登录接口参数 */
   export interface LoginParams {
@@ -18,6 +26,21 @@ export namespace AuthApi {
     data: string;
     status: number;
   }
+
+  /** 登录引导数据 (已转换为 Vben Admin 格式) */
+  export interface BootstrapResult {
+    accessCodes: string[];
+    routes: RouteRecordStringComponent[];
+    userInfo: UserInfo;
+  }
+}
+
+/**
+ * 后端登录引导数据返回格式
+ */
+interface BackendBootstrap {
+  userInfo: BackendUserInfo;
+  routes: BackendRoute[];
 }
 
 /**
@@ -52,3 +75,17 @@ export async function logoutApi() {
 export async function getAccessCodesApi() {
   return requestClient.get<string[]>('/auth/permissions');
 }
+
+/**
+ * 获取登录引导数据
+ * 调用后端 /api/auth/bootstrap 接口，一次返回用户信息、权限码和路由，
+ * 替代登录后分别调用 /auth/info、/auth/permissions 和 /auth/routes
+ */
+export async function getBootstrapApi(): Promise<AuthApi.BootstrapResult> {
+  const res = await requestClient.get<BackendBootstrap>('/auth/bootstrap');
+  return {
+    accessCodes: res.userInfo.permissions ?? [],
+    routes: transformRoutes(res.routes ?? []),
+    userInfo: transformUserInfo(res.userInfo),
+  };
+}
@@ -5,7 +5,7 @@ import { requestClient } from '#/api/request';
 /**
  * 后端路由返回格式
  */
-interface BackendRoute {
+export interface BackendRoute {
   name: string;
   path: string;
   component: string;
@@ -41,7 +41,9 @@ function transformComponent(component: string): string {
  * 转换后端路由格式为前端路由格式
  * 后端返回的路由格式需要转换为 Vben Admin 的 RouteRecordStringComponent 格式
  */
-function transformRoutes(routes: BackendRoute[]): RouteRecordStringComponent[] {
+export function transformRoutes(
+  routes: BackendRoute[],
+): RouteRecordStringComponent[] {
   return routes.map((route) => {
     const result: RouteRecordStringComponent = {
       name: route.name,
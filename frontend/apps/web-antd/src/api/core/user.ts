@@ -5,7 +5,7 @@ import { requestClient } from '#/api/request';
 /**
  * 后端返回的用户信息类型
  */
-interface BackendUserInfo {
+export interface BackendUserInfo {
   userId: number;
   username: string;
   realName: string;
@@ -23,7 +23,13 @@ interface BackendUserInfo {
  */
 export async function getUserInfoApi(): Promise<UserInfo> {
   const res = await requestClient.get<BackendUserInfo>('/auth/info');
-  // 转换为 Vben Admin 标准格式
+  return transformUserInfo(res);
+}
+
+/**
+ * 转换后端用户信息为 Vben Admin 标准格式
+ */
+export function transformUserInfo(res: BackendUserInfo): UserInfo {
   return {
     userId: String(res.userId),
     username: res.username,
@@ -57,6 +57,8 @@ export interface UserQueryParams {
   page?: number;
   /** 每页数量 */
   size?: number;
+  /** 关键词 (同时检索用户名、真实姓名、手机号) */
+  keyword?: string;
   /** 用户名 */
   username?: string;
   /** 真实姓名 */
@@ -1,4 +1,8 @@
-import type { Recordable, UserInfo } from '@vben/types';
+import type {
+  Recordable,
+  RouteRecordStringComponent,
+  UserInfo,
+} from '@vben/types';
 
 import { ref } from 'vue';
 import { useRouter } from 'vue-router';
@@ -10,7 +14,7 @@ import { resetAllStores, useAccessStore, useUserStore } from '@vben/stores';
 import { notification } from 'ant-design-vue';
 import { defineStore } from 'pinia';
 
-import { getAccessCodesApi, getUserInfoApi, loginApi, logoutApi } from '#/api';
+import { getBootstrapApi, getUserInfoApi, loginApi, logoutApi } from '#/api';
 import { $t } from '#/locales';
 
 export const useAuthStore = defineStore('auth', () => {
@@ -20,6 +24,9 @@ export const useAuthStore = defineStore('auth', () => {
 
   const loginLoading = ref(false);
 
+  /** 登录引导数据中尚未用于生成路由的路由表 */
+  let pendingRoutes: null | RouteRecordStringComponent[] = null;
+
   /**
    * 异步处理登录操作
    * Asynchronously handle the login process
@@ -39,16 +46,8 @@ export const useAuthStore = defineStore('auth', () => {
       if (accessToken) {
         accessStore.setAccessToken(accessToken);
 
-        // 获取用户信息并存储到 accessStore 中
-        const [fetchUserInfoResult, accessCodes] = await Promise.all([
-          fetchUserInfo(),
-          getAccessCodesApi(),
-        ]);
-
-        userInfo = fetchUserInfoResult;
-
-        userStore.setUserInfo(userInfo);
-        accessStore.setAccessCodes(accessCodes);
+        // 一次获取用户信息、权限码和路由并存储
+        userInfo = await fetchBootstrap();
 
         if (accessStore.loginExpired) {
           accessStore.setLoginExpired(false);
@@ -97,6 +96,31 @@ export const useAuthStore = defineStore('auth', () => {
     });
   }
 
+  /**
+   * 获取登录引导数据
+   * 存储用户信息和权限码，路由暂存至下一次生成动态路由时使用
+   */
+  async function fetchBootstrap() {
+    const { accessCodes, routes, userInfo } = await getBootstrapApi();
+    userStore.setUserInfo(userInfo);
+    accessStore.setAccessCodes(accessCodes);
+    pendingRoutes = routes;
+    return userInfo;
+  }
+
+  /**
+   * 获取生成动态路由所需的路由表
+   * 优先使用登录引导数据中暂存的路由 (仅使用一次)，否则重新获取登录引导数据
+   */
+  async function fetchAccessRoutes() {
+    if (!pendingRoutes) {
+      await fetchBootstrap();
+    }
+    const routes = pendingRoutes ?? [];
+    pendingRoutes = null;
+    return routes;
+  }
+
   async function fetchUserInfo() {
     let userInfo: null | UserInfo = null;
     userInfo = await getUserInfoApi();
@@ -106,11 +130,14 @@ export const useAuthStore = defineStore('auth', () => {
 
   function $reset() {
     loginLoading.value = false;
+    pendingRoutes = null;
   }
 
   return {
     $reset,
     authLogin,
+    fetchAccessRoutes,
+    fetchBootstrap,
     fetchUserInfo,
     loginLoading,
     logout,